@@ -0,0 +1,70 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.DataTypeConverter;
+import com.mongoimport.converter.DateParser;
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detecção automática de tipo (colunas sem tipo declarado) sobre misturas realistas de valores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AutoDetectBenchmark {
+
+    @Param({"numeric", "text", "mixed"})
+    public String mix;
+
+    private String[] values;
+    private byte[][] bytes;
+    private DateParser dateParser;
+    private final Charset charset = StandardCharsets.UTF_8;
+
+    @Setup
+    public void setup() {
+        values = BenchmarkData.autoValues(mix);
+        bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(charset);
+        }
+        dateParser = DateParser.learning();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void detectString(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(DataTypeConverter.convertValue(value, DataType.AUTO, ParseGrace.AUTO_CAST, dateParser));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void detectBytes(Blackhole blackhole) {
+        for (byte[] value : bytes) {
+            blackhole.consume(DataTypeConverter.convertValue(value, 0, value.length, charset, DataType.AUTO,
+                                                             ParseGrace.AUTO_CAST, dateParser));
+        }
+    }
+}
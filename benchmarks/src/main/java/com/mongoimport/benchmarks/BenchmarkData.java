@@ -0,0 +1,183 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.model.DataType;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Valores de entrada dos benchmarks, gerados com semente fixa: todas as execuções (e a
+ * baseline) medem exatamente os mesmos dados.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42;
+
+    /**
+     * Quantidade de valores convertidos por operação nos benchmarks de conversão.
+     */
+    static final int VALUES = 1024;
+
+    private static final String[] CITIES = {
+        "São Paulo", "Rio de Janeiro", "Belo Horizonte", "Porto Alegre", "Curitiba", "Recife", "Salvador", "Manaus"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Valores válidos e realistas para o tipo (com os formatos aceitos pelo conversor).
+     */
+    static String[] valuesFor(DataType dataType) {
+        Random random = new Random(SEED);
+        String[] values = new String[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = valueFor(dataType, random);
+        }
+        return values;
+    }
+
+    private static String valueFor(DataType dataType, Random random) {
+        return switch (dataType) {
+            case STRING, AUTO -> CITIES[random.nextInt(CITIES.length)];
+            case INT32 -> Integer.toString(random.nextInt(1_000_000));
+            case INT64 -> Long.toString(random.nextLong() >>> 20);
+            case DOUBLE -> String.format(Locale.ROOT, "%.3f", random.nextDouble() * 10_000);
+            case DECIMAL -> (random.nextInt(100_000)) + "." + String.format(Locale.ROOT, "%02d", random.nextInt(100));
+            case BOOLEAN -> random.nextBoolean() ? "true" : "false";
+            case DATE -> String.format(Locale.ROOT, "2024-%02d-%02dT%02d:%02d:%02d",
+                                       1 + random.nextInt(12), 1 + random.nextInt(28),
+                                       random.nextInt(24), random.nextInt(60), random.nextInt(60));
+            case OBJECTID -> new ObjectId(random.nextInt(Integer.MAX_VALUE), random.nextInt(0xFFFFFF)).toHexString();
+            case BINDATA -> {
+                byte[] bytes = new byte[16 + random.nextInt(32)];
+                random.nextBytes(bytes);
+                yield Base64.getEncoder().encodeToString(bytes);
+            }
+        };
+    }
+
+    /**
+     * Mistura de valores típica de colunas sem tipo declarado (AUTO).
+     *
+     * @param mix numeric (inteiros e decimais), text (nomes e códigos) ou mixed (todos os
+     *            tipos detectáveis, inclusive datas, booleanos e ObjectIds)
+     */
+    static String[] autoValues(String mix) {
+        Random random = new Random(SEED);
+        String[] values = new String[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (mix) {
+                case "numeric" -> random.nextBoolean() ? valueFor(DataType.INT32, random) : valueFor(DataType.DOUBLE, random);
+                case "text" -> random.nextBoolean() ? CITIES[random.nextInt(CITIES.length)]
+                    : "SKU-" + Integer.toString(random.nextInt(1 << 20), 36).toUpperCase();
+                case "mixed" -> {
+                    DataType[] types = { DataType.STRING, DataType.INT32, DataType.INT64, DataType.DOUBLE,
+                                         DataType.BOOLEAN, DataType.DATE, DataType.OBJECTID };
+                    yield valueFor(types[random.nextInt(types.length)], random);
+                }
+                default -> throw new IllegalArgumentException("Mistura desconhecida: " + mix);
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Valores de uma coluna INT32 com uma fração de valores inválidos, para medir o custo de
+     * cada modo de tolerância a erros.
+     */
+    static String[] int32WithInvalid(double invalidRatio) {
+        Random random = new Random(SEED);
+        String[] values = new String[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() < invalidRatio ? "n/a-" + random.nextInt(100)
+                : valueFor(DataType.INT32, random);
+        }
+        return values;
+    }
+
+    /**
+     * Cabeçalho sem subdocumentos.
+     */
+    static String[] flatHeaders(int columns) {
+        String[] headers = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            headers[i] = "field_" + i;
+        }
+        return headers;
+    }
+
+    /**
+     * Cabeçalho com subdocumentos: grupos de colunas sob caminhos com {@code depth} níveis
+     * (ex.: {@code level0_1.level1_1.level2_1.field_3}).
+     */
+    static String[] nestedHeaders(int columns, int depth) {
+        String[] headers = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            int group = i / 4;
+            StringBuilder path = new StringBuilder();
+            for (int level = 0; level < depth; level++) {
+                path.append("level").append(level).append('_').append(group % (level + 2)).append('.');
+            }
+            headers[i] = path.append("field_").append(i).toString();
+        }
+        return headers;
+    }
+
+    /**
+     * Valores já convertidos de uma linha, com tipos variados.
+     */
+    static Object[] convertedRow(int columns) {
+        Random random = new Random(SEED);
+        Object[] values = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            values[i] = switch (i % 4) {
+                case 0 -> CITIES[random.nextInt(CITIES.length)];
+                case 1 -> random.nextInt(1_000_000);
+                case 2 -> random.nextDouble() * 10_000;
+                default -> random.nextBoolean();
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Arquivo delimitado em memória com cabeçalho, no formato de uma exportação típica:
+     * identificador, nome, cidade, valor, quantidade, data, ativo, ObjectId e um texto entre aspas.
+     */
+    static byte[] delimitedFile(int rows, char delimiter) {
+        Random random = new Random(SEED);
+        StringBuilder file = new StringBuilder(rows * 120);
+        String d = String.valueOf(delimiter);
+        file.append(String.join(d, "id", "nome", "endereco.cidade", "valor", "quantidade", "criado_em", "ativo",
+                                "ref", "obs")).append('\n');
+        for (int row = 0; row < rows; row++) {
+            file.append(row).append(delimiter)
+                .append("Cliente ").append(random.nextInt(50_000)).append(delimiter)
+                .append(CITIES[random.nextInt(CITIES.length)]).append(delimiter)
+                .append(valueFor(DataType.DOUBLE, random)).append(delimiter)
+                .append(random.nextInt(1000)).append(delimiter)
+                .append(valueFor(DataType.DATE, random)).append(delimiter)
+                .append(random.nextBoolean()).append(delimiter)
+                .append(valueFor(DataType.OBJECTID, random)).append(delimiter)
+                .append('"').append("Pedido ").append(random.nextInt(1000)).append(", entrega ")
+                .append(random.nextBoolean() ? "expressa" : "normal").append('"')
+                .append('\n');
+        }
+        return file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Posição logo após a primeira quebra de linha (início dos dados).
+     */
+    static int afterHeader(byte[] file) {
+        int i = 0;
+        while (file[i] != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+}
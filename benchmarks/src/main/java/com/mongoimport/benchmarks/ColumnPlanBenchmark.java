@@ -0,0 +1,116 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.ColumnConverter;
+import com.mongoimport.converter.ColumnPlan;
+import com.mongoimport.converter.DataTypeConverter;
+import com.mongoimport.converter.DateParser;
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das linhas de um arquivo de 100 colunas (80 com tipo declarado, 20 AUTO), antes e
+ * depois do {@link ColumnPlan}: {@code perFieldLookup} repete o laço anterior ao plano (tipo e
+ * parser de datas consultados em mapas pelo nome do campo e --parseGrace resolvido a partir da
+ * String a cada campo); {@code columnPlan} usa o conversor compilado de cada coluna. Tempo por
+ * linha convertida (sem a montagem do documento).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ColumnPlanBenchmark {
+
+    private static final int COLUMNS = 100;
+    private static final int AUTO_COLUMNS = 20;
+    private static final String PARSE_GRACE = "autoCast";
+
+    private static final DataType[] TYPED = {
+        DataType.STRING, DataType.INT32, DataType.INT64, DataType.DOUBLE,
+        DataType.DECIMAL, DataType.BOOLEAN, DataType.DATE, DataType.OBJECTID
+    };
+
+    private String[] headers;
+    private Map<String, DataType> columnTypes;
+    private Map<String, DateParser> dateParsers;
+    private ColumnPlan plan;
+    // bytes[coluna][linha]
+    private byte[][][] bytes;
+    private final Charset charset = StandardCharsets.UTF_8;
+
+    @Setup
+    public void setup() {
+        headers = BenchmarkData.flatHeaders(COLUMNS);
+        columnTypes = new HashMap<>();
+        dateParsers = new HashMap<>();
+        bytes = new byte[COLUMNS][][];
+        for (int column = 0; column < COLUMNS; column++) {
+            DataType dataType = column < COLUMNS - AUTO_COLUMNS ? TYPED[column % TYPED.length] : DataType.AUTO;
+            if (dataType != DataType.AUTO) {
+                columnTypes.put(headers[column], dataType);
+            }
+            if (dataType == DataType.DATE || dataType == DataType.AUTO) {
+                dateParsers.put(headers[column], DateParser.learning());
+            }
+            String[] values = BenchmarkData.valuesFor(dataType == DataType.AUTO ? TYPED[column % TYPED.length] : dataType);
+            bytes[column] = new byte[values.length][];
+            for (int row = 0; row < values.length; row++) {
+                bytes[column][row] = values[row].getBytes(charset);
+            }
+        }
+        plan = ColumnPlan.compile(headers, columnTypes, Map.of(), ParseGrace.fromString(PARSE_GRACE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void perFieldLookup(Blackhole blackhole) {
+        for (int row = 0; row < BenchmarkData.VALUES; row++) {
+            Object[] values = new Object[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                String fieldName = headers[column];
+                DataType dataType = columnTypes.getOrDefault(fieldName, DataType.AUTO);
+                byte[] value = bytes[column][row];
+                Object converted = DataTypeConverter.convertValue(value, 0, value.length, charset, dataType,
+                                                                  ParseGrace.fromString(PARSE_GRACE),
+                                                                  dateParsers.get(fieldName));
+                if (converted != null || !PARSE_GRACE.equalsIgnoreCase("skipfield")) {
+                    values[column] = converted;
+                }
+            }
+            blackhole.consume(values);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void columnPlan(Blackhole blackhole) {
+        for (int row = 0; row < BenchmarkData.VALUES; row++) {
+            Object[] values = new Object[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                ColumnConverter converter = plan.converter(column);
+                byte[] value = bytes[column][row];
+                values[column] = converter.convert(value, 0, value.length, charset);
+            }
+            blackhole.consume(values);
+        }
+    }
+}
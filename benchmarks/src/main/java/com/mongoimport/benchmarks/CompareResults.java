@@ -0,0 +1,97 @@
+package com.mongoimport.benchmarks;
+
+import org.bson.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois resultados JMH em JSON ({@code -rf json}) benchmark a benchmark e aponta as
+ * regressões acima do limite. Termina com código 1 se houver regressão, para uso em CI.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.mongoimport.benchmarks.CompareResults \
+ *      benchmarks/baseline/baseline.json result.json [limite%]
+ * </pre>
+ */
+public final class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD = 10.0;
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompareResults <baseline.json> <resultado.json> [limite% (padrão 10)]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        Map<String, Document> baseline = load(Path.of(args[0]));
+        Map<String, Document> current = load(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Document> entry : current.entrySet()) {
+            Document before = baseline.get(entry.getKey());
+            Document metric = (Document) entry.getValue().get("primaryMetric");
+            double score = metric.get("score", Number.class).doubleValue();
+            String unit = metric.getString("scoreUnit");
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "[NEW]        %-70s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+
+            double previous = ((Document) before.get("primaryMetric")).get("score", Number.class).doubleValue();
+            // Em modo throughput (thrpt) maior é melhor; nos modos de tempo, menor é melhor
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().getString("mode"));
+            double change = (score - previous) / previous * 100.0;
+            double worse = higherIsBetter ? -change : change;
+            String status = worse > threshold ? "[REGRESSION]" : worse < -threshold ? "[IMPROVED]  " : "[OK]        ";
+            if (worse > threshold) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                              status, entry.getKey(), previous, score, unit, change);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf(Locale.ROOT, "[MISSING]    %s%n", missing);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%d regressão(ões) acima de %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lê um arquivo JSON do JMH, indexando cada resultado por benchmark e parâmetros.
+     */
+    private static Map<String, Document> load(Path file) throws IOException {
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        List<Document> results = Document.parse("{\"results\": " + json + "}").getList("results", Document.class);
+        Map<String, Document> indexed = new LinkedHashMap<>();
+        for (Document result : results) {
+            indexed.put(key(result), result);
+        }
+        return indexed;
+    }
+
+    private static String key(Document result) {
+        String benchmark = result.getString("benchmark").replace("com.mongoimport.benchmarks.", "");
+        Document params = (Document) result.get("params");
+        if (params == null || params.isEmpty()) {
+            return benchmark;
+        }
+        return benchmark + new TreeMap<>(params);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.DataTypeConverter;
+import com.mongoimport.converter.DateParser;
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataTypeConverter#convertValue} com valores válidos de cada tipo: a partir de String
+ * (parser OpenCSV) e de fatias de bytes (parsers compat e fast). Tempo por valor convertido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConvertValueBenchmark {
+
+    @Param({"STRING", "INT32", "INT64", "DOUBLE", "DECIMAL", "BOOLEAN", "DATE", "OBJECTID", "BINDATA"})
+    public DataType dataType;
+
+    private String[] values;
+    private byte[][] bytes;
+    private DateParser dateParser;
+    private final Charset charset = StandardCharsets.UTF_8;
+
+    @Setup
+    public void setup() {
+        values = BenchmarkData.valuesFor(dataType);
+        bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(charset);
+        }
+        // Como na importação: cada coluna de datas tem um parser que aprende o formato
+        dateParser = dataType == DataType.DATE ? DateParser.learning() : null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void convertString(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(DataTypeConverter.convertValue(value, dataType, ParseGrace.AUTO_CAST, dateParser));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void convertBytes(Blackhole blackhole) {
+        for (byte[] value : bytes) {
+            blackhole.consume(DataTypeConverter.convertValue(value, 0, value.length, charset, dataType,
+                                                             ParseGrace.AUTO_CAST, dateParser));
+        }
+    }
+}
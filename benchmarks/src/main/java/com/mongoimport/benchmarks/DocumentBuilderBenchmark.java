@@ -0,0 +1,67 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.DocumentBuilder;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem de um documento a partir de uma linha já convertida, com cabeçalho plano ou com
+ * subdocumentos profundos: caminho estático (nomes resolvidos a cada linha), plano compilado
+ * e escrita direta em BSON. Tempo por documento.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DocumentBuilderBenchmark {
+
+    @Param({"flat", "nested"})
+    public String shape;
+
+    @Param({"20"})
+    public int columns;
+
+    private String[] headers;
+    private Object[] values;
+    private DocumentBuilder builder;
+
+    @Setup
+    public void setup() {
+        headers = "flat".equals(shape) ? BenchmarkData.flatHeaders(columns) : BenchmarkData.nestedHeaders(columns, 4);
+        if (!DocumentBuilder.validateHeaderStructure(headers)) {
+            throw new IllegalStateException("Cabeçalho inválido para o benchmark: " + shape);
+        }
+        values = BenchmarkData.convertedRow(columns);
+        builder = DocumentBuilder.compile(headers);
+    }
+
+    @Benchmark
+    public Document buildDocument() {
+        return DocumentBuilder.buildDocument(headers, values);
+    }
+
+    @Benchmark
+    public Document buildCompiled() {
+        return builder.build(values);
+    }
+
+    @Benchmark
+    public RawBsonDocument buildRaw() {
+        return builder.buildRaw(values);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.ColumnPlan;
+import com.mongoimport.model.ParseGrace;
+import com.mongoimport.model.ParserType;
+import com.mongoimport.parser.DelimitedParser;
+import com.mongoimport.parser.DelimitedRecord;
+import com.mongoimport.parser.OpenCsvRecordReader;
+import com.mongoimport.parser.RecordReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ponta a ponta em memória: leitura dos registros de um arquivo delimitado, conversão de cada
+ * campo com o plano da coluna (AUTO) e montagem do documento. Sem E/S de disco nem rede, o
+ * resultado isola o custo de CPU por linha de cada parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class FileParsingBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final char DELIMITER = ',';
+
+    @Param({"COMPAT", "FAST", "OPENCSV"})
+    public ParserType parser;
+
+    private byte[] file;
+    private byte[] buffer;
+    private int dataStart;
+    private ColumnPlan plan;
+
+    @Setup
+    public void setup() {
+        file = BenchmarkData.delimitedFile(ROWS, DELIMITER);
+        buffer = new byte[file.length];
+        dataStart = BenchmarkData.afterHeader(file);
+        String header = new String(file, 0, dataStart - 1, StandardCharsets.UTF_8);
+        plan = ColumnPlan.compile(header.split(String.valueOf(DELIMITER)), Map.of(), Map.of(), ParseGrace.AUTO_CAST);
+    }
+
+    /**
+     * O DelimitedParser compacta os campos no próprio buffer: cada invocação lê uma cópia
+     * intacta do arquivo (uma invocação processa {@value #ROWS} linhas, então o custo do
+     * Level.Invocation é desprezível).
+     */
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(file, 0, buffer, 0, file.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parseFile(Blackhole blackhole) throws IOException {
+        try (RecordReader reader = openReader()) {
+            DelimitedRecord record;
+            while ((record = reader.next()) != null) {
+                blackhole.consume(toDocument(record));
+            }
+        }
+    }
+
+    private RecordReader openReader() {
+        if (parser == ParserType.OPENCSV) {
+            return new OpenCsvRecordReader(new InputStreamReader(
+                new ByteArrayInputStream(buffer, dataStart, buffer.length - dataStart), StandardCharsets.UTF_8), DELIMITER);
+        }
+        DelimitedParser delimitedParser = new DelimitedParser(DELIMITER, StandardCharsets.UTF_8, parser);
+        delimitedParser.reset(buffer, dataStart, buffer.length);
+        return delimitedParser;
+    }
+
+    private Object toDocument(DelimitedRecord record) {
+        Object[] values = new Object[plan.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = record.convertField(i, plan.converter(i));
+        }
+        return plan.getDocumentBuilder().build(values);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mongoimport.benchmarks;
+
+import com.mongoimport.converter.DataTypeConverter;
+import com.mongoimport.converter.DataTypeConverter.ConversionException;
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de cada modo de tolerância a erros numa coluna INT32 com uma fração de valores
+ * inválidos. STOP fica de fora: interrompe a importação no primeiro erro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ParseGraceBenchmark {
+
+    @Param({"AUTO_CAST", "SKIP_FIELD", "SKIP_ROW"})
+    public ParseGrace parseGrace;
+
+    @Param({"0.0", "0.1"})
+    public double invalidRatio;
+
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        values = BenchmarkData.int32WithInvalid(invalidRatio);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkData.VALUES)
+    public void convert(Blackhole blackhole) {
+        for (String value : values) {
+            try {
+                blackhole.consume(DataTypeConverter.convertValue(value, DataType.INT32, parseGrace, null));
+            } catch (ConversionException e) {
+                // SKIP_ROW: a linha seria descartada pelo importador
+                blackhole.consume(e);
+            }
+        }
+    }
+}
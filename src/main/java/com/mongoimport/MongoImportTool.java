@@ -1,8 +1,15 @@
 package com.mongoimport;
 
 import com.mongoimport.config.ImportConfig;
-import com.mongoimport.importer.FileImporter;
+import com.mongoimport.importer.ImportRunner;
+import com.mongoimport.io.InputOpener;
+import com.mongoimport.io.InputResolver;
 import com.mongoimport.model.DataType;
+import com.mongoimport.model.IdMode;
+import com.mongoimport.model.ImportMode;
+import com.mongoimport.model.ParseGrace;
+import com.mongoimport.model.ParserType;
+import com.mongoimport.model.SinkType;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -11,9 +18,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Command(
     name = "mongoimport-java",
@@ -25,6 +36,9 @@ public class MongoImportTool implements Callable<Integer> {
     
     private static final Logger logger = LoggerFactory.getLogger(MongoImportTool.class);
     
+    // Tipo date com formato explícito: date(dd/MM/yyyy)
+    private static final Pattern DATE_WITH_FORMAT = Pattern.compile("(?i)date\\((.+)\\)");
+    
     @Option(names = {"--uri"}, 
             description = "URI de conexão do MongoDB (padrão: mongodb://localhost:27017/)",
             defaultValue = "mongodb://localhost:27017/")
@@ -41,7 +55,7 @@ public class MongoImportTool implements Callable<Integer> {
     private String collection;
     
     @Option(names = {"--file"}, 
-            description = "Caminho para o arquivo de entrada", 
+            description = "Arquivo de entrada (arquivo regular, named pipe ou '-' para stdin), diretório ou padrão glob (ex.: 'dados/*.csv')", 
             required = true)
     private File inputFile;
     
@@ -55,6 +69,15 @@ public class MongoImportTool implements Callable<Integer> {
             defaultValue = "1000")
     private int batchSize;
     
+    @Option(names = {"--adaptiveBatch"}, 
+            description = "Ajusta o número de documentos por batch pela latência e vazão das inserções, partindo de --batchSize")
+    private boolean adaptiveBatch;
+    
+    @Option(names = {"--maxBatchMB"}, 
+            description = "Limite de BSON por batch no modo adaptativo, em MB (1 a 32, padrão: 16)",
+            defaultValue = "16")
+    private int maxBatchMB;
+    
     @Option(names = {"--noHeaderline"}, 
             description = "Indica que o arquivo não possui linha de cabeçalho")
     private boolean noHeaderline;
@@ -64,9 +87,14 @@ public class MongoImportTool implements Callable<Integer> {
     private boolean drop;
     
     @Option(names = {"--columnsHaveTypes"}, 
-            description = "Especifica tipos de dados para colunas no formato: campo1:tipo1,campo2:tipo2")
+            description = "Especifica tipos de dados para colunas no formato: campo1:tipo1,campo2:tipo2; datas aceitam formato explícito: campo:date(dd/MM/yyyy)")
     private String columnsHaveTypes;
     
+    @Option(names = {"--inferTypes"}, 
+            description = "Amostra N linhas (início e posições espalhadas pelo arquivo) para fixar um tipo por coluna antes da importação; tipos de --columnsHaveTypes têm precedência (padrão: 0, desativado)",
+            defaultValue = "0")
+    private int inferTypes;
+    
     @Option(names = {"--parseGrace"}, 
             description = "Modo de tolerância a erros de parsing (autoCast, skipField, skipRow, stop)",
             defaultValue = "autoCast")
@@ -77,6 +105,89 @@ public class MongoImportTool implements Callable<Integer> {
             defaultValue = "UTF-8")
     private String encoding;
     
+    @Option(names = {"--numParseWorkers"}, 
+            description = "Número de threads de parsing/conversão; acima de 1 o arquivo é lido em blocos paralelos e a ordem de inserção só é preservada com --maintainInsertionOrder (padrão: 1)",
+            defaultValue = "1")
+    private int numParseWorkers;
+    
+    @Option(names = {"--numInsertionWorkers"}, 
+            description = "Número de threads que inserem batches no MongoDB enquanto a leitura e a conversão continuam (padrão: 1)",
+            defaultValue = "1")
+    private int numInsertionWorkers;
+    
+    @Option(names = {"--maintainInsertionOrder"}, 
+            description = "Insere os documentos na mesma ordem do arquivo (usa um único worker de inserção)")
+    private boolean maintainInsertionOrder;
+    
+    @Option(names = {"--maxWriteRetries"}, 
+            description = "Novas tentativas, com backoff exponencial, de um batch que falhou por erro transitório (rede, troca de primário) (padrão: 10)",
+            defaultValue = "10")
+    private int maxWriteRetries;
+    
+    @Option(names = {"--deferIndexes"}, 
+            description = "Remove os índices secundários antes da carga e os recria ao final em um único createIndexes")
+    private boolean deferIndexes;
+    
+    @Option(names = {"--checkpoint"}, 
+            description = "Grava <arquivo>.checkpoint com a posição dos registros já confirmados pelo MongoDB")
+    private boolean checkpoint;
+    
+    @Option(names = {"--resume"}, 
+            description = "Retoma a importação a partir de <arquivo>.checkpoint (implica --checkpoint)")
+    private boolean resume;
+    
+    @Option(names = {"--rawBson"}, 
+            description = "Codifica cada linha diretamente em BSON, sem Document intermediário (apenas modo insert)")
+    private boolean rawBson;
+    
+    @Option(names = {"--idFields"}, 
+            description = "Colunas das quais o _id é derivado, separadas por vírgula: reimportar o arquivo não duplica documentos")
+    private String idFields;
+    
+    @Option(names = {"--idMode"}, 
+            description = "Forma do _id derivado de --idFields: document (valor da coluna ou subdocumento com as colunas) ou hash (128 bits) (padrão: document)",
+            defaultValue = "document")
+    private String idMode;
+    
+    @Option(names = {"--sink"}, 
+            description = "Destino dos documentos: mongo, null (converte e descarta, sem MongoDB, para medir a vazão de leitura e conversão) ou bson (dump para mongorestore em --out) (padrão: mongo)",
+            defaultValue = "mongo")
+    private String sink;
+    
+    @Option(names = {"--out"}, 
+            description = "Diretório do dump gravado com --sink bson")
+    private File outputDir;
+    
+    @Option(names = {"--outFiles"}, 
+            description = "Número de arquivos .bson gravados em paralelo com --sink bson, restauráveis em paralelo (padrão: 1)",
+            defaultValue = "1")
+    private int outputFiles;
+    
+    @Option(names = {"--mode"}, 
+            description = "Modo de escrita: insert, upsert (substitui o documento), merge ($set dos campos do arquivo) ou delete (padrão: insert)",
+            defaultValue = "insert")
+    private String mode;
+    
+    @Option(names = {"--upsertFields"}, 
+            description = "Campos que identificam o documento nos modos upsert, merge e delete, separados por vírgula (padrão: _id)",
+            defaultValue = "_id")
+    private String upsertFields;
+    
+    @Option(names = {"--parser"}, 
+            description = "Parser de registros: compat (bytes, idêntico ao OpenCSV), fast (bytes, sem peculiaridades do OpenCSV) ou opencsv (padrão: compat)",
+            defaultValue = "compat")
+    private String parser;
+    
+    @Option(names = {"--readAheadMB"}, 
+            description = "Limite de leitura antecipada (MB) ao ler de stdin ou named pipe; acima dele o produtor é bloqueado (padrão: 64)",
+            defaultValue = "64")
+    private int readAheadMB;
+    
+    @Option(names = {"--parallelFiles"}, 
+            description = "Número de arquivos importados ao mesmo tempo quando --file indica um diretório ou padrão glob (padrão: 1)",
+            defaultValue = "1")
+    private int parallelFiles;
+    
     @Option(names = {"--verbose"}, 
             description = "Modo verboso para debug")
     private boolean verbose;
@@ -91,13 +202,32 @@ public class MongoImportTool implements Callable<Integer> {
         try {
             logger.info("[INFO] Iniciando importação de dados...");
             
-            // Validar arquivo de entrada
-            if (!inputFile.exists() || !inputFile.isFile()) {
+            // Expandir diretórios e padrões glob
+            List<File> inputFiles = InputResolver.resolve(inputFile);
+            if (inputFiles.isEmpty()) {
+                logger.error("[FATAL] Nenhum arquivo encontrado em: {}", inputFile.getPath());
+                return 1;
+            }
+            
+            // Validar arquivo de entrada (stdin e named pipes são lidos em fluxo)
+            if (!InputOpener.isStdin(inputFile) && !InputResolver.isGlob(inputFile) && !inputFile.isDirectory()
+                    && (!inputFile.exists() || !(inputFile.isFile() || InputOpener.isPipe(inputFile)))) {
                 logger.error("[FATAL] Arquivo não encontrado: {}", inputFile.getAbsolutePath());
                 return 1;
             }
             
+            if (maintainInsertionOrder && numInsertionWorkers > 1) {
+                logger.warn("[WARNING] --maintainInsertionOrder requer um único worker de inserção. Ignorando --numInsertionWorkers {}.", 
+                          numInsertionWorkers);
+            }
+            
+            if (!ParseGrace.isKnown(parseGrace)) {
+                logger.warn("[WARNING] Modo parseGrace desconhecido '{}', usando autoCast", parseGrace);
+            }
+            
             // Configurar importação
+            Map<String, String> dateFormats = new HashMap<>();
+            Map<String, DataType> columnTypes = parseColumnTypes(columnsHaveTypes, dateFormats);
             ImportConfig config = ImportConfig.builder()
                 .uri(uri)
                 .database(database)
@@ -105,17 +235,39 @@ public class MongoImportTool implements Callable<Integer> {
                 .inputFile(inputFile)
                 .delimiter(delimiter.charAt(0))
                 .batchSize(batchSize)
+                .adaptiveBatch(adaptiveBatch)
+                .maxBatchBytes(maxBatchMB * 1024L * 1024L)
                 .hasHeaderline(!noHeaderline)
                 .dropCollection(drop)
-                .columnTypes(parseColumnTypes(columnsHaveTypes))
-                .parseGrace(parseGrace)
+                .columnTypes(columnTypes)
+                .columnDateFormats(dateFormats)
+                .parseGrace(ParseGrace.fromString(parseGrace))
+                .inferTypes(inferTypes)
                 .encoding(encoding)
                 .verbose(verbose)
+                .numParseWorkers(numParseWorkers)
+                .parserType(ParserType.fromString(parser))
+                .readAheadBytes(readAheadMB * 1024L * 1024L)
+                .parallelFiles(parallelFiles)
+                .numInsertionWorkers(numInsertionWorkers)
+                .maintainInsertionOrder(maintainInsertionOrder)
+                .maxWriteRetries(maxWriteRetries)
+                .rawBson(rawBson)
+                .deferIndexes(deferIndexes)
+                .checkpoint(checkpoint)
+                .resume(resume)
+                .importMode(ImportMode.fromString(mode))
+                .upsertFields(parseFieldList(upsertFields))
+                .idFields(parseFieldList(idFields))
+                .idMode(IdMode.fromString(idMode))
+                .sinkType(SinkType.fromString(sink))
+                .outputDir(outputDir)
+                .outputFiles(outputFiles)
                 .build();
             
             // Executar importação
-            FileImporter importer = new FileImporter(config);
-            boolean success = importer.importFile();
+            ImportRunner runner = new ImportRunner(config, inputFiles);
+            boolean success = runner.run();
             
             if (success) {
                 logger.info("[SUCCESS] Importação concluída com sucesso!");
@@ -125,13 +277,34 @@ public class MongoImportTool implements Callable<Integer> {
                 return 1;
             }
             
+        } catch (IllegalArgumentException e) {
+            logger.error("[FATAL] Configuração inválida: {}", e.getMessage());
+            return 1;
         } catch (Exception e) {
             logger.error("[FATAL] Erro crítico durante a importação: {}", e.getMessage(), e);
             return 1;
         }
     }
     
-    private Map<String, DataType> parseColumnTypes(String columnTypesStr) {
+    private List<String> parseFieldList(String fieldsStr) {
+        List<String> fields = new ArrayList<>();
+        if (fieldsStr == null) {
+            return fields;
+        }
+        for (String field : fieldsStr.split(",")) {
+            if (!field.trim().isEmpty()) {
+                fields.add(field.trim());
+            }
+        }
+        return fields;
+    }
+    
+    /**
+     * Interpreta --columnsHaveTypes ({@code campo:tipo,...}). O tipo date aceita um formato
+     * explícito, {@code campo:date(dd/MM/yyyy)}, registrado em {@code dateFormats}; vírgulas
+     * e dois-pontos dentro dos parênteses fazem parte do formato.
+     */
+    private Map<String, DataType> parseColumnTypes(String columnTypesStr, Map<String, String> dateFormats) {
         Map<String, DataType> columnTypes = new HashMap<>();
         
         if (columnTypesStr == null || columnTypesStr.trim().isEmpty()) {
@@ -139,22 +312,30 @@ public class MongoImportTool implements Callable<Integer> {
         }
         
         try {
-            String[] pairs = columnTypesStr.split(",");
-            for (String pair : pairs) {
-                String[] parts = pair.trim().split(":");
-                if (parts.length == 2) {
-                    String fieldName = parts[0].trim();
-                    String typeName = parts[1].trim().toUpperCase();
-                    
-                    try {
-                        DataType dataType = DataType.valueOf(typeName);
-                        columnTypes.put(fieldName, dataType);
-                        logger.debug("[DEBUG] Tipo configurado: {} -> {}", fieldName, dataType);
-                    } catch (IllegalArgumentException e) {
-                        logger.warn("[WARNING] Tipo de dados desconhecido '{}' para campo '{}'. Usando STRING como padrão.", 
-                                  typeName, fieldName);
-                        columnTypes.put(fieldName, DataType.STRING);
-                    }
+            for (String pair : splitColumnTypes(columnTypesStr)) {
+                int separator = pair.indexOf(':');
+                if (separator <= 0) {
+                    continue;
+                }
+                String fieldName = pair.substring(0, separator).trim();
+                String typeName = pair.substring(separator + 1).trim();
+                
+                Matcher dateFormat = DATE_WITH_FORMAT.matcher(typeName);
+                if (dateFormat.matches()) {
+                    columnTypes.put(fieldName, DataType.DATE);
+                    dateFormats.put(fieldName, dateFormat.group(1));
+                    logger.debug("[DEBUG] Tipo configurado: {} -> DATE ({})", fieldName, dateFormat.group(1));
+                    continue;
+                }
+                
+                try {
+                    DataType dataType = DataType.valueOf(typeName.toUpperCase());
+                    columnTypes.put(fieldName, dataType);
+                    logger.debug("[DEBUG] Tipo configurado: {} -> {}", fieldName, dataType);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("[WARNING] Tipo de dados desconhecido '{}' para campo '{}'. Usando STRING como padrão.", 
+                              typeName.toUpperCase(), fieldName);
+                    columnTypes.put(fieldName, DataType.STRING);
                 }
             }
         } catch (Exception e) {
@@ -164,4 +345,26 @@ public class MongoImportTool implements Callable<Integer> {
         
         return columnTypes;
     }
+    
+    /**
+     * Separa os pares campo:tipo nas vírgulas que não estão entre parênteses.
+     */
+    private static List<String> splitColumnTypes(String columnTypesStr) {
+        List<String> pairs = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < columnTypesStr.length(); i++) {
+            char c = columnTypesStr.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth > 0) {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                pairs.add(columnTypesStr.substring(start, i));
+                start = i + 1;
+            }
+        }
+        pairs.add(columnTypesStr.substring(start));
+        return pairs;
+    }
 }
\ No newline at end of file
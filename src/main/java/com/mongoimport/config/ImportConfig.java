@@ -1,9 +1,16 @@
 package com.mongoimport.config;
 
 import com.mongoimport.model.DataType;
+import com.mongoimport.model.IdMode;
+import com.mongoimport.model.ImportMode;
+import com.mongoimport.model.ParseGrace;
+import com.mongoimport.model.ParserType;
+import com.mongoimport.model.SinkType;
 
 import java.io.File;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,9 +26,31 @@ public class ImportConfig {
     private final boolean hasHeaderline;
     private final boolean dropCollection;
     private final Map<String, DataType> columnTypes;
-    private final String parseGrace;
+    private final Map<String, String> columnDateFormats;
+    private final ParseGrace parseGrace;
     private final String encoding;
     private final boolean verbose;
+    private final int numParseWorkers;
+    private final ParserType parserType;
+    private final long readAheadBytes;
+    private final int parallelFiles;
+    private final int numInsertionWorkers;
+    private final boolean maintainInsertionOrder;
+    private final ImportMode importMode;
+    private final List<String> upsertFields;
+    private final boolean adaptiveBatch;
+    private final long maxBatchBytes;
+    private final int maxWriteRetries;
+    private final int inferTypes;
+    private final boolean rawBson;
+    private final boolean deferIndexes;
+    private final boolean checkpoint;
+    private final boolean resume;
+    private final List<String> idFields;
+    private final IdMode idMode;
+    private final SinkType sinkType;
+    private final File outputDir;
+    private final int outputFiles;
     
     private ImportConfig(Builder builder) {
         this.uri = builder.uri;
@@ -33,15 +62,79 @@ public class ImportConfig {
         this.hasHeaderline = builder.hasHeaderline;
         this.dropCollection = builder.dropCollection;
         this.columnTypes = new HashMap<>(builder.columnTypes);
+        this.columnDateFormats = new HashMap<>(builder.columnDateFormats);
         this.parseGrace = builder.parseGrace;
         this.encoding = builder.encoding;
         this.verbose = builder.verbose;
+        this.numParseWorkers = builder.numParseWorkers;
+        this.parserType = builder.parserType;
+        this.readAheadBytes = builder.readAheadBytes;
+        this.parallelFiles = builder.parallelFiles;
+        this.numInsertionWorkers = builder.numInsertionWorkers;
+        this.maintainInsertionOrder = builder.maintainInsertionOrder;
+        this.importMode = builder.importMode;
+        this.upsertFields = builder.upsertFields != null ? List.copyOf(builder.upsertFields) : List.of();
+        this.adaptiveBatch = builder.adaptiveBatch;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.maxWriteRetries = builder.maxWriteRetries;
+        this.inferTypes = builder.inferTypes;
+        this.rawBson = builder.rawBson;
+        this.deferIndexes = builder.deferIndexes;
+        this.checkpoint = builder.checkpoint;
+        this.resume = builder.resume;
+        this.idFields = builder.idFields != null ? List.copyOf(builder.idFields) : List.of();
+        this.idMode = builder.idMode;
+        this.sinkType = builder.sinkType;
+        this.outputDir = builder.outputDir;
+        this.outputFiles = builder.outputFiles;
     }
     
     public static Builder builder() {
         return new Builder();
     }
     
+    /**
+     * Cria um builder pré-preenchido com esta configuração (ex.: para importar outro arquivo
+     * com as mesmas opções).
+     */
+    public Builder toBuilder() {
+        return new Builder()
+            .uri(uri)
+            .database(database)
+            .collection(collection)
+            .inputFile(inputFile)
+            .delimiter(delimiter)
+            .batchSize(batchSize)
+            .hasHeaderline(hasHeaderline)
+            .dropCollection(dropCollection)
+            .columnTypes(columnTypes)
+            .columnDateFormats(columnDateFormats)
+            .parseGrace(parseGrace)
+            .encoding(encoding)
+            .verbose(verbose)
+            .numParseWorkers(numParseWorkers)
+            .parserType(parserType)
+            .readAheadBytes(readAheadBytes)
+            .parallelFiles(parallelFiles)
+            .numInsertionWorkers(numInsertionWorkers)
+            .maintainInsertionOrder(maintainInsertionOrder)
+            .importMode(importMode)
+            .upsertFields(upsertFields)
+            .adaptiveBatch(adaptiveBatch)
+            .maxBatchBytes(maxBatchBytes)
+            .maxWriteRetries(maxWriteRetries)
+            .inferTypes(inferTypes)
+            .rawBson(rawBson)
+            .deferIndexes(deferIndexes)
+            .checkpoint(checkpoint)
+            .resume(resume)
+            .idFields(idFields)
+            .idMode(idMode)
+            .sinkType(sinkType)
+            .outputDir(outputDir)
+            .outputFiles(outputFiles);
+    }
+    
     // Getters
     public String getUri() { return uri; }
     public String getDatabase() { return database; }
@@ -52,9 +145,35 @@ public class ImportConfig {
     public boolean hasHeaderline() { return hasHeaderline; }
     public boolean shouldDropCollection() { return dropCollection; }
     public Map<String, DataType> getColumnTypes() { return new HashMap<>(columnTypes); }
-    public String getParseGrace() { return parseGrace; }
+    public Map<String, String> getColumnDateFormats() { return new HashMap<>(columnDateFormats); }
+    public ParseGrace getParseGrace() { return parseGrace; }
     public String getEncoding() { return encoding; }
     public boolean isVerbose() { return verbose; }
+    public int getNumParseWorkers() { return numParseWorkers; }
+    public ParserType getParserType() { return parserType; }
+    public long getReadAheadBytes() { return readAheadBytes; }
+    public int getParallelFiles() { return parallelFiles; }
+    public int getNumInsertionWorkers() { return numInsertionWorkers; }
+    public boolean shouldMaintainInsertionOrder() { return maintainInsertionOrder; }
+    public ImportMode getImportMode() { return importMode; }
+    public List<String> getUpsertFields() { return upsertFields; }
+    public boolean isAdaptiveBatch() { return adaptiveBatch; }
+    public long getMaxBatchBytes() { return maxBatchBytes; }
+    public int getMaxWriteRetries() { return maxWriteRetries; }
+    public int getInferTypes() { return inferTypes; }
+    public boolean isRawBson() { return rawBson; }
+    public boolean shouldDeferIndexes() { return deferIndexes; }
+    public boolean shouldResume() { return resume; }
+    public List<String> getIdFields() { return idFields; }
+    public IdMode getIdMode() { return idMode; }
+    public SinkType getSinkType() { return sinkType; }
+    public File getOutputDir() { return outputDir; }
+    public int getOutputFiles() { return outputFiles; }
+    
+    /**
+     * @return true se o checkpoint deve ser gravado (--checkpoint ou --resume)
+     */
+    public boolean shouldCheckpoint() { return checkpoint || resume; }
     
     /**
      * Obtém o tipo de dados configurado para uma coluna específica.
@@ -75,6 +194,11 @@ public class ImportConfig {
         return !columnTypes.isEmpty();
     }
     
+    /**
+     * Maior limite de bytes por batch aceito no modo adaptativo.
+     */
+    public static final long MAX_BATCH_BYTES = 32L * 1024 * 1024;
+    
     public static class Builder {
         private String uri = "mongodb://localhost:27017/";
         private String database;
@@ -85,9 +209,31 @@ public class ImportConfig {
         private boolean hasHeaderline = true;
         private boolean dropCollection = false;
         private Map<String, DataType> columnTypes = new HashMap<>();
-        private String parseGrace = "autoCast";
+        private Map<String, String> columnDateFormats = new HashMap<>();
+        private ParseGrace parseGrace = ParseGrace.AUTO_CAST;
         private String encoding = "UTF-8";
         private boolean verbose = false;
+        private int numParseWorkers = 1;
+        private ParserType parserType = ParserType.COMPAT;
+        private long readAheadBytes = 64L * 1024 * 1024;
+        private int parallelFiles = 1;
+        private int numInsertionWorkers = 1;
+        private boolean maintainInsertionOrder = false;
+        private ImportMode importMode = ImportMode.INSERT;
+        private List<String> upsertFields = List.of("_id");
+        private boolean adaptiveBatch = false;
+        private long maxBatchBytes = 16L * 1024 * 1024;
+        private int maxWriteRetries = 10;
+        private int inferTypes = 0;
+        private boolean rawBson = false;
+        private boolean deferIndexes = false;
+        private boolean checkpoint = false;
+        private boolean resume = false;
+        private List<String> idFields = List.of();
+        private IdMode idMode = IdMode.DOCUMENT;
+        private SinkType sinkType = SinkType.MONGO;
+        private File outputDir;
+        private int outputFiles = 1;
         
         public Builder uri(String uri) {
             this.uri = uri;
@@ -134,7 +280,16 @@ public class ImportConfig {
             return this;
         }
         
-        public Builder parseGrace(String parseGrace) {
+        /**
+         * Formatos de data explícitos por campo, no padrão do {@link DateTimeFormatter}
+         * (ex.: {@code created -> dd/MM/yyyy}). Valem para campos do tipo DATE.
+         */
+        public Builder columnDateFormats(Map<String, String> columnDateFormats) {
+            this.columnDateFormats = columnDateFormats != null ? new HashMap<>(columnDateFormats) : new HashMap<>();
+            return this;
+        }
+        
+        public Builder parseGrace(ParseGrace parseGrace) {
             this.parseGrace = parseGrace;
             return this;
         }
@@ -149,6 +304,141 @@ public class ImportConfig {
             return this;
         }
         
+        public Builder numParseWorkers(int numParseWorkers) {
+            this.numParseWorkers = numParseWorkers;
+            return this;
+        }
+        
+        public Builder parserType(ParserType parserType) {
+            this.parserType = parserType;
+            return this;
+        }
+        
+        public Builder readAheadBytes(long readAheadBytes) {
+            this.readAheadBytes = readAheadBytes;
+            return this;
+        }
+        
+        public Builder parallelFiles(int parallelFiles) {
+            this.parallelFiles = parallelFiles;
+            return this;
+        }
+        
+        public Builder numInsertionWorkers(int numInsertionWorkers) {
+            this.numInsertionWorkers = numInsertionWorkers;
+            return this;
+        }
+        
+        public Builder maintainInsertionOrder(boolean maintainInsertionOrder) {
+            this.maintainInsertionOrder = maintainInsertionOrder;
+            return this;
+        }
+        
+        public Builder importMode(ImportMode importMode) {
+            this.importMode = importMode;
+            return this;
+        }
+        
+        public Builder upsertFields(List<String> upsertFields) {
+            this.upsertFields = upsertFields;
+            return this;
+        }
+        
+        public Builder adaptiveBatch(boolean adaptiveBatch) {
+            this.adaptiveBatch = adaptiveBatch;
+            return this;
+        }
+        
+        public Builder maxBatchBytes(long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+        
+        public Builder maxWriteRetries(int maxWriteRetries) {
+            this.maxWriteRetries = maxWriteRetries;
+            return this;
+        }
+        
+        /**
+         * Linhas amostradas para inferir um tipo fixo por coluna antes da importação (0 = desativado).
+         */
+        public Builder inferTypes(int inferTypes) {
+            this.inferTypes = inferTypes;
+            return this;
+        }
+        
+        /**
+         * Codifica cada linha diretamente em BSON, sem {@code Document} intermediário (apenas modo insert).
+         */
+        public Builder rawBson(boolean rawBson) {
+            this.rawBson = rawBson;
+            return this;
+        }
+        
+        /**
+         * Remove os índices secundários antes da carga e os recria ao final em um único createIndexes.
+         */
+        public Builder deferIndexes(boolean deferIndexes) {
+            this.deferIndexes = deferIndexes;
+            return this;
+        }
+        
+        /**
+         * Grava um checkpoint ao lado do arquivo de entrada, atualizado a cada batch confirmado.
+         */
+        public Builder checkpoint(boolean checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+        
+        /**
+         * Retoma a importação a partir do checkpoint gravado por uma execução anterior.
+         */
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+        
+        /**
+         * Colunas das quais o {@code _id} é derivado (vazio = ObjectId gerado).
+         */
+        public Builder idFields(List<String> idFields) {
+            this.idFields = idFields;
+            return this;
+        }
+        
+        /**
+         * Forma do {@code _id} derivado de --idFields: as próprias colunas ou um hash de 128 bits.
+         */
+        public Builder idMode(IdMode idMode) {
+            this.idMode = idMode;
+            return this;
+        }
+        
+        /**
+         * Destino dos documentos: o MongoDB ou o descarte, para medir leitura e conversão.
+         */
+        public Builder sinkType(SinkType sinkType) {
+            this.sinkType = sinkType;
+            return this;
+        }
+        
+        /**
+         * Diretório do dump gravado com --sink bson.
+         */
+        public Builder outputDir(File outputDir) {
+            this.outputDir = outputDir;
+            return this;
+        }
+        
+        /**
+         * Número de arquivos .bson gravados em paralelo com --sink bson.
+         */
+        public Builder outputFiles(int outputFiles) {
+            this.outputFiles = outputFiles;
+            return this;
+        }
+        
         public ImportConfig build() {
             if (database == null || database.trim().isEmpty()) {
                 throw new IllegalArgumentException("Database name é obrigatório");
@@ -162,6 +452,71 @@ public class ImportConfig {
             if (batchSize <= 0) {
                 throw new IllegalArgumentException("Batch size deve ser maior que zero");
             }
+            if (readAheadBytes <= 0) {
+                throw new IllegalArgumentException("Buffer de leitura antecipada deve ser maior que zero");
+            }
+            if (numParseWorkers <= 0) {
+                throw new IllegalArgumentException("Número de workers de parsing deve ser maior que zero");
+            }
+            if (parallelFiles <= 0) {
+                throw new IllegalArgumentException("Número de arquivos em paralelo deve ser maior que zero");
+            }
+            if (numInsertionWorkers <= 0) {
+                throw new IllegalArgumentException("Número de workers de inserção deve ser maior que zero");
+            }
+            // O batch pode ultrapassar o limite em até um documento (16 MB): o total fica abaixo
+            // do limite de 48 MB por mensagem do MongoDB
+            if (maxBatchBytes <= 0 || maxBatchBytes > MAX_BATCH_BYTES) {
+                throw new IllegalArgumentException("Limite de bytes por batch deve estar entre 1 byte e 32 MB");
+            }
+            for (Map.Entry<String, String> format : columnDateFormats.entrySet()) {
+                if (columnTypes.get(format.getKey()) != DataType.DATE) {
+                    throw new IllegalArgumentException("Formato de data definido para o campo '" + format.getKey()
+                        + "', que não é do tipo DATE");
+                }
+                try {
+                    DateTimeFormatter.ofPattern(format.getValue());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Formato de data inválido para o campo '" + format.getKey()
+                        + "': " + e.getMessage(), e);
+                }
+            }
+            if (maxWriteRetries < 0) {
+                throw new IllegalArgumentException("Número de novas tentativas de escrita não pode ser negativo");
+            }
+            if (inferTypes < 0) {
+                throw new IllegalArgumentException("Número de linhas para inferência de tipos não pode ser negativo");
+            }
+            if (resume && dropCollection) {
+                throw new IllegalArgumentException("A retomada (resume) não pode ser combinada com drop da coleção");
+            }
+            if (rawBson && importMode != ImportMode.INSERT) {
+                throw new IllegalArgumentException("Codificação BSON direta só está disponível no modo insert");
+            }
+            if (idMode == null) {
+                throw new IllegalArgumentException("Modo de _id é obrigatório");
+            }
+            if (sinkType == null) {
+                throw new IllegalArgumentException("Destino dos documentos (sink) é obrigatório");
+            }
+            if (sinkType != SinkType.MONGO && (dropCollection || deferIndexes || checkpoint || resume)) {
+                throw new IllegalArgumentException("O destino " + sinkType.name().toLowerCase()
+                    + " não pode ser combinado com drop, deferIndexes, checkpoint ou resume");
+            }
+            if (sinkType == SinkType.BSON) {
+                if (outputDir == null) {
+                    throw new IllegalArgumentException("Diretório de saída é obrigatório com o destino bson");
+                }
+                if (outputFiles <= 0) {
+                    throw new IllegalArgumentException("Número de arquivos de saída deve ser maior que zero");
+                }
+                if (importMode != ImportMode.INSERT) {
+                    throw new IllegalArgumentException("O destino bson só está disponível no modo insert");
+                }
+            }
+            if (importMode != ImportMode.INSERT && (upsertFields == null || upsertFields.isEmpty())) {
+                throw new IllegalArgumentException("Campos de chave (upsertFields) são obrigatórios no modo " + importMode);
+            }
             
             return new ImportConfig(this);
         }
@@ -0,0 +1,166 @@
+package com.mongoimport.converter;
+
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+/**
+ * Detecção automática de tipo (tipo AUTO) sem expressões regulares e sem exceções.
+ *
+ * Uma única passada pelos caracteres classifica o valor como ObjectId, booleano, inteiro,
+ * decimal ou candidato a data; os números são convertidos pelo {@link NumberParser}.
+ * A precedência e os resultados são os mesmos da detecção original por expressões
+ * regulares: ObjectId (24 hexadecimais), booleano (true/false/yes/no/1/0), inteiro
+ * ({@code -?[0-9]+}, int32 quando couber), decimal ({@code -?[0-9]*\.[0-9]+([eE][+-]?[0-9]+)?}),
+ * data e, por fim, o próprio texto.
+ */
+public final class AutoTypeDetector {
+    
+    private static final int OBJECTID_LENGTH = 24;
+    
+    // Formas numéricas reconhecidas pela classificação
+    private static final int NOT_NUMBER = 0;
+    private static final int INTEGER = 1;
+    private static final int DECIMAL = 2;
+    
+    private AutoTypeDetector() {
+    }
+    
+    /**
+     * Detecta o tipo de um valor e o converte.
+     * 
+     * @param value Valor sem espaços nas extremidades e não vazio
+     * @param dateParser Parser de datas da coluna (null para a busca completa nos formatos conhecidos)
+     * @return ObjectId, Boolean, Integer, Long, Double, Date ou o próprio texto
+     */
+    public static Object detect(String value, DateParser dateParser) {
+        int length = value.length();
+        
+        if (length == OBJECTID_LENGTH && isHex(value)) {
+            return new ObjectId(value);
+        }
+        
+        Boolean bool = parseBoolean(value, length);
+        if (bool != null) {
+            return bool;
+        }
+        
+        int shape = numberShape(value, length);
+        if (shape == INTEGER) {
+            Long longValue = NumberParser.parseLong(value, 0, length);
+            if (longValue == null) {
+                // Fora do intervalo do long: nenhum outro tipo se aplica
+                return value;
+            }
+            long number = longValue;
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return (int) number;
+            }
+            return longValue;
+        }
+        if (shape == DECIMAL) {
+            return NumberParser.parseDouble(value);
+        }
+        
+        Date date = DataTypeConverter.tryParseDate(value, dateParser);
+        if (date != null) {
+            return date;
+        }
+        return value;
+    }
+    
+    private static boolean isHex(String value) {
+        for (int i = 0; i < OBJECTID_LENGTH; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reconhece true/false/yes/no (sem diferenciar maiúsculas em ASCII) e 1/0.
+     */
+    private static Boolean parseBoolean(String value, int length) {
+        switch (length) {
+            case 1:
+                char c = value.charAt(0);
+                return c == '1' ? Boolean.TRUE : c == '0' ? Boolean.FALSE : null;
+            case 2:
+                return equalsIgnoreAsciiCase(value, "no") ? Boolean.FALSE : null;
+            case 3:
+                return equalsIgnoreAsciiCase(value, "yes") ? Boolean.TRUE : null;
+            case 4:
+                return equalsIgnoreAsciiCase(value, "true") ? Boolean.TRUE : null;
+            case 5:
+                return equalsIgnoreAsciiCase(value, "false") ? Boolean.FALSE : null;
+            default:
+                return null;
+        }
+    }
+    
+    private static boolean equalsIgnoreAsciiCase(String value, String lowerCaseWord) {
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerCaseWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Classifica a forma numérica do valor em uma passada: sinal negativo opcional, dígitos
+     * inteiros, fração opcional (com ao menos um dígito) e, só com fração, expoente opcional.
+     */
+    private static int numberShape(String value, int length) {
+        int i = 0;
+        if (value.charAt(0) == '-') {
+            i++;
+        }
+        
+        int integerStart = i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return i > integerStart ? INTEGER : NOT_NUMBER;
+        }
+        
+        if (value.charAt(i) != '.') {
+            return NOT_NUMBER;
+        }
+        int fractionStart = ++i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == fractionStart) {
+            return NOT_NUMBER;
+        }
+        if (i == length) {
+            return DECIMAL;
+        }
+        
+        char c = value.charAt(i);
+        if (c != 'e' && c != 'E') {
+            return NOT_NUMBER;
+        }
+        i++;
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            i++;
+        }
+        int exponentStart = i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i == length && i > exponentStart ? DECIMAL : NOT_NUMBER;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
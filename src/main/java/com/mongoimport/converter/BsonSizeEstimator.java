@@ -0,0 +1,111 @@
+package com.mongoimport.converter;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calcula o tamanho em BSON de um documento sem codificá-lo, a partir dos tipos
+ * produzidos pelo {@link DataTypeConverter}. Usado para limitar batches por bytes.
+ */
+public class BsonSizeEstimator {
+
+    // Tamanho (int32) + terminador de documento
+    private static final int DOCUMENT_OVERHEAD = 5;
+
+    // Valor de tipo desconhecido: estimativa conservadora
+    private static final int UNKNOWN_VALUE_SIZE = 16;
+
+    private BsonSizeEstimator() {
+    }
+
+    /**
+     * @param document Documento a ser medido ({@link Document} ou {@link RawBsonDocument})
+     * @return Tamanho do documento codificado em BSON, em bytes
+     */
+    public static int estimate(Bson document) {
+        if (document instanceof RawBsonDocument raw) {
+            // Já codificado: tamanho exato
+            return raw.getByteBuffer().remaining();
+        }
+        return documentSize((Document) document);
+    }
+
+    private static int documentSize(Map<String, Object> document) {
+        int size = DOCUMENT_OVERHEAD;
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            // Tipo + nome do campo (cstring) + valor
+            size += 1 + utf8Length(entry.getKey()) + 1 + valueSize(entry.getValue());
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int valueSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return 4 + utf8Length(string) + 1;
+        }
+        if (value instanceof Integer) {
+            return 4;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Date) {
+            return 8;
+        }
+        if (value instanceof ObjectId) {
+            return 12;
+        }
+        if (value instanceof Decimal128) {
+            return 16;
+        }
+        if (value instanceof byte[] bytes) {
+            return 4 + 1 + bytes.length;
+        }
+        if (value instanceof Binary binary) {
+            return 4 + 1 + binary.length();
+        }
+        if (value instanceof Map) {
+            return documentSize((Map<String, Object>) value);
+        }
+        if (value instanceof List<?> list) {
+            int size = DOCUMENT_OVERHEAD;
+            for (int i = 0; i < list.size(); i++) {
+                size += 1 + Integer.toString(i).length() + 1 + valueSize(list.get(i));
+            }
+            return size;
+        }
+        return UNKNOWN_VALUE_SIZE;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c)) {
+                    // Par substituto: 4 bytes para 2 chars
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+}
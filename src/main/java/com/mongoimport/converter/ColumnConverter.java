@@ -0,0 +1,67 @@
+package com.mongoimport.converter;
+
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+
+import java.nio.charset.Charset;
+
+/**
+ * Conversor de uma coluna, com o tipo de destino e o modo de tolerância a erros já
+ * resolvidos. Criado uma vez por coluna pelo {@link ColumnPlan}.
+ *
+ * A classe é final e única para todos os tipos: a chamada no laço de conversão de cada
+ * linha é monomórfica, e a escolha do tipo é um switch sobre o enum.
+ *
+ * Colunas que produzem texto (STRING e AUTO) têm um {@link StringCache}, que faz valores
+ * repetidos compartilharem a mesma instância.
+ */
+public final class ColumnConverter {
+    
+    private final DataType dataType;
+    private final ParseGrace parseGrace;
+    private final DateParser dateParser;
+    private final StringCache stringCache;
+    
+    /**
+     * @param dataType Tipo de destino
+     * @param parseGrace Modo de tolerância a erros
+     * @param dateParser Parser de datas da coluna (colunas DATE e AUTO) ou null
+     * @param stringCache Cache de deduplicação dos valores de texto da coluna ou null
+     */
+    public ColumnConverter(DataType dataType, ParseGrace parseGrace, DateParser dateParser,
+                           StringCache stringCache) {
+        this.dataType = dataType;
+        this.parseGrace = parseGrace;
+        this.dateParser = dateParser;
+        this.stringCache = stringCache;
+    }
+    
+    /**
+     * Converte um valor lido como String.
+     */
+    public Object convert(String value) {
+        return dedup(DataTypeConverter.convertValue(value, dataType, parseGrace, dateParser));
+    }
+    
+    /**
+     * Converte um valor armazenado como fatia de bytes.
+     */
+    public Object convert(byte[] buffer, int offset, int length, Charset charset) {
+        return dedup(DataTypeConverter.convertValue(buffer, offset, length, charset, dataType, parseGrace, dateParser));
+    }
+    
+    private Object dedup(Object value) {
+        if (stringCache != null && value instanceof String string) {
+            return stringCache.intern(string);
+        }
+        return value;
+    }
+    
+    public DataType getDataType() { return dataType; }
+    public ParseGrace getParseGrace() { return parseGrace; }
+    
+    /**
+     * @return Cache de deduplicação da coluna ou null se a coluna não produz texto
+     */
+    public StringCache getStringCache() { return stringCache; }
+}
@@ -0,0 +1,124 @@
+package com.mongoimport.converter;
+
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.IdMode;
+import com.mongoimport.model.ParseGrace;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plano de conversão imutável compilado a partir do cabeçalho: um {@link ColumnConverter}
+ * por posição de coluna. Os tipos configurados (--columnsHaveTypes) e o modo de tolerância
+ * a erros são resolvidos uma única vez, de modo que a conversão de cada linha não faz
+ * consultas a mapas nem comparações de strings. Os caminhos de subdocumentos também são
+ * compilados uma única vez ({@link DocumentBuilder#compile}), assim como as colunas do {@code _id}
+ * derivado ({@link IdGenerator}). Os caches de deduplicação de strings também são por coluna e
+ * valem para um arquivo.
+ */
+public final class ColumnPlan {
+    
+    private final String[] headers;
+    private final ColumnConverter[] converters;
+    private final ParseGrace parseGrace;
+    private final DocumentBuilder documentBuilder;
+    private final IdGenerator idGenerator;
+    
+    private ColumnPlan(String[] headers, ColumnConverter[] converters, ParseGrace parseGrace, IdGenerator idGenerator) {
+        this.headers = headers;
+        this.converters = converters;
+        this.parseGrace = parseGrace;
+        this.documentBuilder = DocumentBuilder.compile(headers);
+        this.idGenerator = idGenerator;
+    }
+    
+    /**
+     * Compila o plano de conversão de um cabeçalho.
+     * 
+     * @param headers Nomes dos campos, na ordem das colunas
+     * @param columnTypes Tipos configurados por nome de campo; campos ausentes usam AUTO
+     * @param dateFormats Formatos de data explícitos por nome de campo (colunas DATE)
+     * @param parseGrace Modo de tolerância a erros de conversão
+     * @return Plano com um conversor por coluna
+     */
+    public static ColumnPlan compile(String[] headers, Map<String, DataType> columnTypes,
+                                     Map<String, String> dateFormats, ParseGrace parseGrace) {
+        return compile(headers, columnTypes, dateFormats, parseGrace, List.of(), IdMode.DOCUMENT);
+    }
+    
+    /**
+     * Compila o plano de conversão de um cabeçalho, com o {@code _id} derivado de colunas.
+     * 
+     * @param idFields Colunas do {@code _id} (vazio = ObjectId gerado na inserção)
+     * @param idMode Forma do {@code _id} derivado
+     * @throws IllegalArgumentException se as colunas do {@code _id} não podem ser usadas com o cabeçalho
+     * @see #compile(String[], Map, Map, ParseGrace)
+     */
+    public static ColumnPlan compile(String[] headers, Map<String, DataType> columnTypes,
+                                     Map<String, String> dateFormats, ParseGrace parseGrace,
+                                     List<String> idFields, IdMode idMode) {
+        IdGenerator idGenerator = idFields.isEmpty() ? null : IdGenerator.compile(headers, idFields, idMode);
+        ColumnConverter[] converters = new ColumnConverter[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            DataType dataType = columnTypes.getOrDefault(headers[i], DataType.AUTO);
+            StringCache stringCache = dataType == DataType.STRING || dataType == DataType.AUTO ? new StringCache() : null;
+            converters[i] = new ColumnConverter(dataType, parseGrace, dateParserFor(headers[i], dataType, dateFormats),
+                                                stringCache);
+        }
+        return new ColumnPlan(headers.clone(), converters, parseGrace, idGenerator);
+    }
+    
+    /**
+     * Cada coluna com datas tem seu próprio parser, que aprende o formato da coluna
+     * (ou usa o formato explícito configurado).
+     */
+    private static DateParser dateParserFor(String header, DataType dataType, Map<String, String> dateFormats) {
+        if (dataType == DataType.DATE && dateFormats.containsKey(header)) {
+            return DateParser.ofPattern(dateFormats.get(header));
+        }
+        if (dataType == DataType.DATE || dataType == DataType.AUTO) {
+            return DateParser.learning();
+        }
+        return null;
+    }
+    
+    /**
+     * @return Número de colunas
+     */
+    public int size() {
+        return converters.length;
+    }
+    
+    /**
+     * @param index Posição da coluna
+     * @return Conversor da coluna
+     */
+    public ColumnConverter converter(int index) {
+        return converters[index];
+    }
+    
+    /**
+     * @return Nomes dos campos (o array não deve ser modificado)
+     */
+    public String[] getHeaders() {
+        return headers;
+    }
+    
+    /**
+     * @return Construtor de documentos compilado a partir dos caminhos do cabeçalho
+     */
+    public DocumentBuilder getDocumentBuilder() {
+        return documentBuilder;
+    }
+    
+    /**
+     * @return Gerador do {@code _id} a partir de colunas, ou null se o {@code _id} não é derivado
+     */
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+    
+    public ParseGrace getParseGrace() {
+        return parseGrace;
+    }
+}
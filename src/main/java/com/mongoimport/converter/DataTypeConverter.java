@@ -1,19 +1,16 @@
 package com.mongoimport.converter;
 
 import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
 import org.bson.types.Decimal128;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.nio.charset.Charset;
 import java.util.Base64;
 import java.util.Date;
-import java.util.regex.Pattern;
 
 /**
  * Classe responsável por converter valores de string para os tipos apropriados do MongoDB.
@@ -22,25 +19,6 @@ public class DataTypeConverter {
     
     private static final Logger logger = LoggerFactory.getLogger(DataTypeConverter.class);
     
-    // Padrões para detecção automática de tipos
-    private static final Pattern INTEGER_PATTERN = Pattern.compile("^-?\\d+$");
-    private static final Pattern DOUBLE_PATTERN = Pattern.compile("^-?\\d*\\.\\d+([eE][+-]?\\d+)?$");
-    private static final Pattern BOOLEAN_PATTERN = Pattern.compile("^(true|false|yes|no|1|0)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern OBJECTID_PATTERN = Pattern.compile("^[0-9a-fA-F]{24}$");
-    
-    // Formatadores de data comuns
-    private static final DateTimeFormatter[] DATE_FORMATTERS = {
-        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
-        DateTimeFormatter.ISO_ZONED_DATE_TIME,
-        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
-        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-        DateTimeFormatter.ofPattern("dd-MM-yyyy"),
-        DateTimeFormatter.ofPattern("yyyy/MM/dd")
-    };
-    
     /**
      * Converte um valor string para o tipo especificado.
      * 
@@ -49,7 +27,21 @@ public class DataTypeConverter {
      * @param parseGrace Modo de tolerância a erros
      * @return Valor convertido ou valor original em caso de erro (dependendo do parseGrace)
      */
-    public static Object convertValue(String value, DataType dataType, String parseGrace) {
+    public static Object convertValue(String value, DataType dataType, ParseGrace parseGrace) {
+        return convertValue(value, dataType, parseGrace, null);
+    }
+    
+    /**
+     * Converte um valor string para o tipo especificado, usando o parser de datas da coluna.
+     * 
+     * @param value Valor a ser convertido
+     * @param dataType Tipo de destino
+     * @param parseGrace Modo de tolerância a erros
+     * @param dateParser Parser de datas da coluna (null para a busca completa nos formatos conhecidos)
+     * @return Valor convertido ou valor original em caso de erro (dependendo do parseGrace)
+     */
+    public static Object convertValue(String value, DataType dataType, ParseGrace parseGrace,
+                                      DateParser dateParser) {
         if (value == null) {
             return null;
         }
@@ -70,60 +62,151 @@ public class DataTypeConverter {
                 case DOUBLE -> convertToDouble(value);
                 case DECIMAL -> convertToDecimal(value);
                 case BOOLEAN -> convertToBoolean(value);
-                case DATE -> convertToDate(value);
+                case DATE -> convertToDate(value, dateParser);
                 case OBJECTID -> convertToObjectId(value);
                 case BINDATA -> convertToBinary(value);
-                case AUTO -> autoDetectAndConvert(value);
+                case AUTO -> autoDetectAndConvert(value, dateParser);
             };
         } catch (Exception e) {
-            return handleConversionError(value, dataType, parseGrace, e);
+            return handleConversionError(value, dataType, parseGrace, dateParser, e);
         }
     }
     
     /**
-     * Detecta automaticamente o tipo de um valor e o converte.
+     * Converte um valor armazenado como fatia de bytes para o tipo especificado.
+     * Inteiros, booleanos e ObjectIds bem formados são lidos diretamente dos bytes;
+     * os demais casos criam a String do valor e seguem o caminho de {@link #convertValue(String, DataType, ParseGrace, DateParser)},
+     * garantindo resultados idênticos.
+     * 
+     * @param buffer Buffer com o valor
+     * @param offset Início do valor no buffer
+     * @param length Tamanho do valor em bytes
+     * @param charset Encoding do buffer (compatível com ASCII)
+     * @param dataType Tipo de destino
+     * @param parseGrace Modo de tolerância a erros
+     * @param dateParser Parser de datas da coluna (null para a busca completa nos formatos conhecidos)
+     * @return Valor convertido
      */
-    private static Object autoDetectAndConvert(String value) {
-        // Tentar ObjectId primeiro (mais específico)
-        if (OBJECTID_PATTERN.matcher(value).matches()) {
-            try {
-                return new ObjectId(value);
-            } catch (Exception ignored) {}
+    public static Object convertValue(byte[] buffer, int offset, int length, Charset charset,
+                                      DataType dataType, ParseGrace parseGrace, DateParser dateParser) {
+        // Remover espaços em branco (mesma regra de String.trim())
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (buffer[start] & 0xFF) <= ' ') {
+            start++;
         }
-        
-        // Tentar boolean
-        if (BOOLEAN_PATTERN.matcher(value).matches()) {
-            return convertToBoolean(value);
+        while (end > start && (buffer[end - 1] & 0xFF) <= ' ') {
+            end--;
         }
         
-        // Tentar inteiro
-        if (INTEGER_PATTERN.matcher(value).matches()) {
-            try {
-                long longValue = Long.parseLong(value);
-                // Se cabe em int32, usar int32
-                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
-                    return (int) longValue;
-                } else {
-                    return longValue;
-                }
-            } catch (NumberFormatException ignored) {}
+        if (start == end) {
+            return dataType == DataType.STRING ? "" : null;
         }
         
-        // Tentar double
-        if (DOUBLE_PATTERN.matcher(value).matches()) {
-            try {
-                return Double.parseDouble(value);
-            } catch (NumberFormatException ignored) {}
+        Object fastValue = switch (dataType) {
+            case STRING -> new String(buffer, start, end - start, charset);
+            case INT32 -> {
+                long value = parseAsciiLong(buffer, start, end, 11);
+                yield value != INVALID_NUMBER && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE
+                    ? Integer.valueOf((int) value) : null;
+            }
+            case INT64 -> {
+                long value = parseAsciiLong(buffer, start, end, 19);
+                yield value != INVALID_NUMBER ? Long.valueOf(value) : null;
+            }
+            case BOOLEAN -> parseAsciiBoolean(buffer, start, end);
+            case OBJECTID -> parseAsciiObjectId(buffer, start, end);
+            default -> null;
+        };
+        if (fastValue != null) {
+            return fastValue;
         }
         
-        // Tentar data
-        Date date = tryParseDate(value);
-        if (date != null) {
-            return date;
+        return convertValue(new String(buffer, start, end - start, charset), dataType, parseGrace, dateParser);
+    }
+    
+    // Marcador de número inválido para os parsers de bytes
+    private static final long INVALID_NUMBER = Long.MIN_VALUE;
+    
+    /**
+     * Lê um inteiro decimal ASCII com sinal opcional e no máximo {@code maxDigits - 1} dígitos
+     * (o que garante que não há overflow). Retorna {@link #INVALID_NUMBER} nos demais casos,
+     * que ficam a cargo do parser padrão do Java.
+     */
+    private static long parseAsciiLong(byte[] buffer, int start, int end, int maxDigits) {
+        boolean negative = false;
+        int i = start;
+        if (buffer[i] == '-' || buffer[i] == '+') {
+            negative = buffer[i] == '-';
+            i++;
         }
-        
-        // Se nada funcionou, retornar como string
-        return value;
+        int digits = end - i;
+        if (digits <= 0 || digits >= maxDigits) {
+            return INVALID_NUMBER;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_NUMBER;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+    
+    private static Boolean parseAsciiBoolean(byte[] buffer, int start, int end) {
+        int length = end - start;
+        if (length == 1) {
+            if (buffer[start] == '1') return Boolean.TRUE;
+            if (buffer[start] == '0') return Boolean.FALSE;
+        } else if (asciiEqualsIgnoreCase(buffer, start, length, "true")
+                || asciiEqualsIgnoreCase(buffer, start, length, "yes")) {
+            return Boolean.TRUE;
+        } else if (asciiEqualsIgnoreCase(buffer, start, length, "false")
+                || asciiEqualsIgnoreCase(buffer, start, length, "no")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+    
+    private static boolean asciiEqualsIgnoreCase(byte[] buffer, int start, int length, String lowerCaseWord) {
+        if (length != lowerCaseWord.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int c = buffer[start + i];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerCaseWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static ObjectId parseAsciiObjectId(byte[] buffer, int start, int end) {
+        if (end - start != 24) {
+            return null;
+        }
+        byte[] bytes = new byte[12];
+        for (int i = 0; i < 12; i++) {
+            int high = Character.digit(buffer[start + 2 * i], 16);
+            int low = Character.digit(buffer[start + 2 * i + 1], 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return new ObjectId(bytes);
+    }
+    
+    /**
+     * Detecta automaticamente o tipo de um valor e o converte.
+     */
+    private static Object autoDetectAndConvert(String value, DateParser dateParser) {
+        return AutoTypeDetector.detect(value, dateParser);
     }
     
     private static Integer convertToInt32(String value) {
@@ -135,11 +218,12 @@ public class DataTypeConverter {
     }
     
     private static Double convertToDouble(String value) {
-        return Double.parseDouble(value);
+        return NumberParser.parseDouble(value);
     }
     
     private static Decimal128 convertToDecimal(String value) {
-        return new Decimal128(new BigDecimal(value));
+        Decimal128 decimal = NumberParser.parseDecimal128(value);
+        return decimal != null ? decimal : new Decimal128(new BigDecimal(value));
     }
     
     private static Boolean convertToBoolean(String value) {
@@ -151,43 +235,22 @@ public class DataTypeConverter {
         };
     }
     
-    private static Date convertToDate(String value) {
-        Date date = tryParseDate(value);
+    private static Date convertToDate(String value, DateParser dateParser) {
+        Date date = tryParseDate(value, dateParser);
         if (date == null) {
             throw new IllegalArgumentException("Formato de data inválido: " + value);
         }
         return date;
     }
     
-    private static Date tryParseDate(String value) {
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                // Tentar como LocalDateTime primeiro
-                LocalDateTime localDateTime = LocalDateTime.parse(value, formatter);
-                return java.sql.Timestamp.valueOf(localDateTime);
-            } catch (DateTimeParseException ignored) {
-                try {
-                    // Tentar como ZonedDateTime
-                    ZonedDateTime zonedDateTime = ZonedDateTime.parse(value, formatter);
-                    return Date.from(zonedDateTime.toInstant());
-                } catch (DateTimeParseException ignored2) {}
-            }
-        }
-        
-        // Tentar timestamp Unix
-        try {
-            long timestamp = Long.parseLong(value);
-            // Se parece com timestamp Unix (segundos)
-            if (timestamp > 0 && timestamp < 4000000000L) {
-                return new Date(timestamp * 1000);
-            }
-            // Se parece com timestamp Unix (milissegundos)
-            if (timestamp > 1000000000000L) {
-                return new Date(timestamp);
-            }
-        } catch (NumberFormatException ignored) {}
-        
-        return null;
+    /**
+     * Converte o valor em data com o parser da coluna ou, sem ele, pela busca completa
+     * nos formatos conhecidos.
+     * 
+     * @return Data ou null se o valor não for uma data
+     */
+    static Date tryParseDate(String value, DateParser dateParser) {
+        return dateParser != null ? dateParser.parse(value) : DateParser.parseAnyFormat(value);
     }
     
     private static ObjectId convertToObjectId(String value) {
@@ -205,28 +268,25 @@ public class DataTypeConverter {
     /**
      * Trata erros de conversão baseado no modo parseGrace.
      */
-    private static Object handleConversionError(String value, DataType dataType, String parseGrace, Exception error) {
-        return switch (parseGrace.toLowerCase()) {
-            case "autocast" -> {
+    private static Object handleConversionError(String value, DataType dataType, ParseGrace parseGrace,
+                                                DateParser dateParser, Exception error) {
+        return switch (parseGrace) {
+            case AUTO_CAST -> {
                 logger.debug("[DEBUG] Falha na conversão para {}, tentando auto-detecção: {}", dataType, value);
-                yield autoDetectAndConvert(value);
+                yield autoDetectAndConvert(value, dateParser);
             }
-            case "skipfield" -> {
+            case SKIP_FIELD -> {
                 logger.debug("[DEBUG] Pulando campo devido a erro de conversão: {}", value);
                 yield null;
             }
-            case "skiprow" -> {
+            case SKIP_ROW -> {
                 logger.debug("[DEBUG] Erro de conversão que requer pular linha: {}", value);
                 throw new ConversionException("Erro de conversão que requer pular linha: " + error.getMessage(), error);
             }
-            case "stop" -> {
+            case STOP -> {
                 logger.error("[ERROR] Parando importação devido a erro de conversão: {}", error.getMessage());
                 throw new ConversionException("Erro de conversão: " + error.getMessage(), error);
             }
-            default -> {
-                logger.warn("[WARNING] Modo parseGrace desconhecido '{}', usando autoCast", parseGrace);
-                yield autoDetectAndConvert(value);
-            }
         };
     }
     
@@ -0,0 +1,200 @@
+package com.mongoimport.converter;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+
+/**
+ * Conversão de datas de uma coluna.
+ *
+ * Sem formato explícito, o parser aprende o formato da coluna: o primeiro formato conhecido
+ * que converte um valor é fixado e tentado primeiro nos valores seguintes; a busca completa
+ * só é feita quando ele falha. Os formatos conhecidos aceitam conjuntos de valores disjuntos
+ * (ou equivalentes), então o resultado é o mesmo da busca completa em ordem.
+ *
+ * Com formato explícito ({@code campo:date(dd/MM/yyyy)}), apenas ele é aceito. Formatos só
+ * com data resultam em meia-noite; formatos com fuso ou offset resultam no instante indicado.
+ */
+public final class DateParser {
+    
+    // Formatadores de data comuns
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        DateTimeFormatter.ISO_ZONED_DATE_TIME,
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+        DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+        DateTimeFormatter.ofPattern("yyyy/MM/dd")
+    };
+    
+    private static final int NOT_LEARNED = -1;
+    
+    private final DateTimeFormatter pattern;
+    
+    // Compartilhado pelos workers de conversão: uma corrida só custa uma busca a mais
+    private volatile int learnedFormatter = NOT_LEARNED;
+    
+    private DateParser(DateTimeFormatter pattern) {
+        this.pattern = pattern;
+    }
+    
+    /**
+     * @return Parser que aprende o formato da coluna entre os formatos conhecidos
+     */
+    public static DateParser learning() {
+        return new DateParser(null);
+    }
+    
+    /**
+     * @param pattern Formato no padrão do {@link DateTimeFormatter} (ex.: dd/MM/yyyy)
+     * @return Parser que aceita apenas o formato informado
+     * @throws IllegalArgumentException se o formato for inválido
+     */
+    public static DateParser ofPattern(String pattern) {
+        return new DateParser(DateTimeFormatter.ofPattern(pattern));
+    }
+    
+    /**
+     * Converte um valor em data.
+     * 
+     * @param value Valor sem espaços nas extremidades e não vazio
+     * @return Data ou null se o valor não for uma data
+     */
+    public Date parse(String value) {
+        if (pattern != null) {
+            return parseWithPattern(value);
+        }
+        
+        if (isFormatterCandidate(value)) {
+            int learned = learnedFormatter;
+            if (learned != NOT_LEARNED) {
+                Date date = parseWithFormatter(value, DATE_FORMATTERS[learned]);
+                if (date != null) {
+                    return date;
+                }
+            }
+            for (int i = 0; i < DATE_FORMATTERS.length; i++) {
+                if (i == learned) {
+                    continue;
+                }
+                Date date = parseWithFormatter(value, DATE_FORMATTERS[i]);
+                if (date != null) {
+                    learnedFormatter = i;
+                    return date;
+                }
+            }
+        }
+        return parseUnixTimestamp(value);
+    }
+    
+    /**
+     * Busca completa pelos formatos conhecidos, sem aprendizado (valores sem coluna associada).
+     * 
+     * @return Data ou null se o valor não for uma data
+     */
+    public static Date parseAnyFormat(String value) {
+        if (isFormatterCandidate(value)) {
+            for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+                Date date = parseWithFormatter(value, formatter);
+                if (date != null) {
+                    return date;
+                }
+            }
+        }
+        return parseUnixTimestamp(value);
+    }
+    
+    /**
+     * Todos os formatos conhecidos que produzem data e hora têm '-' na data e ':' na hora;
+     * sem eles, nenhum formatador é tentado (evita uma exceção por formatador).
+     */
+    private static boolean isFormatterCandidate(String value) {
+        return value.indexOf('-') >= 0 && value.indexOf(':') >= 0;
+    }
+    
+    private static Date parseWithFormatter(String value, DateTimeFormatter formatter) {
+        try {
+            // Tentar como LocalDateTime primeiro
+            LocalDateTime localDateTime = LocalDateTime.parse(value, formatter);
+            return Timestamp.valueOf(localDateTime);
+        } catch (DateTimeParseException ignored) {
+            try {
+                // Tentar como ZonedDateTime
+                ZonedDateTime zonedDateTime = ZonedDateTime.parse(value, formatter);
+                return Date.from(zonedDateTime.toInstant());
+            } catch (DateTimeParseException ignored2) {
+                return null;
+            }
+        }
+    }
+    
+    private Date parseWithPattern(String value) {
+        TemporalAccessor parsed;
+        try {
+            parsed = pattern.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        
+        if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return Date.from(Instant.from(parsed));
+        }
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            return null;
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        return Timestamp.valueOf(time != null ? date.atTime(time) : date.atStartOfDay());
+    }
+    
+    /**
+     * Interpreta inteiros como timestamp Unix em segundos ou milissegundos.
+     */
+    private static Date parseUnixTimestamp(String value) {
+        if (!isSignedDigits(value)) {
+            return null;
+        }
+        try {
+            long timestamp = Long.parseLong(value);
+            // Se parece com timestamp Unix (segundos)
+            if (timestamp > 0 && timestamp < 4000000000L) {
+                return new Date(timestamp * 1000);
+            }
+            // Se parece com timestamp Unix (milissegundos)
+            if (timestamp > 1000000000000L) {
+                return new Date(timestamp);
+            }
+        } catch (NumberFormatException ignored) {}
+        return null;
+    }
+    
+    /**
+     * Verifica se o valor tem a forma aceita por {@link Long#parseLong}: sinal opcional
+     * seguido de dígitos (inclusive dígitos Unicode). Só o estouro ainda gera exceção.
+     */
+    private static boolean isSignedDigits(String value) {
+        int length = value.length();
+        int i = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
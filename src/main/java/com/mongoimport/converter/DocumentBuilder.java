@@ -1,37 +1,172 @@
 package com.mongoimport.converter;
 
+import org.bson.BsonType;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Classe responsável por construir documentos MongoDB com suporte a subdocumentos
  * usando notação de ponto nos headers (ex: address.street, address.number).
+ *
+ * O cabeçalho é compilado uma única vez ({@link #compile}) em uma árvore de caminhos
+ * achatada: cada coluna aponta para o nó (subdocumento) que a contém e cada nó para o seu
+ * pai. A montagem de cada linha é uma única passada pelas colunas, sem divisão de caminhos
+ * nem buscas por chave; os subdocumentos são criados sob demanda, na mesma ordem de campos
+ * da construção original, e subdocumentos sem nenhum valor não aparecem no documento.
+ *
+ * A mesma árvore permite codificar a linha diretamente em BSON ({@link #buildRaw}), sem
+ * {@link Document} intermediário.
  */
 public class DocumentBuilder {
     
     private static final Logger logger = LoggerFactory.getLogger(DocumentBuilder.class);
     
+    // Nó pai das colunas de primeiro nível
+    private static final int ROOT = -1;
+    
+    // Colunas de cabeçalho sem nome de campo (ex.: ".")
+    private static final int NO_FIELD = -2;
+    
+    private static final String ID_FIELD = "_id";
+    
+    // Buffers de codificação BSON reaproveitados por thread; buffers que cresceram demais são descartados
+    private static final int RAW_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_POOLED_RAW_BUFFER = 1024 * 1024;
+    private static final ThreadLocal<BasicOutputBuffer> RAW_BUFFERS =
+        ThreadLocal.withInitial(() -> new BasicOutputBuffer(RAW_BUFFER_SIZE));
+    
+    private final int[] columnNode;
+    private final String[] columnField;
+    private final int[] nodeParent;
+    private final String[] nodeName;
+    
+    // Filhos de cada nível na ordem do cabeçalho: coluna (>= 0) ou subdocumento (-(nó + 1))
+    private final int[] rootChildren;
+    private final int[][] nodeChildren;
+    
+    // Próxima coluna com o mesmo caminho (-1 se não houver): a última com valor prevalece
+    private final int[] nextSameField;
+    private final boolean hasIdField;
+    
+    private DocumentBuilder(int[] columnNode, String[] columnField, int[] nodeParent, String[] nodeName,
+                            int[] rootChildren, int[][] nodeChildren, int[] nextSameField) {
+        this.columnNode = columnNode;
+        this.columnField = columnField;
+        this.nodeParent = nodeParent;
+        this.nodeName = nodeName;
+        this.rootChildren = rootChildren;
+        this.nodeChildren = nodeChildren;
+        this.nextSameField = nextSameField;
+        this.hasIdField = Arrays.stream(rootChildren)
+            .anyMatch(child -> ID_FIELD.equals(child >= 0 ? columnField[child] : nodeName[-child - 1]));
+    }
+    
     /**
-     * Constrói um documento MongoDB a partir de headers e valores,
-     * suportando subdocumentos através da notação de ponto.
+     * Compila os caminhos do cabeçalho.
      * 
-     * @param headers Array de nomes de campos (pode conter notação de ponto)
-     * @param values Array de valores correspondentes
+     * @param headers Array de nomes de campos (pode conter notação de ponto); deve ter
+     *                estrutura válida ({@link #validateHeaderStructure})
+     * @return Construtor de documentos para linhas com esse cabeçalho
+     */
+    public static DocumentBuilder compile(String[] headers) {
+        int[] columnNode = new int[headers.length];
+        String[] columnField = new String[headers.length];
+        List<Integer> nodeParent = new ArrayList<>();
+        List<String> nodeName = new ArrayList<>();
+        Map<String, Integer> nodes = new HashMap<>();
+        List<Integer> rootChildren = new ArrayList<>();
+        List<List<Integer>> nodeChildren = new ArrayList<>();
+        Map<String, Integer> lastColumnOfField = new HashMap<>();
+        int[] nextSameField = new int[headers.length];
+        Arrays.fill(nextSameField, -1);
+        
+        for (int i = 0; i < headers.length; i++) {
+            String[] pathParts = headers[i].split("\\.");
+            if (pathParts.length == 0) {
+                columnNode[i] = NO_FIELD;
+                continue;
+            }
+            
+            // Nós dos subdocumentos do caminho, compartilhados pelas colunas com o mesmo prefixo
+            int node = ROOT;
+            String path = null;
+            for (int level = 0; level < pathParts.length - 1; level++) {
+                path = path == null ? pathParts[level] : path + "." + pathParts[level];
+                Integer existing = nodes.get(path);
+                if (existing == null) {
+                    existing = nodeParent.size();
+                    nodeParent.add(node);
+                    nodeName.add(pathParts[level]);
+                    nodeChildren.add(new ArrayList<>());
+                    nodes.put(path, existing);
+                    (node == ROOT ? rootChildren : nodeChildren.get(node)).add(-existing - 1);
+                }
+                node = existing;
+            }
+            columnNode[i] = node;
+            // Sem subdocumento o campo é o cabeçalho literal ("a." continua "a."), como na construção original
+            columnField[i] = pathParts.length == 1 ? headers[i] : pathParts[pathParts.length - 1];
+            
+            // Caminho repetido: a coluna é encadeada à anterior em vez de virar um novo campo
+            Integer previous = lastColumnOfField.put(node + ":" + columnField[i], i);
+            if (previous != null) {
+                nextSameField[previous] = i;
+            } else {
+                (node == ROOT ? rootChildren : nodeChildren.get(node)).add(i);
+            }
+        }
+        
+        return new DocumentBuilder(columnNode, columnField,
+            nodeParent.stream().mapToInt(Integer::intValue).toArray(), nodeName.toArray(new String[0]),
+            toArray(rootChildren), nodeChildren.stream().map(DocumentBuilder::toArray).toArray(int[][]::new),
+            nextSameField);
+    }
+    
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Monta o documento de uma linha.
+     * 
+     * @param values Valores convertidos, na ordem das colunas (nulos são omitidos)
      * @return Document MongoDB com estrutura hierárquica
      */
-    public static Document buildDocument(String[] headers, Object[] values) {
-        if (headers.length != values.length) {
+    public Document build(Object[] values) {
+        return build(values, null);
+    }
+    
+    /**
+     * Monta o documento de uma linha com um {@code _id} já definido, como primeiro campo.
+     * 
+     * @param values Valores convertidos, na ordem das colunas (nulos são omitidos)
+     * @param id Valor do {@code _id} (ex.: de um {@link IdGenerator}), ou null para não definir
+     * @return Document MongoDB com estrutura hierárquica
+     */
+    public Document build(Object[] values, Object id) {
+        if (values.length != columnNode.length) {
             throw new IllegalArgumentException("Headers e valores devem ter o mesmo tamanho");
         }
         
         Document document = new Document();
+        if (id != null) {
+            document.put(ID_FIELD, id);
+        }
+        Document[] subdocuments = nodeName.length > 0 ? new Document[nodeName.length] : null;
         
-        for (int i = 0; i < headers.length; i++) {
-            String fieldPath = headers[i];
+        for (int i = 0; i < values.length; i++) {
             Object value = values[i];
             
             // Pular valores nulos
@@ -39,53 +174,247 @@ public class DocumentBuilder {
                 continue;
             }
             
-            setNestedValue(document, fieldPath, value);
+            int node = columnNode[i];
+            if (node == ROOT) {
+                document.put(columnField[i], value);
+            } else if (node == NO_FIELD) {
+                throw new IllegalArgumentException("Campo sem nome no cabeçalho (coluna " + (i + 1) + ")");
+            } else {
+                subdocument(document, subdocuments, node).put(columnField[i], value);
+            }
         }
         
         return document;
     }
     
     /**
-     * Define um valor em um documento usando notação de ponto para campos aninhados.
+     * Obtém o subdocumento de um nó, criando-o (e os seus ancestrais) no primeiro valor.
+     */
+    private Document subdocument(Document document, Document[] subdocuments, int node) {
+        Document subdocument = subdocuments[node];
+        if (subdocument == null) {
+            subdocument = new Document();
+            int parent = nodeParent[node];
+            Document container = parent == ROOT ? document : subdocument(document, subdocuments, parent);
+            container.put(nodeName[node], subdocument);
+            subdocuments[node] = subdocument;
+        }
+        return subdocument;
+    }
+    
+    /**
+     * Codifica a linha diretamente em BSON, com a mesma estrutura de {@link #build}, em um
+     * buffer reaproveitado pela thread: a única alocação por documento é o array final.
      * 
-     * @param document Documento raiz
-     * @param fieldPath Caminho do campo (ex: "address.street")
-     * @param value Valor a ser definido
+     * Os campos seguem a ordem da árvore do cabeçalho (os campos de um subdocumento ficam
+     * juntos, na posição da primeira coluna do subdocumento). Sem coluna {@code _id}, um
+     * ObjectId é gerado como primeiro campo, de modo que reenvios não dupliquem documentos.
+     * 
+     * @param values Valores convertidos, na ordem das colunas (nulos são omitidos)
+     * @return Documento BSON pronto para inserção
      */
-    private static void setNestedValue(Document document, String fieldPath, Object value) {
-        String[] pathParts = fieldPath.split("\\.");
-        
-        // Se não há ponto, é um campo simples
-        if (pathParts.length == 1) {
-            document.append(fieldPath, value);
-            return;
+    public RawBsonDocument buildRaw(Object[] values) {
+        return buildRaw(values, null);
+    }
+    
+    /**
+     * Codifica a linha diretamente em BSON com um {@code _id} já definido, como primeiro campo.
+     * 
+     * @param values Valores convertidos, na ordem das colunas (nulos são omitidos)
+     * @param id Valor do {@code _id} (ex.: de um {@link IdGenerator}), ou null para usar a
+     *           coluna {@code _id} ou um ObjectId gerado
+     * @return Documento BSON pronto para inserção
+     * @see #buildRaw(Object[])
+     */
+    public RawBsonDocument buildRaw(Object[] values, Object id) {
+        if (values.length != columnNode.length) {
+            throw new IllegalArgumentException("Headers e valores devem ter o mesmo tamanho");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (columnNode[i] == NO_FIELD && values[i] != null) {
+                throw new IllegalArgumentException("Campo sem nome no cabeçalho (coluna " + (i + 1) + ")");
+            }
         }
         
-        // Navegar/criar estrutura aninhada
-        Document currentDoc = document;
-        
-        // Navegar até o penúltimo nível
-        for (int i = 0; i < pathParts.length - 1; i++) {
-            String part = pathParts[i];
-            
-            // Se o campo não existe, criar um novo documento
-            if (!currentDoc.containsKey(part)) {
-                currentDoc.append(part, new Document());
+        BasicOutputBuffer buffer = RAW_BUFFERS.get();
+        buffer.truncateToPosition(0);
+        try {
+            buffer.writeInt32(0);
+            boolean idWritten = false;
+            if (id != null || !hasIdField) {
+                writeField(buffer, ID_FIELD, id != null ? id : new ObjectId());
+                idWritten = true;
             }
-            
-            // Verificar se o valor existente é um Document
-            Object existingValue = currentDoc.get(part);
-            if (!(existingValue instanceof Document)) {
-                logger.warn("[WARNING] Campo '{}' já existe como tipo não-documento. Sobrescrevendo com documento.", part);
-                currentDoc.append(part, new Document());
+            for (int child : rootChildren) {
+                boolean written = writeChild(buffer, child, values);
+                idWritten |= written && ID_FIELD.equals(child >= 0 ? columnField[child] : nodeName[-child - 1]);
             }
-            
-            currentDoc = (Document) currentDoc.get(part);
+            if (!idWritten) {
+                writeField(buffer, ID_FIELD, new ObjectId());
+            }
+            buffer.writeByte(0);
+            buffer.writeInt32(0, buffer.getPosition());
+            return new RawBsonDocument(buffer.toByteArray());
+        } finally {
+            if (buffer.getInternalBuffer().length > MAX_POOLED_RAW_BUFFER) {
+                RAW_BUFFERS.remove();
+            }
+        }
+    }
+    
+    /**
+     * Escreve um campo ou subdocumento; subdocumentos sem valores são desfeitos.
+     * 
+     * @return true se algo foi escrito
+     */
+    private boolean writeChild(BasicOutputBuffer buffer, int child, Object[] values) {
+        if (child >= 0) {
+            Object value = values[child];
+            for (int same = nextSameField[child]; same >= 0; same = nextSameField[same]) {
+                if (values[same] != null) {
+                    value = values[same];
+                }
+            }
+            if (value == null) {
+                return false;
+            }
+            writeField(buffer, columnField[child], value);
+            return true;
         }
         
-        // Definir o valor no último nível
-        String finalField = pathParts[pathParts.length - 1];
-        currentDoc.append(finalField, value);
+        int node = -child - 1;
+        int start = buffer.getPosition();
+        buffer.writeByte(BsonType.DOCUMENT.getValue());
+        buffer.writeCString(nodeName[node]);
+        int documentStart = buffer.getPosition();
+        buffer.writeInt32(0);
+        boolean written = false;
+        for (int grandchild : nodeChildren[node]) {
+            written |= writeChild(buffer, grandchild, values);
+        }
+        if (!written) {
+            buffer.truncateToPosition(start);
+            return false;
+        }
+        buffer.writeByte(0);
+        buffer.writeInt32(documentStart, buffer.getPosition() - documentStart);
+        return true;
+    }
+    
+    /**
+     * Escreve um elemento BSON com um dos tipos produzidos pelo {@link DataTypeConverter}.
+     */
+    private static void writeField(BasicOutputBuffer buffer, String name, Object value) {
+        if (value instanceof String string) {
+            writeHeader(buffer, BsonType.STRING, name);
+            buffer.writeString(string);
+        } else if (value instanceof Integer number) {
+            writeHeader(buffer, BsonType.INT32, name);
+            buffer.writeInt32(number);
+        } else if (value instanceof Long number) {
+            writeHeader(buffer, BsonType.INT64, name);
+            buffer.writeInt64(number);
+        } else if (value instanceof Double number) {
+            writeHeader(buffer, BsonType.DOUBLE, name);
+            buffer.writeDouble(number);
+        } else if (value instanceof Boolean bool) {
+            writeHeader(buffer, BsonType.BOOLEAN, name);
+            buffer.writeByte(bool ? 1 : 0);
+        } else if (value instanceof Date date) {
+            writeHeader(buffer, BsonType.DATE_TIME, name);
+            buffer.writeInt64(date.getTime());
+        } else if (value instanceof ObjectId objectId) {
+            writeHeader(buffer, BsonType.OBJECT_ID, name);
+            buffer.writeObjectId(objectId);
+        } else if (value instanceof Decimal128 decimal) {
+            writeHeader(buffer, BsonType.DECIMAL128, name);
+            buffer.writeInt64(decimal.getLow());
+            buffer.writeInt64(decimal.getHigh());
+        } else if (value instanceof byte[] bytes) {
+            writeHeader(buffer, BsonType.BINARY, name);
+            buffer.writeInt32(bytes.length);
+            buffer.writeByte(0);
+            buffer.writeBytes(bytes);
+        } else if (value instanceof Document document) {
+            // _id composto por várias colunas
+            writeHeader(buffer, BsonType.DOCUMENT, name);
+            int documentStart = buffer.getPosition();
+            buffer.writeInt32(0);
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                writeField(buffer, entry.getKey(), entry.getValue());
+            }
+            buffer.writeByte(0);
+            buffer.writeInt32(documentStart, buffer.getPosition() - documentStart);
+        } else {
+            throw new IllegalArgumentException("Tipo sem codificação BSON direta: " + value.getClass().getName());
+        }
+    }
+    
+    private static void writeHeader(BasicOutputBuffer buffer, BsonType type, String name) {
+        buffer.writeByte(type.getValue());
+        buffer.writeCString(name);
+    }
+    
+    /**
+     * Constrói um documento MongoDB a partir de headers e valores,
+     * suportando subdocumentos através da notação de ponto.
+     * Para várias linhas com o mesmo cabeçalho, use {@link #compile} uma única vez.
+     * 
+     * @param headers Array de nomes de campos (pode conter notação de ponto)
+     * @param values Array de valores correspondentes
+     * @return Document MongoDB com estrutura hierárquica
+     */
+    public static Document buildDocument(String[] headers, Object[] values) {
+        if (headers.length != values.length) {
+            throw new IllegalArgumentException("Headers e valores devem ter o mesmo tamanho");
+        }
+        return compile(headers).build(values);
+    }
+    
+    /**
+     * Obtém um valor de um documento usando notação de ponto.
+     * 
+     * @param document Documento raiz
+     * @param fieldPath Caminho do campo (ex: "address.street")
+     * @return Valor do campo ou null se o caminho não existir
+     */
+    public static Object getNestedValue(Document document, String fieldPath) {
+        String[] pathParts = fieldPath.split("\\.");
+        Object current = document;
+        for (String part : pathParts) {
+            if (!(current instanceof Document)) {
+                return null;
+            }
+            current = ((Document) current).get(part);
+        }
+        return current;
+    }
+    
+    /**
+     * Achata um documento com subdocumentos em caminhos com notação de ponto, no formato
+     * aceito por {@code $set} (ex: {address: {street: "X"}} -> {"address.street": "X"}).
+     * Assim um merge altera apenas os campos presentes no arquivo, preservando os demais
+     * campos dos subdocumentos já existentes.
+     * 
+     * @param document Documento produzido por {@link #buildDocument}
+     * @return Documento com um campo por caminho folha
+     */
+    public static Document toDottedPaths(Document document) {
+        Document paths = new Document();
+        appendDottedPaths(paths, null, document);
+        return paths;
+    }
+    
+    private static void appendDottedPaths(Document paths, String prefix, Document document) {
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            String path = prefix == null ? entry.getKey() : prefix + "." + entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof Document && !((Document) value).isEmpty()) {
+                appendDottedPaths(paths, path, (Document) value);
+            } else {
+                paths.append(path, value);
+            }
+        }
     }
     
     /**
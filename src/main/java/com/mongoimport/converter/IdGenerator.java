@@ -0,0 +1,269 @@
+package com.mongoimport.converter;
+
+import com.mongoimport.model.IdMode;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Deriva o {@code _id} de cada documento das colunas de --idFields, de modo que reimportar
+ * ou retomar o mesmo arquivo produz os mesmos {@code _id} e nenhum documento duplicado.
+ *
+ * No modo {@link IdMode#DOCUMENT} o {@code _id} é o valor convertido da coluna ou, com várias
+ * colunas, um subdocumento com elas (caminhos com ponto viram subdocumentos, como no resto do
+ * documento). No modo {@link IdMode#HASH} é o MurmurHash3 de 128 bits (x64) dos valores
+ * convertidos, gravado como BinData de 16 bytes: um índice {@code _id} compacto mesmo para
+ * chaves longas. O hash é calculado sobre uma codificação canônica com o tipo e o tamanho de
+ * cada valor, sem alocar arrays intermediários.
+ *
+ * Linhas sem nenhum valor nas colunas da chave são rejeitadas. Pode ser usado por vários
+ * workers de conversão ao mesmo tempo.
+ */
+public final class IdGenerator {
+
+    private static final long SEED = 0;
+
+    private static final ThreadLocal<Murmur3> HASHERS = ThreadLocal.withInitial(Murmur3::new);
+
+    private final String[] fields;
+    private final int[] columns;
+    private final IdMode mode;
+    private final DocumentBuilder compoundBuilder;
+
+    private IdGenerator(String[] fields, int[] columns, IdMode mode) {
+        this.fields = fields;
+        this.columns = columns;
+        this.mode = mode;
+        this.compoundBuilder = mode == IdMode.DOCUMENT && fields.length > 1 ? DocumentBuilder.compile(fields) : null;
+    }
+
+    /**
+     * Localiza as colunas da chave no cabeçalho.
+     *
+     * @param headers Nomes dos campos, na ordem das colunas
+     * @param idFields Colunas que formam a chave, na ordem em que entram no {@code _id}
+     * @param mode Forma do {@code _id}
+     * @throws IllegalArgumentException se uma coluna não existe no cabeçalho ou se o cabeçalho já tem {@code _id}
+     */
+    public static IdGenerator compile(String[] headers, List<String> idFields, IdMode mode) {
+        int[] columns = new int[idFields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = indexOf(headers, idFields.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Campo de _id '" + idFields.get(i) + "' não encontrado no cabeçalho");
+            }
+        }
+        for (String header : headers) {
+            if (header.equals("_id") || header.startsWith("_id.")) {
+                throw new IllegalArgumentException("O cabeçalho já tem o campo _id; remova --idFields ou a coluna _id");
+            }
+        }
+        return new IdGenerator(idFields.toArray(new String[0]), columns, mode);
+    }
+
+    private static int indexOf(String[] headers, String field) {
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param values Valores convertidos da linha, na ordem das colunas
+     * @return Valor do {@code _id}
+     * @throws IllegalArgumentException se todas as colunas da chave estão vazias
+     */
+    public Object generate(Object[] values) {
+        boolean empty = true;
+        for (int column : columns) {
+            empty &= values[column] == null;
+        }
+        if (empty) {
+            throw new IllegalArgumentException("Campos de _id " + String.join(",", fields) + " vazios");
+        }
+
+        if (mode == IdMode.HASH) {
+            Murmur3 hasher = HASHERS.get();
+            hasher.reset(SEED);
+            for (int column : columns) {
+                hasher.putValue(values[column]);
+            }
+            return hasher.finish();
+        }
+        if (compoundBuilder == null) {
+            return values[columns[0]];
+        }
+        Object[] keyValues = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keyValues[i] = values[columns[i]];
+        }
+        return compoundBuilder.build(keyValues);
+    }
+
+    /**
+     * MurmurHash3 x64 de 128 bits incremental, reaproveitado pela thread.
+     */
+    static final class Murmur3 {
+
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long h1;
+        private long h2;
+        private long k1;
+        private long k2;
+        private long length;
+
+        void reset(long seed) {
+            h1 = seed;
+            h2 = seed;
+            k1 = 0;
+            k2 = 0;
+            length = 0;
+        }
+
+        /**
+         * Tipo e conteúdo do valor: valores de tipos diferentes (ex.: "1" e 1) têm hashes diferentes.
+         */
+        void putValue(Object value) {
+            if (value == null) {
+                putByte(0);
+            } else if (value instanceof String string) {
+                putByte(1);
+                putInt(string.length());
+                for (int i = 0; i < string.length(); i++) {
+                    char c = string.charAt(i);
+                    putByte(c);
+                    putByte(c >>> 8);
+                }
+            } else if (value instanceof Integer number) {
+                putByte(2);
+                putInt(number);
+            } else if (value instanceof Long number) {
+                putByte(3);
+                putLong(number);
+            } else if (value instanceof Double number) {
+                putByte(4);
+                putLong(Double.doubleToLongBits(number));
+            } else if (value instanceof Decimal128 decimal) {
+                putByte(5);
+                putLong(decimal.getHigh());
+                putLong(decimal.getLow());
+            } else if (value instanceof Boolean bool) {
+                putByte(6);
+                putByte(bool ? 1 : 0);
+            } else if (value instanceof Date date) {
+                putByte(7);
+                putLong(date.getTime());
+            } else if (value instanceof ObjectId objectId) {
+                putByte(8);
+                for (byte b : objectId.toByteArray()) {
+                    putByte(b);
+                }
+            } else if (value instanceof byte[] bytes) {
+                putByte(9);
+                putInt(bytes.length);
+                for (byte b : bytes) {
+                    putByte(b);
+                }
+            } else {
+                throw new IllegalArgumentException("Tipo não suportado no _id: " + value.getClass().getSimpleName());
+            }
+        }
+
+        void putInt(int value) {
+            for (int shift = 0; shift < 32; shift += 8) {
+                putByte(value >>> shift);
+            }
+        }
+
+        void putLong(long value) {
+            for (int shift = 0; shift < 64; shift += 8) {
+                putByte((int) (value >>> shift));
+            }
+        }
+
+        void putByte(int value) {
+            long b = value & 0xFFL;
+            int position = (int) (length & 15);
+            if (position < 8) {
+                k1 |= b << (position * 8);
+            } else {
+                k2 |= b << ((position - 8) * 8);
+            }
+            length++;
+            if ((length & 15) == 0) {
+                mixBlock();
+            }
+        }
+
+        private void mixBlock() {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+
+            k1 = 0;
+            k2 = 0;
+        }
+
+        /**
+         * @return Hash de 16 bytes (h1 e h2 em little-endian, como na implementação de referência)
+         */
+        byte[] finish() {
+            int tail = (int) (length & 15);
+            if (tail > 8) {
+                h2 ^= mixK2(k2);
+            }
+            if (tail > 0) {
+                h1 ^= mixK1(k1);
+            }
+
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+
+            byte[] hash = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                hash[i] = (byte) (h1 >>> (i * 8));
+                hash[i + 8] = (byte) (h2 >>> (i * 8));
+            }
+            return hash;
+        }
+
+        private static long mixK1(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            return k * C2;
+        }
+
+        private static long mixK2(long k) {
+            k *= C2;
+            k = Long.rotateLeft(k, 33);
+            return k * C1;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
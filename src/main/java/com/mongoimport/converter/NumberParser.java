@@ -0,0 +1,392 @@
+package com.mongoimport.converter;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Conversão de números decimais ASCII sem alocação e sem exceções. Os casos que não podem
+ * ser resolvidos com exatidão pelos caminhos rápidos ficam a cargo do parser padrão do Java
+ * ({@link Double#parseDouble}, {@link BigDecimal}), de modo que os resultados são idênticos.
+ */
+public final class NumberParser {
+    
+    // Maior inteiro representado exatamente em double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    
+    // Potências de dez representadas exatamente em double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    // Dígitos significativos que sempre cabem em um long
+    private static final int SAFE_LONG_DIGITS = 18;
+    
+    // Expoentes maiores que isso estão fora de qualquer caminho rápido
+    private static final int MAX_EXPONENT = 100_000;
+    
+    // Eisel-Lemire (double): bits explícitos da mantissa, viés do expoente e limites da tabela
+    private static final int MANTISSA_BITS = 52;
+    private static final int DOUBLE_EXPONENT_BIAS = 1023;
+    private static final int INFINITE_POWER = 0x7FF;
+    private static final long PRECISION_MASK = -1L >>> (MANTISSA_BITS + 3);
+    private static final int MIN_POWER_OF_TEN = -342;
+    private static final int MAX_POWER_OF_TEN = 308;
+    
+    private static final long[] POWERS_OF_FIVE_HIGH;
+    private static final long[] POWERS_OF_FIVE_LOW;
+    
+    static {
+        long[][] powers = computePowersOfFive();
+        POWERS_OF_FIVE_HIGH = powers[0];
+        POWERS_OF_FIVE_LOW = powers[1];
+    }
+    
+    // Decimal128: coeficiente de até 34 dígitos e expoente entre -6176 e 6111
+    private static final int DECIMAL128_DIGITS = 34;
+    private static final long DECIMAL128_MIN_EXPONENT = -6176;
+    private static final long DECIMAL128_MAX_EXPONENT = 6111;
+    private static final long DECIMAL128_EXPONENT_BIAS = 6176;
+    
+    private NumberParser() {
+    }
+    
+    /**
+     * Converte um inteiro no formato {@code -?[0-9]+}.
+     * 
+     * @param value Texto com o inteiro
+     * @param start Início do número
+     * @param end Fim do número (exclusivo)
+     * @return Valor, ou null se não couber em um long
+     */
+    public static Long parseLong(CharSequence value, int start, int end) {
+        boolean negative = value.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        
+        // Zeros à esquerda não contam para o limite de dígitos
+        while (i < end - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+        if (end - i > SAFE_LONG_DIGITS) {
+            return parseLongSlow(value, start, end);
+        }
+        
+        long result = 0;
+        for (; i < end; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return negative ? -result : result;
+    }
+    
+    /**
+     * Inteiros com 19 ou mais dígitos significativos: podem estar no limite do long.
+     */
+    private static Long parseLongSlow(CharSequence value, int start, int end) {
+        boolean negative = value.charAt(start) == '-';
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long minBeforeMultiply = limit / 10;
+        
+        // Acumula em negativo para alcançar Long.MIN_VALUE
+        long result = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (result < minBeforeMultiply) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    /**
+     * Converte um número de ponto flutuante com o mesmo resultado de {@link Double#parseDouble}.
+     * 
+     * Números ASCII no formato {@code [+-]?[0-9]*(\.[0-9]*)?([eE][+-]?[0-9]+)?} com até 18
+     * dígitos significativos são convertidos sem alocação: pelo caminho rápido de Clinger
+     * quando a mantissa cabe exatamente em um double (até 2^53) e o expoente decimal está
+     * entre -22 e 22, e pelo algoritmo de Eisel-Lemire nos demais casos. Os valores que
+     * nenhum dos dois resolve com exatidão (subnormais, overflow, mais dígitos) e os formatos
+     * não reconhecidos ({@code NaN}, hexadecimais, sufixos {@code d}/{@code f}, inválidos)
+     * ficam a cargo de {@link Double#parseDouble}, que também lança o erro quando cabe.
+     */
+    public static double parseDouble(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits > 0 || c != '0') {
+                    if (++significantDigits > SAFE_LONG_DIGITS) {
+                        return Double.parseDouble(value);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (inFraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(value);
+        }
+        
+        int exponent = 0;
+        if (i < length) {
+            char c = value.charAt(i++);
+            if (c != 'e' && c != 'E') {
+                return Double.parseDouble(value);
+            }
+            boolean negativeExponent = false;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                negativeExponent = value.charAt(i) == '-';
+                i++;
+            }
+            if (i == length) {
+                return Double.parseDouble(value);
+            }
+            for (; i < length; i++) {
+                c = value.charAt(i);
+                if (c < '0' || c > '9' || exponent > MAX_EXPONENT) {
+                    return Double.parseDouble(value);
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        
+        double result = toDouble(mantissa, exponent - fractionDigits);
+        if (Double.isNaN(result)) {
+            return Double.parseDouble(value);
+        }
+        return negative ? -result : result;
+    }
+    
+    /**
+     * @return mantissa × 10^decimalExponent corretamente arredondado, ou NaN se os caminhos
+     *         rápidos não resolverem o valor com exatidão
+     */
+    private static double toDouble(long mantissa, int decimalExponent) {
+        if (mantissa == 0) {
+            return 0.0;
+        }
+        if (mantissa <= MAX_EXACT_MANTISSA && decimalExponent >= -22 && decimalExponent <= 22) {
+            return decimalExponent >= 0
+                ? (double) mantissa * POWERS_OF_TEN[decimalExponent]
+                : (double) mantissa / POWERS_OF_TEN[-decimalExponent];
+        }
+        return eiselLemire(mantissa, decimalExponent);
+    }
+    
+    /**
+     * Algoritmo de Eisel-Lemire: multiplica a mantissa normalizada pela aproximação de 128 bits
+     * de 5^q e arredonda para o double mais próximo (empates para o par). Devolve NaN quando o
+     * resultado seria subnormal ou infinito, ou quando a aproximação não é conclusiva.
+     */
+    private static double eiselLemire(long mantissa, int q) {
+        if (q < MIN_POWER_OF_TEN || q > MAX_POWER_OF_TEN) {
+            return Double.NaN;
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long w = mantissa << leadingZeros;
+        int index = q - MIN_POWER_OF_TEN;
+        
+        long upper = unsignedMultiplyHigh(w, POWERS_OF_FIVE_HIGH[index]);
+        long lower = w * POWERS_OF_FIVE_HIGH[index];
+        if ((upper & PRECISION_MASK) == PRECISION_MASK) {
+            // Os bits de arredondamento dependem da parte baixa da potência
+            long secondUpper = unsignedMultiplyHigh(w, POWERS_OF_FIVE_LOW[index]);
+            long sum = lower + secondUpper;
+            if (Long.compareUnsigned(sum, lower) < 0) {
+                upper++;
+            }
+            lower = sum;
+        }
+        if (lower == -1L && (q < -27 || q > 55)) {
+            return Double.NaN;
+        }
+        
+        int upperBit = (int) (upper >>> 63);
+        int shift = upperBit + 64 - MANTISSA_BITS - 3;
+        long bits = upper >>> shift;
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - leadingZeros + DOUBLE_EXPONENT_BIAS;
+        if (power2 <= 0) {
+            return Double.NaN;
+        }
+        
+        // Exatamente entre dois doubles: arredonda para o par
+        if (Long.compareUnsigned(lower, 1) <= 0 && q >= -4 && q <= 23 && (bits & 3) == 1
+                && (bits << shift) == upper) {
+            bits &= ~1L;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if (bits >= (2L << MANTISSA_BITS)) {
+            bits = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        bits &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(bits | ((long) power2 << MANTISSA_BITS));
+    }
+    
+    /**
+     * Parte alta do produto sem sinal de dois longs de 64 bits.
+     */
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+    
+    /**
+     * Converte um decimal para Decimal128 sem {@link BigDecimal}, com o mesmo resultado de
+     * {@code new Decimal128(new BigDecimal(value))}.
+     * 
+     * Aceita números ASCII no formato {@code [+-]?[0-9]*(\.[0-9]*)?([eE][+-]?[0-9]+)?} com até 34
+     * dígitos significativos e expoente dentro do intervalo do Decimal128, que são codificados
+     * diretamente (coeficiente de 113 bits e expoente, sem arredondamento).
+     * 
+     * @return Valor convertido, ou null se o valor exigir o caminho do BigDecimal
+     *         (arredondamento, ajuste de expoente, formatos não reconhecidos ou inválidos)
+     */
+    public static Decimal128 parseDecimal128(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        
+        // Coeficiente de até 34 dígitos em 128 bits (high:low)
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (inFraction) {
+                    fractionDigits++;
+                }
+                if (significantDigits == 0 && c == '0') {
+                    continue;
+                }
+                if (++significantDigits > DECIMAL128_DIGITS) {
+                    return null;
+                }
+                int digit = c - '0';
+                if (significantDigits <= SAFE_LONG_DIGITS) {
+                    low = low * 10 + digit;
+                } else {
+                    long lowTimesTen = low * 10;
+                    high = high * 10 + unsignedMultiplyHigh(low, 10);
+                    low = lowTimesTen + digit;
+                    if (Long.compareUnsigned(low, lowTimesTen) < 0) {
+                        high++;
+                    }
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        
+        long exponent = 0;
+        if (i < length) {
+            char c = value.charAt(i++);
+            if (c != 'e' && c != 'E') {
+                return null;
+            }
+            boolean negativeExponent = false;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                negativeExponent = value.charAt(i) == '-';
+                i++;
+            }
+            if (i == length) {
+                return null;
+            }
+            for (; i < length; i++) {
+                c = value.charAt(i);
+                if (c < '0' || c > '9' || exponent > MAX_EXPONENT) {
+                    return null;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        
+        long decimalExponent = exponent - fractionDigits;
+        if (decimalExponent < DECIMAL128_MIN_EXPONENT || decimalExponent > DECIMAL128_MAX_EXPONENT) {
+            return null;
+        }
+        
+        // Como no BigDecimal, zero não tem sinal ("-0.00" é +0E-2)
+        long bits = high | ((decimalExponent + DECIMAL128_EXPONENT_BIAS) << 49);
+        if (negative && (high | low) != 0) {
+            bits |= Long.MIN_VALUE;
+        }
+        return Decimal128.fromIEEE754BIDEncoding(bits, low);
+    }
+    
+    /**
+     * Aproximações truncadas de 128 bits de 5^q, para q entre {@link #MIN_POWER_OF_TEN} e
+     * {@link #MAX_POWER_OF_TEN}, normalizadas com o bit mais alto em 1 (tabela do Eisel-Lemire).
+     * Potências negativas são arredondadas para cima.
+     */
+    private static long[][] computePowersOfFive() {
+        int count = MAX_POWER_OF_TEN - MIN_POWER_OF_TEN + 1;
+        long[] highs = new long[count];
+        long[] lows = new long[count];
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q = MIN_POWER_OF_TEN; q <= MAX_POWER_OF_TEN; q++) {
+            BigInteger power;
+            if (q < 0) {
+                BigInteger divisor = five.pow(-q);
+                int bits = divisor.bitLength();
+                int shift = q >= -27 ? bits + 127 : 2 * bits + 128;
+                power = BigInteger.ONE.shiftLeft(shift).divide(divisor).add(BigInteger.ONE);
+            } else {
+                power = five.pow(q);
+                power = power.shiftLeft(Math.max(0, 128 - power.bitLength()));
+            }
+            power = power.shiftRight(Math.max(0, power.bitLength() - 128));
+            highs[q - MIN_POWER_OF_TEN] = power.shiftRight(64).longValue();
+            lows[q - MIN_POWER_OF_TEN] = power.longValue();
+        }
+        return new long[][] {highs, lows};
+    }
+}
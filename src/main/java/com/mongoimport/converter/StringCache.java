@@ -0,0 +1,112 @@
+package com.mongoimport.converter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de deduplicação de strings de uma coluna: valores repetidos (cidades, status,
+ * usuários) passam a compartilhar uma única instância nos documentos dos batches, o que
+ * reduz o heap ocupado pelos batches pendentes e a pressão sobre o GC.
+ *
+ * O cache é adaptativo: guarda no máximo {@link #MAX_ENTRIES} valores distintos e se
+ * desativa quando a taxa de acertos mostra que a coluna tem alta cardinalidade (ex.: nomes,
+ * descrições), de modo que colunas sem repetição não pagam o custo da busca.
+ * Pode ser usado por vários workers de conversão ao mesmo tempo.
+ */
+public final class StringCache {
+
+    /**
+     * Valores distintos guardados por coluna.
+     */
+    public static final int MAX_ENTRIES = 4096;
+
+    // Buscas antes da primeira avaliação da taxa de acertos
+    private static final long WARMUP_LOOKUPS = 8192;
+
+    // Intervalo, em falhas, entre as avaliações
+    private static final long EVALUATION_INTERVAL = 1024;
+
+    private static final double MIN_HIT_RATE = 0.5;
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile boolean enabled = true;
+    private volatile boolean full;
+
+    /**
+     * @param value Valor convertido
+     * @return Instância compartilhada do valor, ou o próprio valor se ele não estiver no cache
+     */
+    public String intern(String value) {
+        if (!enabled) {
+            return value;
+        }
+        String cached = values.get(value);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        long missCount = misses.incrementAndGet();
+        if (!full) {
+            if (values.size() < MAX_ENTRIES) {
+                values.putIfAbsent(value, value);
+            } else {
+                full = true;
+                evaluate(missCount);
+            }
+        }
+        if (missCount % EVALUATION_INTERVAL == 0) {
+            evaluate(missCount);
+        }
+        return value;
+    }
+
+    /**
+     * Desativa o cache quando a taxa de acertos fica abaixo do mínimo. Um cache cheio com
+     * boa taxa de acertos continua ativo, apenas sem novos valores.
+     */
+    private void evaluate(long missCount) {
+        long lookups = hits.sum() + missCount;
+        if ((full || lookups >= WARMUP_LOOKUPS) && hitRate(lookups, missCount) < MIN_HIT_RATE) {
+            enabled = false;
+            values.clear();
+        }
+    }
+
+    private static double hitRate(long lookups, long missCount) {
+        return lookups == 0 ? 0 : (double) (lookups - missCount) / lookups;
+    }
+
+    /**
+     * @return Buscas feitas enquanto o cache esteve ativo
+     */
+    public long getLookups() {
+        return hits.sum() + misses.get();
+    }
+
+    /**
+     * @return Fração das buscas que reaproveitaram uma instância (0 a 1)
+     */
+    public double getHitRate() {
+        long missCount = misses.get();
+        return hitRate(hits.sum() + missCount, missCount);
+    }
+
+    /**
+     * @return Valores distintos guardados
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * @return false se o cache foi desativado por alta cardinalidade
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,160 @@
+package com.mongoimport.generator;
+
+import com.mongoimport.model.DataType;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Coluna de um arquivo sintético: nome (caminhos com pontos geram subdocumentos na importação),
+ * tipo dos valores e cardinalidade.
+ */
+public final class ColumnSpec {
+
+    // tipo, date(formato) ou qualquer um deles seguido de :cardinalidade
+    private static final Pattern TYPE_SPEC = Pattern.compile("(?i)(date\\((.+)\\)|[a-z0-9_]+)(?::(\\d+))?");
+
+    /**
+     * Cardinalidade sem limite: cada linha recebe um valor sorteado de forma independente.
+     */
+    public static final long UNBOUNDED = 0;
+
+    private final String name;
+    private final DataType dataType;
+    private final long cardinality;
+    private final String dateFormat;
+
+    /**
+     * @param name Nome do campo (pode conter pontos)
+     * @param dataType Tipo dos valores gerados; AUTO gera uma mistura de tipos
+     * @param cardinality Número de valores distintos ou {@link #UNBOUNDED}
+     * @param dateFormat Formato das datas (colunas DATE) ou null para ISO (yyyy-MM-ddTHH:mm:ss)
+     */
+    public ColumnSpec(String name, DataType dataType, long cardinality, String dateFormat) {
+        this.name = name;
+        this.dataType = dataType;
+        this.cardinality = cardinality;
+        this.dateFormat = dateFormat;
+    }
+
+    public String getName() { return name; }
+    public DataType getDataType() { return dataType; }
+    public long getCardinality() { return cardinality; }
+    public String getDateFormat() { return dateFormat; }
+
+    /**
+     * Interpreta a descrição do esquema: {@code campo:tipo[:cardinalidade],...}, com os mesmos
+     * tipos de --columnsHaveTypes (inclusive {@code campo:date(dd/MM/yyyy)}).
+     * Ex.: {@code id:int64,cliente.nome:string,cliente.uf:string:27,valor:decimal}.
+     *
+     * @throws IllegalArgumentException se o esquema for vazio ou tiver colunas inválidas
+     */
+    public static List<ColumnSpec> parseSchema(String schema) {
+        List<ColumnSpec> columns = new ArrayList<>();
+        if (schema == null || schema.trim().isEmpty()) {
+            throw new IllegalArgumentException("Esquema vazio");
+        }
+
+        for (String column : splitColumns(schema)) {
+            int separator = column.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Coluna sem tipo no esquema: '" + column.trim() + "' (use campo:tipo)");
+            }
+            String name = column.substring(0, separator).trim();
+            String typeSpec = column.substring(separator + 1).trim();
+
+            Matcher matcher = TYPE_SPEC.matcher(typeSpec);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Tipo inválido para a coluna '" + name + "': " + typeSpec);
+            }
+            DataType dataType;
+            String dateFormat = matcher.group(2);
+            if (dateFormat != null) {
+                dataType = DataType.DATE;
+                DateTimeFormatter.ofPattern(dateFormat);
+            } else {
+                try {
+                    dataType = DataType.valueOf(matcher.group(1).toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Tipo desconhecido para a coluna '" + name + "': " + matcher.group(1));
+                }
+            }
+            long cardinality = matcher.group(3) != null ? Long.parseLong(matcher.group(3)) : UNBOUNDED;
+            if (matcher.group(3) != null && cardinality <= 0) {
+                throw new IllegalArgumentException("Cardinalidade deve ser maior que zero na coluna '" + name + "'");
+            }
+            columns.add(new ColumnSpec(name, dataType, cardinality, dateFormat));
+        }
+        return columns;
+    }
+
+    /**
+     * Esquema padrão com {@code count} colunas que percorrem todos os tipos. Com
+     * {@code nestingDepth > 0}, as colunas são agrupadas em subdocumentos com essa profundidade
+     * (ex.: {@code grupo1.nivel2.nivel3.int32_5}).
+     */
+    public static List<ColumnSpec> defaultSchema(int count, int nestingDepth) {
+        DataType[] types = DataType.values();
+        List<ColumnSpec> columns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DataType dataType = types[i % types.length];
+            String name = dataType.name().toLowerCase() + "_" + i;
+            if (nestingDepth > 0 && i > 0) {
+                StringBuilder path = new StringBuilder("grupo").append((i - 1) / 4 % 3 + 1);
+                for (int level = 2; level <= nestingDepth; level++) {
+                    path.append(".nivel").append(level);
+                }
+                name = path.append('.').append(name).toString();
+            }
+            columns.add(new ColumnSpec(name, dataType, UNBOUNDED, null));
+        }
+        return columns;
+    }
+
+    /**
+     * Descrição no formato de --columnsHaveTypes, para importar o arquivo gerado com os mesmos tipos.
+     */
+    public static String toColumnTypes(List<ColumnSpec> columns) {
+        StringBuilder types = new StringBuilder();
+        for (ColumnSpec column : columns) {
+            if (column.dataType == DataType.AUTO) {
+                continue;
+            }
+            if (types.length() > 0) {
+                types.append(',');
+            }
+            types.append(column.name).append(':');
+            if (column.dateFormat != null) {
+                types.append("date(").append(column.dateFormat).append(')');
+            } else {
+                types.append(column.dataType.name().toLowerCase());
+            }
+        }
+        return types.toString();
+    }
+
+    /**
+     * Separa as colunas nas vírgulas que não estão entre parênteses (formatos de data).
+     */
+    private static List<String> splitColumns(String schema) {
+        List<String> columns = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < schema.length(); i++) {
+            char c = schema.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth > 0) {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                columns.add(schema.substring(start, i));
+                start = i + 1;
+            }
+        }
+        columns.add(schema.substring(start));
+        return columns;
+    }
+}
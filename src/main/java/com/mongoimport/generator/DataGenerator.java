@@ -0,0 +1,161 @@
+package com.mongoimport.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gera um arquivo delimitado sintético para testes de carga.
+ *
+ * As linhas são geradas em blocos por um pool de threads, cada uma com seu próprio
+ * {@link RowGenerator}, e escritas em ordem pela thread chamadora. O número de blocos em
+ * processamento é limitado ao dobro de threads, reaproveitando os buffers dos blocos já
+ * escritos; a memória usada não depende do tamanho do arquivo.
+ */
+public class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L;
+
+    private final GeneratorConfig config;
+
+    public DataGenerator(GeneratorConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Gera o arquivo configurado (arquivo regular ou named pipe).
+     *
+     * @return true se o arquivo foi gerado por completo
+     */
+    public boolean generate() {
+        int threads = config.getThreads();
+        int rowsPerBlock = config.getRowsPerBlock();
+        long startTime = System.nanoTime();
+
+        Deque<RowGenerator> idle = new ArrayDeque<>();
+        for (int i = 0; i < 2 * threads; i++) {
+            idle.add(new RowGenerator(config));
+        }
+        if (config.getMalformedFraction() > 0 && !idle.peek().hasMalformableColumns()) {
+            logger.warn("[WARNING] O esquema não tem colunas tipadas (apenas string/auto): nenhuma linha terá valores inválidos.");
+        }
+
+        logger.info("[INFO] Gerando {} com {} colunas ({} threads)...", config.getOutputFile().getPath(),
+                  config.getColumns().size(), threads);
+        logger.info("[INFO] Tipos para a importação: --columnsHaveTypes \"{}\"",
+                  ColumnSpec.toColumnTypes(config.getColumns()));
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Deque<Future<RowGenerator>> pending = new ArrayDeque<>();
+        long bytesWritten = 0;
+        long rowsWritten = 0;
+        long malformedRows = 0;
+        long mismatchedRows = 0;
+        long nextProgress = startTime + PROGRESS_INTERVAL_NANOS;
+
+        try (FileOutputStream output = new FileOutputStream(config.getOutputFile());
+             FileChannel channel = output.getChannel()) {
+            if (config.isHasHeaderline()) {
+                byte[] header = header();
+                bytesWritten += write(channel, header, header.length);
+            }
+
+            long nextRow = 0;
+            boolean done = false;
+            while (!done) {
+                // Manter todas as threads ocupadas enquanto houver linhas a gerar
+                while (!idle.isEmpty() && (config.isSizeLimited() || nextRow < config.getRows())) {
+                    RowGenerator generator = idle.poll();
+                    long firstRow = nextRow;
+                    int count = config.isSizeLimited() ? rowsPerBlock
+                        : (int) Math.min(rowsPerBlock, config.getRows() - firstRow);
+                    pending.add(workers.submit(() -> {
+                        generator.generate(firstRow, count);
+                        return generator;
+                    }));
+                    nextRow += count;
+                }
+
+                Future<RowGenerator> next = pending.poll();
+                if (next == null) {
+                    break;
+                }
+                RowGenerator generator = next.get();
+                bytesWritten += write(channel, generator.buffer(), generator.getLength());
+                rowsWritten += generator.getRowCount();
+                malformedRows += generator.getMalformedRows();
+                mismatchedRows += generator.getMismatchedRows();
+                idle.add(generator);
+
+                done = config.isSizeLimited() && bytesWritten >= config.getTargetBytes();
+
+                long now = System.nanoTime();
+                if (now >= nextProgress) {
+                    logProgress(rowsWritten, bytesWritten, now - startTime);
+                    nextProgress = now + PROGRESS_INTERVAL_NANOS;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("[ERROR] Erro ao gravar {}: {}", config.getOutputFile().getPath(), e.getMessage());
+            return false;
+        } catch (ExecutionException e) {
+            logger.error("[ERROR] Erro ao gerar linhas: {}", e.getCause().getMessage(), e.getCause());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("[ERROR] Geração interrompida");
+            return false;
+        } finally {
+            workers.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        logger.info("[SUCCESS] Arquivo gerado: {} linhas, {} MB em {} s ({} MB/s)", rowsWritten,
+                  String.format("%.1f", bytesWritten / (1024.0 * 1024.0)), String.format("%.1f", seconds),
+                  String.format("%.1f", seconds > 0 ? bytesWritten / (1024.0 * 1024.0) / seconds : 0));
+        if (malformedRows > 0 || mismatchedRows > 0) {
+            logger.info("[INFO]   - Linhas com valor inválido: {}; com número de campos errado: {}",
+                      malformedRows, mismatchedRows);
+        }
+        return true;
+    }
+
+    private byte[] header() {
+        StringBuilder header = new StringBuilder();
+        for (ColumnSpec column : config.getColumns()) {
+            if (header.length() > 0) {
+                header.append(config.getDelimiter());
+            }
+            header.append(column.getName());
+        }
+        return header.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long write(FileChannel channel, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+
+    private static void logProgress(long rows, long bytes, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double megabytes = bytes / (1024.0 * 1024.0);
+        logger.info("[PROGRESS] Gerados {} MB ({} linhas), {} MB/s", String.format("%.0f", megabytes), rows,
+                  String.format("%.1f", megabytes / seconds));
+    }
+}
@@ -0,0 +1,147 @@
+package com.mongoimport.generator;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Command(
+    name = "mongoimport-generate",
+    mixinStandardHelpOptions = true,
+    version = "1.0.0",
+    description = "Gera arquivos delimitados sintéticos (vários GB) para testes de carga da importação"
+)
+public class GenerateTool implements Callable<Integer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateTool.class);
+
+    // Tamanho com sufixo opcional: 500M, 50GB, 1T
+    private static final Pattern SIZE = Pattern.compile("(?i)(\\d+)\\s*([KMGT]?)B?");
+
+    @Option(names = {"--out"},
+            description = "Arquivo gerado (arquivo regular ou named pipe lido pela importação)",
+            required = true)
+    private File outputFile;
+
+    @Option(names = {"--schema"},
+            description = "Colunas no formato campo:tipo[:cardinalidade],...; campos com pontos geram subdocumentos e datas aceitam formato explícito: campo:date(dd/MM/yyyy) (padrão: --columns colunas de todos os tipos)")
+    private String schema;
+
+    @Option(names = {"--columns"},
+            description = "Número de colunas do esquema padrão, usado sem --schema (padrão: 10)",
+            defaultValue = "10")
+    private int columns;
+
+    @Option(names = {"--nestingDepth"},
+            description = "Profundidade dos subdocumentos no esquema padrão (padrão: 0, sem subdocumentos)",
+            defaultValue = "0")
+    private int nestingDepth;
+
+    @Option(names = {"--rows"},
+            description = "Número de linhas geradas")
+    private long rows;
+
+    @Option(names = {"--size"},
+            description = "Tamanho aproximado do arquivo, em vez de --rows (ex.: 500MB, 50GB)")
+    private String size;
+
+    @Option(names = {"--delimiter"},
+            description = "Caractere delimitador de campos (padrão: |)",
+            defaultValue = "|")
+    private String delimiter;
+
+    @Option(names = {"--noHeaderline"},
+            description = "Não grava a linha de cabeçalho")
+    private boolean noHeaderline;
+
+    @Option(names = {"--malformedRows"},
+            description = "Fração das linhas com um valor que não converte no tipo da coluna (ex.: 0.01) (padrão: 0)",
+            defaultValue = "0")
+    private double malformedRows;
+
+    @Option(names = {"--fieldCountMismatch"},
+            description = "Fração das linhas com um campo a menos ou a mais que o cabeçalho (padrão: 0)",
+            defaultValue = "0")
+    private double fieldCountMismatch;
+
+    @Option(names = {"--threads"},
+            description = "Número de threads de geração (padrão: número de processadores)")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Option(names = {"--seed"},
+            description = "Semente dos valores: a mesma semente e o mesmo esquema geram o mesmo arquivo (padrão: 42)",
+            defaultValue = "42")
+    private long seed;
+
+    public static void main(String[] args) {
+        int exitCode = new CommandLine(new GenerateTool()).execute(args);
+        System.exit(exitCode);
+    }
+
+    @Override
+    public Integer call() {
+        try {
+            if (nestingDepth < 0) {
+                throw new IllegalArgumentException("Profundidade dos subdocumentos não pode ser negativa");
+            }
+            if (schema == null && columns <= 0) {
+                throw new IllegalArgumentException("Número de colunas deve ser maior que zero");
+            }
+            if (schema != null && nestingDepth > 0) {
+                logger.warn("[WARNING] --nestingDepth só se aplica ao esquema padrão; use campos com pontos em --schema.");
+            }
+            List<ColumnSpec> columnSpecs = schema != null
+                ? ColumnSpec.parseSchema(schema)
+                : ColumnSpec.defaultSchema(columns, nestingDepth);
+
+            GeneratorConfig config = GeneratorConfig.builder()
+                .outputFile(outputFile)
+                .columns(columnSpecs)
+                .rows(rows)
+                .targetBytes(size != null ? parseSize(size) : 0)
+                .delimiter(delimiter.charAt(0))
+                .hasHeaderline(!noHeaderline)
+                .malformedFraction(malformedRows)
+                .fieldCountMismatchFraction(fieldCountMismatch)
+                .threads(threads)
+                .seed(seed)
+                .build();
+
+            return new DataGenerator(config).generate() ? 0 : 1;
+
+        } catch (IllegalArgumentException e) {
+            logger.error("[FATAL] Configuração inválida: {}", e.getMessage());
+            return 1;
+        } catch (Exception e) {
+            logger.error("[FATAL] Erro crítico durante a geração: {}", e.getMessage(), e);
+            return 1;
+        }
+    }
+
+    /**
+     * Interpreta um tamanho em bytes com sufixo K, M, G ou T (potências de 1024).
+     */
+    static long parseSize(String value) {
+        Matcher matcher = SIZE.matcher(value.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Tamanho inválido: " + value + " (ex.: 500MB, 50GB)");
+        }
+        long number = Long.parseLong(matcher.group(1));
+        int shift = switch (matcher.group(2).toUpperCase(Locale.ROOT)) {
+            case "K" -> 10;
+            case "M" -> 20;
+            case "G" -> 30;
+            case "T" -> 40;
+            default -> 0;
+        };
+        return number << shift;
+    }
+}
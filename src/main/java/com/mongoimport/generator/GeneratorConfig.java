@@ -0,0 +1,172 @@
+package com.mongoimport.generator;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Configuração da geração de um arquivo delimitado sintético.
+ */
+public class GeneratorConfig {
+    private final File outputFile;
+    private final List<ColumnSpec> columns;
+    private final long rows;
+    private final long targetBytes;
+    private final char delimiter;
+    private final boolean hasHeaderline;
+    private final double malformedFraction;
+    private final double fieldCountMismatchFraction;
+    private final int threads;
+    private final int rowsPerBlock;
+    private final long seed;
+
+    private GeneratorConfig(Builder builder) {
+        this.outputFile = builder.outputFile;
+        this.columns = builder.columns;
+        this.rows = builder.rows;
+        this.targetBytes = builder.targetBytes;
+        this.delimiter = builder.delimiter;
+        this.hasHeaderline = builder.hasHeaderline;
+        this.malformedFraction = builder.malformedFraction;
+        this.fieldCountMismatchFraction = builder.fieldCountMismatchFraction;
+        this.threads = builder.threads;
+        this.rowsPerBlock = builder.rowsPerBlock;
+        this.seed = builder.seed;
+    }
+
+    public File getOutputFile() { return outputFile; }
+    public List<ColumnSpec> getColumns() { return columns; }
+    public long getRows() { return rows; }
+    public long getTargetBytes() { return targetBytes; }
+    public char getDelimiter() { return delimiter; }
+    public boolean isHasHeaderline() { return hasHeaderline; }
+    public double getMalformedFraction() { return malformedFraction; }
+    public double getFieldCountMismatchFraction() { return fieldCountMismatchFraction; }
+    public int getThreads() { return threads; }
+    public int getRowsPerBlock() { return rowsPerBlock; }
+    public long getSeed() { return seed; }
+
+    /**
+     * @return true se o tamanho do arquivo é definido pelo número de bytes e não de linhas
+     */
+    public boolean isSizeLimited() {
+        return targetBytes > 0;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GeneratorConfig{outputFile=%s, columns=%d, rows=%d, targetBytes=%d, delimiter='%c', " +
+                           "hasHeaderline=%s, malformedFraction=%s, fieldCountMismatchFraction=%s, threads=%d, seed=%d}",
+                           outputFile, columns.size(), rows, targetBytes, delimiter, hasHeaderline,
+                           malformedFraction, fieldCountMismatchFraction, threads, seed);
+    }
+
+    public static class Builder {
+        private File outputFile;
+        private List<ColumnSpec> columns;
+        private long rows;
+        private long targetBytes;
+        private char delimiter = '|';
+        private boolean hasHeaderline = true;
+        private double malformedFraction = 0;
+        private double fieldCountMismatchFraction = 0;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int rowsPerBlock = 16384;
+        private long seed = 42;
+
+        public Builder outputFile(File outputFile) {
+            this.outputFile = outputFile;
+            return this;
+        }
+
+        public Builder columns(List<ColumnSpec> columns) {
+            this.columns = columns;
+            return this;
+        }
+
+        public Builder rows(long rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        public Builder targetBytes(long targetBytes) {
+            this.targetBytes = targetBytes;
+            return this;
+        }
+
+        public Builder delimiter(char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        public Builder hasHeaderline(boolean hasHeaderline) {
+            this.hasHeaderline = hasHeaderline;
+            return this;
+        }
+
+        public Builder malformedFraction(double malformedFraction) {
+            this.malformedFraction = malformedFraction;
+            return this;
+        }
+
+        public Builder fieldCountMismatchFraction(double fieldCountMismatchFraction) {
+            this.fieldCountMismatchFraction = fieldCountMismatchFraction;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder rowsPerBlock(int rowsPerBlock) {
+            this.rowsPerBlock = rowsPerBlock;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public GeneratorConfig build() {
+            if (outputFile == null) {
+                throw new IllegalArgumentException("Arquivo de saída é obrigatório");
+            }
+            if (columns == null || columns.isEmpty()) {
+                throw new IllegalArgumentException("O esquema precisa de ao menos uma coluna");
+            }
+            if ((rows > 0) == (targetBytes > 0)) {
+                throw new IllegalArgumentException("Informe o número de linhas ou o tamanho do arquivo (apenas um deles)");
+            }
+            if (rows < 0 || targetBytes < 0) {
+                throw new IllegalArgumentException("Número de linhas e tamanho do arquivo não podem ser negativos");
+            }
+            if (Character.isLetterOrDigit(delimiter) || delimiter == '"' || delimiter == '\\'
+                    || delimiter == '\n' || delimiter == '\r' || delimiter > 0x7F) {
+                throw new IllegalArgumentException("Delimitador inválido para o arquivo gerado: '" + delimiter + "'");
+            }
+            for (ColumnSpec column : columns) {
+                if (column.getName().isEmpty() || column.getName().indexOf(delimiter) >= 0) {
+                    throw new IllegalArgumentException("Nome de coluna inválido para o delimitador: '" + column.getName() + "'");
+                }
+            }
+            if (malformedFraction < 0 || malformedFraction > 1) {
+                throw new IllegalArgumentException("Fração de linhas com valores inválidos deve estar entre 0 e 1");
+            }
+            if (fieldCountMismatchFraction < 0 || fieldCountMismatchFraction > 1) {
+                throw new IllegalArgumentException("Fração de linhas com número de campos errado deve estar entre 0 e 1");
+            }
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Número de threads deve ser maior que zero");
+            }
+            if (rowsPerBlock <= 0) {
+                throw new IllegalArgumentException("Linhas por bloco deve ser maior que zero");
+            }
+            return new GeneratorConfig(this);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.mongoimport.generator;
+
+import com.mongoimport.model.DataType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gera blocos de linhas delimitadas diretamente em bytes, sem Strings intermediárias.
+ *
+ * Os valores de cada linha vêm de um gerador SplitMix64 semeado pela semente da geração e
+ * pelo número da linha: o arquivo é o mesmo para qualquer número de threads e tamanho de
+ * bloco. Em colunas com cardinalidade, o valor é derivado apenas do índice sorteado entre
+ * os {@code cardinalidade} possíveis, então linhas diferentes repetem exatamente os mesmos valores.
+ *
+ * Cada instância é usada por uma thread por vez.
+ */
+final class RowGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // 2000-01-01T00:00:00Z e a duração de 30 anos, em segundos
+    private static final long DATE_ORIGIN = 946_684_800L;
+    private static final long DATE_RANGE = 30L * 365 * 86_400;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64 =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXTRA_FIELD = "extra".getBytes(StandardCharsets.US_ASCII);
+
+    // Sílabas dos textos; as primeiras são ASCII e podem iniciar palavras (maiúscula)
+    private static final byte[][] SYLLABLES = utf8("ma", "ri", "co", "la", "be", "to", "sa", "ne", "pa", "di",
+                                                    "lu", "ca", "fe", "ro", "vi", "nu", "são", "ção", "lé", "pô");
+    private static final int ASCII_SYLLABLES = 16;
+
+    // Tipos sorteados em colunas AUTO (as que a auto-detecção reconhece)
+    private static final DataType[] AUTO_TYPES = {
+        DataType.STRING, DataType.INT32, DataType.INT64, DataType.DOUBLE,
+        DataType.BOOLEAN, DataType.DATE, DataType.OBJECTID
+    };
+
+    // Valores que não convertem no tipo da coluna (linhas com valores inválidos)
+    private static final byte[][] MALFORMED_NUMBERS = utf8("N/A", "#VALOR!", "12,5x", "--", "1e", "0x1G");
+    private static final byte[][] MALFORMED_BOOLEANS = utf8("talvez", "sim?", "2");
+    private static final byte[][] MALFORMED_DATES = utf8("2024-13-45T25:61:61", "31/02/2024 xx", "ontem");
+    private static final byte[][] MALFORMED_OBJECTIDS = utf8("ObjectId(xyz)", "507f1f77bcf86cd79943901z", "0");
+    private static final byte[][] MALFORMED_BINDATA = utf8("***não-base64***", "ab$c");
+
+    // Maior valor gerado por coluna (bytes), para dimensionar o buffer uma vez por linha
+    private static final int MAX_FIXED_WIDTH = 64;
+    private static final int MAX_FORMATTED_DATE_WIDTH = 256;
+
+    private final ColumnSpec[] columns;
+    private final DataType[] types;
+    private final long[] cardinalities;
+    private final long[] columnSalts;
+    private final DateTimeFormatter[] dateFormatters;
+    private final int[] malformableColumns;
+    private final byte delimiter;
+    private final long seed;
+    private final double malformedFraction;
+    private final double fieldCountMismatchFraction;
+    private final int maxRowWidth;
+
+    private byte[] buffer = new byte[1 << 20];
+    private int position;
+    private long rowState;
+    private long valueState;
+    private int rowCount;
+    private long malformedRows;
+    private long mismatchedRows;
+
+    RowGenerator(GeneratorConfig config) {
+        List<ColumnSpec> specs = config.getColumns();
+        this.columns = specs.toArray(new ColumnSpec[0]);
+        this.types = new DataType[columns.length];
+        this.cardinalities = new long[columns.length];
+        this.columnSalts = new long[columns.length];
+        this.dateFormatters = new DateTimeFormatter[columns.length];
+        this.delimiter = (byte) config.getDelimiter();
+        this.seed = config.getSeed();
+        this.malformedFraction = config.getMalformedFraction();
+        this.fieldCountMismatchFraction = config.getFieldCountMismatchFraction();
+
+        int[] malformable = new int[columns.length];
+        int malformableCount = 0;
+        int width = 1 + 2 * columns.length + EXTRA_FIELD.length + 1;
+        for (int i = 0; i < columns.length; i++) {
+            types[i] = columns[i].getDataType();
+            cardinalities[i] = columns[i].getCardinality();
+            columnSalts[i] = mix64(seed ^ ((i + 1) * 0xBF58476D1CE4E5B9L));
+            if (columns[i].getDateFormat() != null) {
+                dateFormatters[i] = DateTimeFormatter.ofPattern(columns[i].getDateFormat());
+                width += MAX_FORMATTED_DATE_WIDTH;
+            } else {
+                width += MAX_FIXED_WIDTH;
+            }
+            if (types[i] != DataType.STRING && types[i] != DataType.AUTO) {
+                malformable[malformableCount++] = i;
+            }
+        }
+        this.malformableColumns = Arrays.copyOf(malformable, malformableCount);
+        this.maxRowWidth = width;
+    }
+
+    /**
+     * @return true se o esquema tem colunas que podem receber valores inválidos (tipadas)
+     */
+    boolean hasMalformableColumns() {
+        return malformableColumns.length > 0;
+    }
+
+    /**
+     * Gera as linhas {@code [firstRow, firstRow + count)} no buffer interno, a partir da posição 0.
+     */
+    void generate(long firstRow, int count) {
+        position = 0;
+        rowCount = count;
+        malformedRows = 0;
+        mismatchedRows = 0;
+        for (long row = firstRow; row < firstRow + count; row++) {
+            writeRow(row);
+        }
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return Número de bytes do último bloco gerado
+     */
+    int getLength() {
+        return position;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    long getMalformedRows() {
+        return malformedRows;
+    }
+
+    long getMismatchedRows() {
+        return mismatchedRows;
+    }
+
+    private void writeRow(long row) {
+        ensureCapacity(maxRowWidth);
+        rowState = mix64(seed + row * GOLDEN_GAMMA);
+
+        // Sorteios da linha sempre feitos, antes dos valores: com frações diferentes, as demais
+        // linhas do arquivo continuam idênticas
+        double malformedDraw = nextDouble();
+        long malformedPick = nextRow();
+        double mismatchDraw = nextDouble();
+        long mismatchPick = nextRow();
+
+        int malformedColumn = -1;
+        if (malformedDraw < malformedFraction && malformableColumns.length > 0) {
+            malformedColumn = malformableColumns[(int) Long.remainderUnsigned(malformedPick, malformableColumns.length)];
+            malformedRows++;
+        }
+        int fieldCount = columns.length;
+        if (mismatchDraw < fieldCountMismatchFraction) {
+            // Metade das linhas perde o último campo, metade ganha um campo a mais
+            fieldCount += (mismatchPick & 1) == 0 && columns.length > 1 ? -1 : 1;
+            mismatchedRows++;
+        }
+
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                buffer[position++] = delimiter;
+            }
+            if (i >= columns.length) {
+                position = put(EXTRA_FIELD, position);
+                continue;
+            }
+
+            int start = position;
+            valueState = cardinalities[i] == ColumnSpec.UNBOUNDED
+                ? nextRow()
+                : mix64(columnSalts[i] + Long.remainderUnsigned(nextRow(), cardinalities[i]) * GOLDEN_GAMMA);
+            if (i == malformedColumn) {
+                writeMalformed(types[i]);
+            } else {
+                writeValue(types[i], i);
+            }
+            quoteIfNeeded(start);
+        }
+        buffer[position++] = '\n';
+    }
+
+    private void writeValue(DataType dataType, int column) {
+        switch (dataType) {
+            case STRING -> writeText();
+            case INT32 -> writeLong((int) (nextValue() % 10_000_000));
+            case INT64 -> writeLong(nextValue() >>> 14);
+            case DOUBLE -> {
+                writeLong(Long.remainderUnsigned(nextValue(), 1_000_000));
+                buffer[position++] = '.';
+                writePadded(Long.remainderUnsigned(nextValue(), 10_000), 4);
+            }
+            case DECIMAL -> {
+                writeLong(Long.remainderUnsigned(nextValue(), 100_000_000));
+                buffer[position++] = '.';
+                writePadded(Long.remainderUnsigned(nextValue(), 100), 2);
+            }
+            case BOOLEAN -> position = put((nextValue() & 1) == 0 ? TRUE : FALSE, position);
+            case DATE -> writeDate(column);
+            case OBJECTID -> writeObjectId();
+            case BINDATA -> writeBinData();
+            case AUTO -> writeValue(AUTO_TYPES[(int) Long.remainderUnsigned(nextValue(), AUTO_TYPES.length)], column);
+        }
+    }
+
+    private void writeMalformed(DataType dataType) {
+        byte[][] candidates = switch (dataType) {
+            case BOOLEAN -> MALFORMED_BOOLEANS;
+            case DATE -> MALFORMED_DATES;
+            case OBJECTID -> MALFORMED_OBJECTIDS;
+            case BINDATA -> MALFORMED_BINDATA;
+            default -> MALFORMED_NUMBERS;
+        };
+        position = put(candidates[(int) Long.remainderUnsigned(nextValue(), candidates.length)], position);
+    }
+
+    /**
+     * Texto de uma a três palavras com duas a quatro sílabas, iniciadas por maiúscula.
+     */
+    private void writeText() {
+        long bits = nextValue();
+        int words = 1 + (int) ((bits & 0xFF) % 3);
+        bits >>>= 8;
+        for (int word = 0; word < words; word++) {
+            if (word > 0) {
+                buffer[position++] = ' ';
+            }
+            int syllables = 2 + (int) ((bits & 0xFF) % 3);
+            bits >>>= 8;
+            long choices = nextValue();
+            for (int s = 0; s < syllables; s++) {
+                int index = s == 0
+                    ? (int) Long.remainderUnsigned(choices, ASCII_SYLLABLES)
+                    : (int) Long.remainderUnsigned(choices, SYLLABLES.length);
+                choices = Long.rotateRight(choices, 7) ^ (choices >>> 13);
+                int start = position;
+                position = put(SYLLABLES[index], position);
+                if (s == 0) {
+                    buffer[start] -= 'a' - 'A';
+                }
+            }
+        }
+    }
+
+    /**
+     * Data e hora entre 2000 e 2030, em ISO (yyyy-MM-ddTHH:mm:ss) ou no formato da coluna.
+     */
+    private void writeDate(int column) {
+        long epochSecond = DATE_ORIGIN + Long.remainderUnsigned(nextValue(), DATE_RANGE);
+        if (dateFormatters[column] != null) {
+            String formatted = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(dateFormatters[column]);
+            byte[] bytes = formatted.getBytes(StandardCharsets.UTF_8);
+            position = put(bytes, 0, Math.min(bytes.length, MAX_FORMATTED_DATE_WIDTH), position);
+            return;
+        }
+
+        long days = Math.floorDiv(epochSecond, 86_400);
+        int secondOfDay = Math.floorMod(epochSecond, 86_400);
+        // Conversão de dias desde 1970-01-01 para ano/mês/dia (algoritmo civil_from_days)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        writePadded(year, 4);
+        buffer[position++] = '-';
+        writePadded(month, 2);
+        buffer[position++] = '-';
+        writePadded(day, 2);
+        buffer[position++] = 'T';
+        writePadded(secondOfDay / 3600, 2);
+        buffer[position++] = ':';
+        writePadded(secondOfDay / 60 % 60, 2);
+        buffer[position++] = ':';
+        writePadded(secondOfDay % 60, 2);
+    }
+
+    private void writeObjectId() {
+        long high = nextValue();
+        int low = (int) nextValue();
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            buffer[position++] = HEX[(int) (high >>> shift) & 0xF];
+        }
+        for (int shift = 28; shift >= 0; shift -= 4) {
+            buffer[position++] = HEX[(low >>> shift) & 0xF];
+        }
+    }
+
+    /**
+     * Base64 (com preenchimento) de 12 a 45 bytes aleatórios.
+     */
+    private void writeBinData() {
+        int length = 12 + (int) Long.remainderUnsigned(nextValue(), 34);
+        long bits = 0;
+        int available = 0;
+        int pending = 0;
+        int pendingBytes = 0;
+        for (int i = 0; i < length; i++) {
+            if (available == 0) {
+                bits = nextValue();
+                available = 8;
+            }
+            pending = (pending << 8) | (int) (bits & 0xFF);
+            bits >>>= 8;
+            available--;
+            if (++pendingBytes == 3) {
+                writeBase64Group(pending, 4);
+                pending = 0;
+                pendingBytes = 0;
+            }
+        }
+        if (pendingBytes > 0) {
+            writeBase64Group(pending << (8 * (3 - pendingBytes)), pendingBytes + 1);
+            for (int i = pendingBytes; i < 3; i++) {
+                buffer[position++] = '=';
+            }
+        }
+    }
+
+    private void writeBase64Group(int group, int chars) {
+        for (int i = 0; i < chars; i++) {
+            buffer[position++] = BASE64[(group >>> (18 - 6 * i)) & 0x3F];
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        writePadded(value, digits);
+    }
+
+    private void writePadded(long value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Coloca entre aspas o valor que contém o delimitador (valores gerados nunca contêm aspas).
+     */
+    private void quoteIfNeeded(int start) {
+        for (int i = start; i < position; i++) {
+            if (buffer[i] == delimiter) {
+                System.arraycopy(buffer, start, buffer, start + 1, position - start);
+                buffer[start] = '"';
+                position += 2;
+                buffer[position - 1] = '"';
+                return;
+            }
+        }
+    }
+
+    private int put(byte[] bytes, int at) {
+        return put(bytes, 0, bytes.length, at);
+    }
+
+    private int put(byte[] bytes, int offset, int length, int at) {
+        System.arraycopy(bytes, offset, buffer, at, length);
+        return at + length;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (position + needed > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+        }
+    }
+
+    private long nextRow() {
+        return mix64(rowState += GOLDEN_GAMMA);
+    }
+
+    private long nextValue() {
+        return mix64(valueState += GOLDEN_GAMMA);
+    }
+
+    private double nextDouble() {
+        return (nextRow() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Função de mistura do SplitMix64.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static byte[][] utf8(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mongoimport.importer;
+
+/**
+ * Define o tamanho dos batches a partir do desempenho observado nas inserções (AIMD).
+ *
+ * Enquanto a latência fica abaixo do limite e a vazão (documentos/s) não cai, o número de
+ * documentos por batch cresce de forma aditiva; latência alta ou queda de vazão reduzem o
+ * tamanho de forma multiplicativa. Independentemente da contagem, um batch é fechado ao
+ * atingir {@code maxBytes} de BSON estimado.
+ *
+ * Seguro para uso concorrente: os produtores consultam o tamanho alvo e os workers de
+ * escrita reportam cada inserção.
+ */
+public class AdaptiveBatchSizer {
+
+    public static final int MIN_DOCUMENTS = 10;
+    public static final int MAX_DOCUMENTS = 100_000;
+
+    // Acima desta latência o servidor é considerado sobrecarregado
+    private static final long MAX_LATENCY_NANOS = 2_000_000_000L;
+
+    private static final double LATENCY_DECREASE_FACTOR = 0.5;
+    private static final double THROUGHPUT_DECREASE_FACTOR = 0.8;
+
+    // Quedas de vazão menores que 20% são tratadas como ruído
+    private static final double THROUGHPUT_TOLERANCE = 0.8;
+
+    // Peso da última medição na média móvel de vazão
+    private static final double THROUGHPUT_SMOOTHING = 0.3;
+
+    private final long maxBytes;
+    private final int increment;
+    private volatile int targetDocuments;
+    private double averageThroughput;
+
+    /**
+     * @param initialDocuments Tamanho inicial do batch (em documentos)
+     * @param maxBytes Limite de bytes BSON por batch
+     */
+    public AdaptiveBatchSizer(int initialDocuments, long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.targetDocuments = clamp(initialDocuments);
+        this.increment = Math.max(MIN_DOCUMENTS, targetDocuments / 4);
+    }
+
+    /**
+     * Verifica se o batch deve ser fechado.
+     *
+     * @param documents Documentos no batch
+     * @param bytes Tamanho BSON estimado do batch
+     */
+    public boolean isFull(int documents, long bytes) {
+        return documents >= targetDocuments || bytes >= maxBytes;
+    }
+
+    /**
+     * Registra uma escrita concluída e ajusta o tamanho alvo.
+     *
+     * @param documents Documentos do batch
+     * @param elapsedNanos Duração da escrita
+     */
+    public synchronized void recordWrite(int documents, long elapsedNanos) {
+        if (documents == 0 || elapsedNanos <= 0) {
+            return;
+        }
+        double throughput = documents * 1_000_000_000.0 / elapsedNanos;
+
+        if (elapsedNanos > MAX_LATENCY_NANOS) {
+            targetDocuments = clamp((int) (targetDocuments * LATENCY_DECREASE_FACTOR));
+        } else if (averageThroughput > 0 && throughput < averageThroughput * THROUGHPUT_TOLERANCE) {
+            targetDocuments = clamp((int) (targetDocuments * THROUGHPUT_DECREASE_FACTOR));
+        } else if (documents >= targetDocuments) {
+            // Só cresce quando o batch foi limitado pela contagem (e não por bytes ou fim de bloco)
+            targetDocuments = clamp(targetDocuments + increment);
+        }
+
+        averageThroughput = averageThroughput == 0 ? throughput
+            : averageThroughput * (1 - THROUGHPUT_SMOOTHING) + throughput * THROUGHPUT_SMOOTHING;
+    }
+
+    public int getTargetDocuments() { return targetDocuments; }
+    public long getMaxBytes() { return maxBytes; }
+
+    private static int clamp(int documents) {
+        return Math.max(MIN_DOCUMENTS, Math.min(MAX_DOCUMENTS, documents));
+    }
+}
@@ -0,0 +1,211 @@
+package com.mongoimport.importer;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.BSONException;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insere batches com {@code insertMany} não ordenado e resolve falhas parciais sem
+ * reenviar os documentos que já foram gravados.
+ *
+ * Em um {@link MongoBulkWriteException} apenas os índices com erro são tratados: erros
+ * transitórios são reenviados e os demais (ex.: chave duplicada) são rejeitados. Em erros
+ * que não identificam documentos, o batch é dividido ao meio até isolar o documento problemático.
+ *
+ * Falhas transitórias do batch inteiro (rede, troca de primário) são repetidas pela
+ * {@link RetryPolicy}. Como o {@code _id} é atribuído antes do primeiro envio, um reenvio
+ * não duplica documentos: chaves duplicadas em {@code _id} após um reenvio indicam documentos
+ * que já haviam sido gravados e são contadas como inseridas; o mesmo vale para batches
+ * reenviados na retomada de uma importação interrompida. Documentos BSON prontos
+ * ({@code RawBsonDocument}) já trazem o {@code _id} da codificação.
+ *
+ * Com o {@code _id} derivado das colunas do arquivo (--idFields), toda chave duplicada em
+ * {@code _id} indica um documento já carregado (por uma importação anterior do mesmo arquivo
+ * ou por uma linha repetida): ele é contado como existente, sem reenvio nem divisão do batch.
+ *
+ * @param <T> Classe dos documentos da coleção ({@link Document} ou {@code RawBsonDocument})
+ */
+public class BatchInserter<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchInserter.class);
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private static final String ID_FIELD = "_id";
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String ID_INDEX = "index: _id_ ";
+
+    private final MongoCollection<T> collection;
+    private final ImportStats stats;
+    private final RetryPolicy retryPolicy;
+    private final boolean verbose;
+    private final boolean derivedIds;
+
+    /**
+     * @param collection Coleção de destino
+     * @param stats Contadores onde os documentos rejeitados são registrados como ignorados
+     * @param retryPolicy Política de novas tentativas para erros transitórios
+     * @param verbose Registra em debug o conteúdo dos documentos rejeitados
+     */
+    public BatchInserter(MongoCollection<T> collection, ImportStats stats,
+                        RetryPolicy retryPolicy, boolean verbose) {
+        this(collection, stats, retryPolicy, verbose, false);
+    }
+
+    /**
+     * @param derivedIds Se o {@code _id} é derivado das colunas do arquivo (--idFields)
+     * @see #BatchInserter(MongoCollection, ImportStats, RetryPolicy, boolean)
+     */
+    public BatchInserter(MongoCollection<T> collection, ImportStats stats,
+                        RetryPolicy retryPolicy, boolean verbose, boolean derivedIds) {
+        this.collection = collection;
+        this.stats = stats;
+        this.retryPolicy = retryPolicy;
+        this.verbose = verbose;
+        this.derivedIds = derivedIds;
+    }
+
+    /**
+     * Insere um batch de documentos no MongoDB.
+     *
+     * @return Número de documentos inseridos
+     */
+    public long insert(List<T> batch) {
+        return insert(batch, false);
+    }
+    
+    /**
+     * Insere um batch de documentos no MongoDB.
+     *
+     * @param replayed Se o batch pode ter sido gravado por uma execução anterior (--resume)
+     * @return Número de documentos inseridos
+     */
+    public long insert(List<T> batch, boolean replayed) {
+        // _id fixo antes do primeiro envio: reenvios gravam os mesmos documentos
+        for (T document : batch) {
+            if (document instanceof Document doc && !doc.containsKey(ID_FIELD)) {
+                doc.put(ID_FIELD, new ObjectId());
+            }
+        }
+        return insert(batch, 0, true, replayed);
+    }
+
+    private long insert(List<T> batch, int retryRound, boolean wholeBatch, boolean replayed) {
+        int[] attempts = new int[1];
+        try {
+            retryPolicy.execute("inserir batch de " + batch.size() + " documentos", attempt -> {
+                attempts[0] = attempt;
+                collection.insertMany(batch, UNORDERED);
+                return null;
+            });
+            return batch.size();
+        } catch (MongoBulkWriteException e) {
+            return resolveWriteErrors(batch, e, retryRound, replayed || retryRound > 0 || attempts[0] > 1, replayed);
+        } catch (MongoException | BSONException e) {
+            if (RetryPolicy.isRetryable(e)) {
+                // Tentativas esgotadas: o MongoDB está indisponível, dividir o batch não ajuda
+                throw e;
+            }
+            if (wholeBatch) {
+                logger.warn("[WARNING] Erro ao inserir batch de {} documentos: {}. Dividindo o batch para isolar o problema.",
+                          batch.size(), e.getMessage());
+            }
+            return bisect(batch, e, retryRound, replayed);
+        }
+    }
+
+    /**
+     * Trata apenas os documentos com erro: os demais já foram inseridos.
+     *
+     * @param resent Se o batch já havia sido enviado antes (total ou parcialmente)
+     */
+    private long resolveWriteErrors(List<T> batch, MongoBulkWriteException e, int retryRound, boolean resent,
+                                    boolean replayed) {
+        if (e.getWriteConcernError() != null) {
+            logger.warn("[WARNING] Write concern não satisfeito no batch: {}", e.getWriteConcernError().getMessage());
+        }
+
+        List<T> retry = new ArrayList<>();
+        long failed = 0;
+        long existing = 0;
+        for (BulkWriteError error : e.getWriteErrors()) {
+            T document = batch.get(error.getIndex());
+            if (resent && isDuplicateId(error)) {
+                // Gravado por um envio anterior cuja resposta se perdeu
+                continue;
+            }
+            failed++;
+            if (derivedIds && isDuplicateId(error)) {
+                existing++;
+                continue;
+            }
+            if (RetryPolicy.isRetryableCode(error.getCode()) && retryRound < retryPolicy.getMaxRetries()) {
+                retry.add(document);
+            } else {
+                reject(document, error.getMessage());
+            }
+        }
+
+        if (existing > 0) {
+            stats.addExisting(existing);
+        }
+        long inserted = batch.size() - failed;
+        if (!retry.isEmpty()) {
+            long delay = retryPolicy.nextDelay(retryRound + 1);
+            logger.info("[INFO] Reenviando {} documentos do batch com erros transitórios (tentativa {}) em {} ms.",
+                      retry.size(), retryRound + 1, delay);
+            retryPolicy.pause(delay);
+            inserted += insert(retry, retryRound + 1, true, replayed);
+        }
+        return inserted;
+    }
+
+    private static boolean isDuplicateId(BulkWriteError error) {
+        return error.getCode() == DUPLICATE_KEY
+            && error.getMessage() != null
+            && error.getMessage().contains(ID_INDEX);
+    }
+
+    /**
+     * Divide o batch ao meio e insere cada metade, até isolar o documento que causa o erro.
+     */
+    private long bisect(List<T> batch, RuntimeException e, int retryRound, boolean replayed) {
+        if (batch.size() == 1) {
+            reject(batch.get(0), e.getMessage());
+            return 0;
+        }
+        int middle = batch.size() / 2;
+        return insert(batch.subList(0, middle), retryRound, false, replayed)
+             + insert(batch.subList(middle, batch.size()), retryRound, false, replayed);
+    }
+
+    private void reject(T document, String reason) {
+        logger.warn("[WARNING] Falha ao inserir documento: {}", reason);
+        if (verbose) {
+            logger.debug("[DEBUG] Documento problemático: {}", toJson(document));
+        }
+        stats.incrementSkipped();
+    }
+
+    private static String toJson(Object document) {
+        if (document instanceof Document doc) {
+            return doc.toJson();
+        }
+        if (document instanceof BsonDocument doc) {
+            return doc.toJson();
+        }
+        return String.valueOf(document);
+    }
+}
@@ -0,0 +1,119 @@
+package com.mongoimport.importer;
+
+import org.bson.conversions.Bson;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Estágio de escrita do pipeline de importação: {@code numWorkers} threads consomem
+ * batches de documentos de uma fila limitada e os entregam ao tratador (inserção no MongoDB).
+ *
+ * Enquanto um batch está no servidor, as threads de leitura e conversão continuam
+ * produzindo os próximos; com a fila cheia, {@link #submit(List)} bloqueia.
+ * Com um único worker os batches são escritos na ordem em que foram submetidos.
+ */
+public class BatchWriter {
+
+    // Marcador de fim da fila (comparado por identidade)
+    private static final List<Bson> END_OF_INPUT = new ArrayList<>();
+
+    private final BlockingQueue<List<Bson>> queue;
+    private final Consumer<List<Bson>> handler;
+    private final ExecutorService executor;
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final int numWorkers;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param numWorkers Número de threads de escrita
+     * @param handler Escreve um batch; é chamado concorrentemente por todos os workers
+     */
+    public BatchWriter(int numWorkers, Consumer<List<Bson>> handler) {
+        this.numWorkers = numWorkers;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(numWorkers * 2);
+        this.executor = Executors.newFixedThreadPool(numWorkers);
+
+        // Os workers herdam o contexto de log de quem criou o estágio
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        for (int i = 0; i < numWorkers; i++) {
+            futures.add(executor.submit(() -> {
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    runWorker();
+                } finally {
+                    MDC.clear();
+                }
+            }));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Enfileira um batch para escrita, bloqueando enquanto a fila estiver cheia.
+     * O batch passa a pertencer ao escritor e não deve mais ser alterado.
+     *
+     * @throws IllegalStateException se um worker de escrita falhou
+     */
+    public void submit(List<Bson> batch) throws InterruptedException {
+        checkFailure();
+        queue.put(batch);
+    }
+
+    /**
+     * Sinaliza o fim da entrada e aguarda a escrita de todos os batches enfileirados.
+     *
+     * @throws IllegalStateException se um worker de escrita falhou
+     */
+    public void finish() throws InterruptedException {
+        for (int i = 0; i < numWorkers; i++) {
+            queue.put(END_OF_INPUT);
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failure = new IllegalStateException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+        checkFailure();
+    }
+
+    private void runWorker() {
+        List<Bson> batch;
+        try {
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                // Após uma falha a fila continua sendo drenada para não bloquear os produtores
+                if (failure != null) {
+                    continue;
+                }
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() {
+        RuntimeException error = failure;
+        if (error != null) {
+            throw new IllegalStateException("Falha na escrita de batch: " + error.getMessage(), error);
+        }
+    }
+}
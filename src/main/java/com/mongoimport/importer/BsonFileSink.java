@@ -0,0 +1,268 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grava os documentos em arquivos {@code .bson} no formato do mongodump (--sink bson), para
+ * restauração posterior com {@code mongorestore}, sem conexão com o MongoDB durante a conversão.
+ *
+ * Com um arquivo de saída o layout é {@code <out>/<banco>/<coleção>.bson} e
+ * {@code <coleção>.metadata.json}. Com --outFiles N cada parte é um dump completo em
+ * {@code <out>/part-<n>/<banco>/}, e as partes podem ser restauradas em paralelo. Os batches
+ * são distribuídos entre as partes em rodízio, de modo que vários workers de escrita gravam
+ * ao mesmo tempo em arquivos diferentes.
+ *
+ * Cada parte acumula os documentos em um buffer grande e o grava com escritas sequenciais no
+ * FileChannel. O destino é compartilhado por todos os arquivos de entrada da importação e
+ * deve ser fechado ao final ({@link #close(boolean)}). Se a importação falhar, os arquivos
+ * {@code .bson} parciais são mantidos, mas sem os metadados: o dump não deve ser restaurado.
+ */
+public class BsonFileSink implements DocumentSink, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BsonFileSink.class);
+
+    private static final int BUFFER_SIZE = 8 * 1024 * 1024;
+
+    private static final String ID_FIELD = "_id";
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().isEncodingCollectibleDocument(true).build();
+    private static final ThreadLocal<BasicOutputBuffer> ENCODE_BUFFERS = ThreadLocal.withInitial(BasicOutputBuffer::new);
+
+    private final ImportConfig config;
+    private final File outputDir;
+    private final Part[] parts;
+    private final AtomicInteger nextPart = new AtomicInteger();
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Cria (ou substitui) os arquivos de saída.
+     *
+     * @param config Configuração da importação (banco, coleção, diretório e número de arquivos de saída)
+     */
+    public BsonFileSink(ImportConfig config) throws IOException {
+        this.config = config;
+        this.outputDir = config.getOutputDir();
+        this.parts = new Part[config.getOutputFiles()];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new Part(partDir(i));
+            }
+        } catch (IOException e) {
+            closeParts();
+            throw e;
+        }
+        logger.info("[INFO] Gravando dump BSON em {} ({} arquivo(s)).", outputDir, parts.length);
+    }
+
+    private File partDir(int index) {
+        File root = parts.length == 1 ? outputDir : new File(outputDir, "part-" + index);
+        return new File(root, config.getDatabase());
+    }
+
+    @Override
+    public long write(List<Bson> batch, boolean replayed) {
+        Part part = parts[Math.floorMod(nextPart.getAndIncrement(), parts.length)];
+        long batchBytes;
+        try {
+            batchBytes = part.write(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar " + part.bsonFile + ": " + e.getMessage(), e);
+        }
+        documents.addAndGet(batch.size());
+        bytes.addAndGet(batchBytes);
+        return batch.size();
+    }
+
+    @Override
+    public void reportSummary(ImportStats stats, long elapsedNanos) {
+        logger.info("\n[SUCCESS] Exportação concluída. Total de documentos gravados em BSON: {}", stats.getInserted());
+    }
+
+    /**
+     * Finaliza um dump completo: equivale a {@code close(true)}.
+     */
+    @Override
+    public void close() throws IOException {
+        close(true);
+    }
+
+    /**
+     * Grava o restante dos buffers. Com a importação completa, grava os arquivos de metadados e
+     * registra os comandos de restauração; com uma importação que falhou, remove os metadados
+     * (inclusive os de um dump anterior no mesmo diretório) e avisa que o dump é parcial.
+     *
+     * @param complete true se todos os arquivos foram importados com sucesso
+     */
+    public void close(boolean complete) throws IOException {
+        IOException failure = null;
+        for (Part part : parts) {
+            try {
+                part.close(complete);
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (!complete) {
+            logger.error("[ERROR] Importação incompleta: o dump BSON em {} é parcial ({} documentos) e NÃO deve ser "
+                       + "restaurado. Os arquivos de metadados não foram gravados.", outputDir, documents.get());
+            return;
+        }
+        logger.info("[INFO] Dump BSON: {} documentos, {} MB em {} arquivo(s).", documents.get(),
+                  String.format("%.1f", bytes.get() / (1024.0 * 1024.0)), parts.length);
+        if (parts.length == 1) {
+            logger.info("[INFO] Para restaurar: mongorestore --uri <uri> --numInsertionWorkersPerCollection <n> {}",
+                      outputDir);
+        } else {
+            logger.info("[INFO] Para restaurar, execute em paralelo:");
+            for (int i = 0; i < parts.length; i++) {
+                logger.info("[INFO]   mongorestore --uri <uri> --numInsertionWorkersPerCollection <n> {}",
+                          partDir(i).getParentFile());
+            }
+        }
+    }
+
+    private void closeParts() {
+        for (Part part : parts) {
+            if (part != null) {
+                try {
+                    part.channel.close();
+                } catch (IOException e) {
+                    // Já há um erro sendo reportado
+                }
+            }
+        }
+    }
+
+    public long getDocuments() { return documents.get(); }
+    public long getBytes() { return bytes.get(); }
+
+    /**
+     * Metadados no formato do mongodump: opções vazias e o índice {@code _id}.
+     */
+    private String metadataJson() {
+        Document idIndex = new Document("v", 2)
+            .append("key", new Document(ID_FIELD, 1))
+            .append("name", "_id_");
+        return new Document("options", new Document())
+            .append("indexes", List.of(idIndex))
+            .append("collectionName", config.getCollection())
+            .append("type", "collection")
+            .toJson(JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build());
+    }
+
+    /**
+     * Um arquivo {@code .bson} de saída com o seu buffer de escrita.
+     */
+    private final class Part {
+        private final File directory;
+        private final File bsonFile;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Part(File directory) throws IOException {
+            this.directory = directory;
+            Files.createDirectories(directory.toPath());
+            this.bsonFile = new File(directory, config.getCollection() + ".bson");
+            this.channel = FileChannel.open(bsonFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * @return Bytes gravados
+         */
+        private synchronized long write(List<Bson> batch) throws IOException {
+            long written = 0;
+            for (Bson document : batch) {
+                ByteBuffer encoded = encode(document);
+                written += encoded.remaining();
+                if (encoded.remaining() > buffer.remaining()) {
+                    flush();
+                }
+                if (encoded.remaining() > buffer.remaining()) {
+                    writeFully(encoded);
+                } else {
+                    buffer.put(encoded);
+                }
+            }
+            return written;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+
+        private synchronized void close(boolean complete) throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+            Path metadata = new File(directory, config.getCollection() + ".metadata.json").toPath();
+            if (complete) {
+                Files.writeString(metadata, metadataJson(), StandardCharsets.UTF_8);
+            } else {
+                Files.deleteIfExists(metadata);
+            }
+        }
+    }
+
+    /**
+     * Bytes BSON do documento: os do {@link RawBsonDocument} (--rawBson) ou a codificação do
+     * {@link Document}, com um ObjectId em {@code _id} se o documento não tiver um.
+     */
+    private static ByteBuffer encode(Bson document) {
+        if (document instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().asNIO();
+        }
+        Document doc = (Document) document;
+        if (!doc.containsKey(ID_FIELD)) {
+            doc.put(ID_FIELD, new ObjectId());
+        }
+        BasicOutputBuffer output = ENCODE_BUFFERS.get();
+        output.truncateToPosition(0);
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(output)) {
+            DOCUMENT_CODEC.encode(writer, doc, ENCODER_CONTEXT);
+        }
+        return ByteBuffer.wrap(output.getInternalBuffer(), 0, output.getPosition());
+    }
+}
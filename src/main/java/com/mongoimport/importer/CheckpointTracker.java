@@ -0,0 +1,177 @@
+package com.mongoimport.importer;
+
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acompanha quais registros do arquivo já foram confirmados pelo MongoDB e mantém o
+ * {@link ImportCheckpoint} atualizado durante a importação em blocos.
+ *
+ * Um bloco está concluído quando foi inteiramente convertido e todos os batches com
+ * documentos dele foram escritos. Como blocos e batches terminam fora de ordem (vários
+ * workers de conversão e de escrita), o checkpoint avança apenas sobre a sequência contínua
+ * de blocos concluídos a partir do início.
+ */
+public class CheckpointTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointTracker.class);
+
+    private final File file;
+    private final String[] headers;
+    private final String fingerprint;
+    private final long fileSize;
+    private final long fileModified;
+    private final long replayEnd;
+
+    private final TreeMap<Long, ChunkState> chunks = new TreeMap<>();
+    private final Map<List<Bson>, List<ChunkState>> batches = new IdentityHashMap<>();
+    private long offset;
+    private long lineNumber;
+    private long readOffset;
+    private boolean saveFailed;
+
+    /**
+     * @param file Arquivo de checkpoint
+     * @param base Cabeçalho, impressão digital e identificação do arquivo de entrada
+     * @param offset Posição do primeiro registro a importar
+     * @param lineNumber Número de linha desse registro
+     * @param replayEnd Fim dos dados lidos pela execução interrompida (0 sem retomada):
+     *                  batches com registros antes dessa posição podem já ter sido gravados
+     */
+    public CheckpointTracker(File file, ImportCheckpoint base, long offset, long lineNumber, long replayEnd) {
+        this.file = file;
+        this.headers = base.getHeaders();
+        this.fingerprint = base.getFingerprint();
+        this.fileSize = base.getFileSize();
+        this.fileModified = base.getFileModified();
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        this.readOffset = Math.max(offset, replayEnd);
+        this.replayEnd = replayEnd;
+    }
+
+    /**
+     * Registra um bloco lido, antes de ele ser entregue aos workers. O fim dos dados lidos é
+     * gravado antes que qualquer documento do bloco possa ser escrito.
+     */
+    public synchronized void register(FileChunk chunk) {
+        chunks.put(chunk.getOffset(), new ChunkState(chunk));
+        long end = chunk.getOffset() + chunk.getLength();
+        if (end > readOffset) {
+            readOffset = end;
+            save(false);
+        }
+    }
+
+    /**
+     * Registra que o batch recebeu documentos do bloco. Chamado uma vez por par batch/bloco,
+     * no primeiro documento do bloco adicionado ao batch.
+     */
+    public synchronized void track(List<Bson> batch, FileChunk chunk) {
+        ChunkState state = chunks.get(chunk.getOffset());
+        state.pendingBatches++;
+        batches.computeIfAbsent(batch, key -> new ArrayList<>(2)).add(state);
+    }
+
+    /**
+     * Registra que todos os registros do bloco foram convertidos.
+     */
+    public synchronized void chunkParsed(FileChunk chunk) {
+        chunks.get(chunk.getOffset()).parsed = true;
+        advance();
+    }
+
+    /**
+     * Registra que o batch foi escrito (documentos inseridos ou rejeitados).
+     */
+    public synchronized void acknowledge(List<Bson> batch) {
+        List<ChunkState> states = batches.remove(batch);
+        if (states == null) {
+            return;
+        }
+        for (ChunkState state : states) {
+            state.pendingBatches--;
+        }
+        advance();
+    }
+
+    /**
+     * Verifica se o batch tem registros que a execução interrompida pode já ter gravado.
+     */
+    public synchronized boolean isReplay(List<Bson> batch) {
+        List<ChunkState> states = batches.get(batch);
+        if (states == null) {
+            return false;
+        }
+        for (ChunkState state : states) {
+            if (state.offset < replayEnd) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca o arquivo como inteiramente importado.
+     */
+    public synchronized void complete() {
+        save(true);
+    }
+
+    private void advance() {
+        boolean moved = false;
+        Map.Entry<Long, ChunkState> first;
+        while ((first = chunks.firstEntry()) != null && first.getKey() == offset && first.getValue().isDone()) {
+            ChunkState state = chunks.pollFirstEntry().getValue();
+            offset += state.length;
+            lineNumber += state.recordCount;
+            moved = true;
+        }
+        if (moved) {
+            save(false);
+        }
+    }
+
+    private void save(boolean completed) {
+        try {
+            new ImportCheckpoint(headers, fingerprint, fileSize, fileModified, offset, lineNumber,
+                                 readOffset, completed).save(file);
+        } catch (IOException e) {
+            if (!saveFailed) {
+                saveFailed = true;
+                logger.warn("[WARNING] Erro ao gravar o checkpoint {}: {}. A importação continua sem ponto de retomada atualizado.",
+                          file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Situação de um bloco lido e ainda não incorporado ao checkpoint.
+     */
+    private static final class ChunkState {
+        private final long offset;
+        private final int length;
+        private final long recordCount;
+        private boolean parsed;
+        private int pendingBatches;
+
+        private ChunkState(FileChunk chunk) {
+            this.offset = chunk.getOffset();
+            this.length = chunk.getLength();
+            this.recordCount = chunk.getRecordCount();
+        }
+
+        private boolean isDone() {
+            return parsed && pendingBatches == 0;
+        }
+    }
+}
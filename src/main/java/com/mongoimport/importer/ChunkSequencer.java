@@ -0,0 +1,107 @@
+package com.mongoimport.importer;
+
+import org.bson.conversions.Bson;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reordena os batches convertidos pelos workers paralelos para que sejam entregues ao
+ * {@link BatchWriter} na ordem dos blocos no arquivo (opção de ordem de inserção preservada).
+ *
+ * Os blocos são identificados pelo deslocamento: cada bloco começa onde o anterior termina.
+ * O número de blocos em processamento é limitado por {@link #acquire()}, chamado pelo leitor
+ * antes de enfileirar cada bloco, para que blocos concluídos fora de ordem não se acumulem
+ * sem limite enquanto um bloco anterior ainda está sendo convertido. Todo bloco enfileirado
+ * precisa ser concluído com {@link #complete} ou {@link #completeAndStop}, mesmo que vazio.
+ */
+public class ChunkSequencer {
+
+    private final BatchWriter writer;
+    private final Semaphore inFlight;
+    private final Map<Long, CompletedChunk> completed = new HashMap<>();
+    private long nextOffset;
+    private long stopOffset = Long.MAX_VALUE;
+
+    /**
+     * @param writer Estágio de escrita (com um único worker, para preservar a ordem)
+     * @param firstOffset Deslocamento do primeiro bloco a ser escrito
+     * @param maxInFlight Número máximo de blocos lidos e ainda não escritos
+     */
+    public ChunkSequencer(BatchWriter writer, long firstOffset, int maxInFlight) {
+        this.writer = writer;
+        this.nextOffset = firstOffset;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Reserva espaço para mais um bloco; bloqueia enquanto houver blocos demais em processamento.
+     */
+    public void acquire() throws InterruptedException {
+        inFlight.acquire();
+    }
+
+    /**
+     * Registra os batches de um bloco convertido e escreve, em ordem, todos os blocos
+     * que estiverem prontos.
+     */
+    public synchronized void complete(FileChunk chunk, List<List<Bson>> batches) throws InterruptedException {
+        if (chunk.getOffset() > stopOffset) {
+            inFlight.release();
+            return;
+        }
+        completed.put(chunk.getOffset(), new CompletedChunk(chunk.getLength(), batches));
+
+        CompletedChunk ready;
+        while ((ready = completed.remove(nextOffset)) != null) {
+            inFlight.release();
+            try {
+                for (List<Bson> batch : ready.batches) {
+                    writer.submit(batch);
+                }
+            } catch (RuntimeException e) {
+                // Falha na escrita: nenhum bloco será mais escrito, mas todos continuam liberando espaço
+                stopOffset = -1;
+                discardPending();
+                throw e;
+            }
+            if (nextOffset == stopOffset) {
+                discardPending();
+                return;
+            }
+            nextOffset += ready.length;
+        }
+    }
+
+    /**
+     * Conclui o bloco em que a importação foi interrompida: os blocos anteriores e os batches
+     * informados ainda são escritos, os blocos seguintes são descartados.
+     */
+    public synchronized void completeAndStop(FileChunk chunk, List<List<Bson>> batches) throws InterruptedException {
+        stopOffset = Math.min(stopOffset, chunk.getOffset());
+        complete(chunk, batches);
+    }
+
+    private void discardPending() {
+        completed.keySet().removeIf(offset -> {
+            inFlight.release();
+            return true;
+        });
+        nextOffset = Long.MAX_VALUE;
+    }
+
+    /**
+     * Batches convertidos de um bloco que aguardam a vez de serem escritos.
+     */
+    private static final class CompletedChunk {
+        private final int length;
+        private final List<List<Bson>> batches;
+
+        private CompletedChunk(int length, List<List<Bson>> batches) {
+            this.length = length;
+            this.batches = batches;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.mongoimport.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Divide um arquivo delimitado em blocos de bytes alinhados a fronteiras de registro.
+ *
+ * A entrada é lida sequencialmente de um {@link ReadableByteChannel} (o FileChannel do arquivo
+ * ou o fluxo descomprimido de um arquivo .gz/.bz2). Cada bloco
+ * é varrido com a mesma máquina de estados de aspas/escape do CSVParser do OpenCSV, de modo
+ * que quebras de linha dentro de campos entre aspas nunca são usadas como ponto de corte e a
+ * contagem de registros (usada para numerar as linhas nas mensagens) permanece exata.
+ *
+ * A varredura só procura aspas, escapes, delimitadores e quebras de linha, por isso é muito
+ * mais barata que o parsing completo feito pelos workers.
+ */
+public class ChunkSplitter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+
+    private final ReadableByteChannel channel;
+    private final byte delimiter;
+    private final int chunkSize;
+
+    private long position;
+    private long nextLineNumber;
+    private byte[] carry = new byte[0];
+    private int carryLength = 0;
+    private boolean eof = false;
+
+    // Resultado da última varredura
+    private long scannedRecords;
+
+    /**
+     * @param channel Canal de entrada, já posicionado no início do primeiro registro
+     * @param startPosition Posição (em bytes) do início do primeiro registro, usada nos offsets dos blocos
+     * @param firstLineNumber Número de linha atribuído ao primeiro registro
+     * @param delimiter Delimitador de campos (deve ser um caractere ASCII)
+     * @param chunkSize Tamanho alvo de cada bloco em bytes
+     */
+    public ChunkSplitter(ReadableByteChannel channel, long startPosition, long firstLineNumber, char delimiter, int chunkSize) {
+        if (!isSplittableDelimiter(delimiter)) {
+            throw new IllegalArgumentException("Delimitador não suportado para leitura em blocos: " + delimiter);
+        }
+        this.channel = channel;
+        this.position = startPosition;
+        this.nextLineNumber = firstLineNumber;
+        this.delimiter = (byte) delimiter;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Verifica se o encoding permite localizar delimitadores, aspas e quebras de linha
+     * diretamente nos bytes (encodings compatíveis com ASCII).
+     */
+    public static boolean supportsCharset(Charset charset) {
+        String name = charset.name().toUpperCase();
+        return charset.equals(StandardCharsets.UTF_8)
+            || charset.equals(StandardCharsets.US_ASCII)
+            || name.startsWith("ISO-8859-")
+            || name.startsWith("WINDOWS-125");
+    }
+
+    public static boolean isSplittableDelimiter(char delimiter) {
+        return delimiter < 0x80 && delimiter != QUOTE && delimiter != ESCAPE
+            && delimiter != '\n' && delimiter != '\r';
+    }
+
+    /**
+     * Lê o próximo bloco de aproximadamente {@code chunkSize} bytes.
+     *
+     * @return Próximo bloco ou null ao final do arquivo
+     */
+    public FileChunk nextChunk() throws IOException {
+        return nextChunk(Long.MAX_VALUE);
+    }
+
+    /**
+     * Lê o próximo bloco contendo no máximo {@code maxRecords} registros.
+     *
+     * @return Próximo bloco ou null ao final do arquivo
+     */
+    public FileChunk nextChunk(long maxRecords) throws IOException {
+        byte[] buffer = new byte[Math.max(chunkSize, carryLength)];
+        System.arraycopy(carry, 0, buffer, 0, carryLength);
+        int filled = carryLength;
+
+        while (true) {
+            filled = fill(buffer, filled);
+            if (filled == 0 && eof) {
+                return null;
+            }
+
+            int boundary = scan(buffer, filled, maxRecords);
+            if (boundary > 0) {
+                long chunkOffset = position - filled;
+                long firstLine = nextLineNumber;
+
+                carryLength = filled - boundary;
+                carry = new byte[carryLength];
+                System.arraycopy(buffer, boundary, carry, 0, carryLength);
+                nextLineNumber += scannedRecords;
+
+                return new FileChunk(buffer, boundary, chunkOffset, firstLine, scannedRecords);
+            }
+
+            // Registro maior que o buffer: aumentar e continuar lendo
+            if (filled == buffer.length) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, filled);
+                buffer = larger;
+            }
+        }
+    }
+
+    /**
+     * Posição no arquivo do próximo byte ainda não entregue em um bloco.
+     */
+    public long getPosition() {
+        return position - carryLength;
+    }
+
+    /**
+     * Avança a leitura até {@code offset}, que deve ser o início de um registro, sem varrer os
+     * bytes intermediários. Em um {@link FileChannel} a posição é alterada diretamente; nos
+     * demais canais (ex.: arquivos comprimidos) os bytes são lidos e descartados.
+     *
+     * @param offset Posição do próximo registro, a partir de {@link #getPosition()}
+     * @param lineNumber Número de linha do registro nessa posição
+     */
+    public void skipTo(long offset, long lineNumber) throws IOException {
+        long current = getPosition();
+        if (offset < current) {
+            throw new IllegalArgumentException("Posição " + offset + " anterior à posição atual " + current);
+        }
+        nextLineNumber = lineNumber;
+        if (offset <= position) {
+            // Destino dentro dos bytes já lidos
+            int skip = (int) (offset - current);
+            carry = Arrays.copyOfRange(carry, skip, carryLength);
+            carryLength -= skip;
+            return;
+        }
+
+        carry = new byte[0];
+        carryLength = 0;
+        if (channel instanceof FileChannel fileChannel) {
+            fileChannel.position(offset);
+            position = offset;
+            eof = false;
+            return;
+        }
+        ByteBuffer discard = ByteBuffer.allocate(64 * 1024);
+        while (position < offset && !eof) {
+            discard.clear().limit((int) Math.min(discard.capacity(), offset - position));
+            int read = channel.read(discard);
+            if (read < 0) {
+                eof = true;
+            } else {
+                position += read;
+            }
+        }
+    }
+
+    private int fill(byte[] buffer, int filled) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, filled, buffer.length - filled);
+        while (target.hasRemaining() && !eof) {
+            int read = channel.read(target);
+            if (read < 0) {
+                eof = true;
+            } else {
+                position += read;
+            }
+        }
+        return target.position();
+    }
+
+    /**
+     * Varre o buffer e retorna a posição logo após o último fim de registro encontrado
+     * (ou 0 se nenhum registro completo foi encontrado). Ao final do arquivo, os bytes
+     * restantes formam o último registro.
+     */
+    private int scan(byte[] buf, int limit, long maxRecords) {
+        boolean inQuotes = false;
+        boolean inField = false;
+        int boundary = 0;
+        long records = 0;
+
+        int i = 0;
+        while (i < limit && records < maxRecords) {
+            byte c = buf[i];
+            if (c == ESCAPE) {
+                // Como no OpenCSV, o escape marca o campo como iniciado e consome
+                // o próximo caractere se ele for aspas, escape ou delimitador
+                inField = true;
+                if (i + 1 >= limit) {
+                    if (!eof) break;
+                } else if (isEscapable(buf[i + 1])) {
+                    i++;
+                }
+            } else if (c == QUOTE) {
+                if (i + 1 >= limit && !eof) {
+                    break;
+                }
+                if ((inQuotes || inField) && i + 1 < limit && buf[i + 1] == QUOTE) {
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (c == delimiter && !inQuotes) {
+                inField = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    if (i + 1 >= limit && !eof) {
+                        break;
+                    }
+                    if (i + 1 < limit && buf[i + 1] == '\n') {
+                        i++;
+                    }
+                }
+                if (!inQuotes) {
+                    inField = false;
+                    records++;
+                    boundary = i + 1;
+                }
+            } else {
+                inField = true;
+            }
+            i++;
+        }
+
+        if (eof && i >= limit && boundary < limit && records < maxRecords) {
+            records++;
+            boundary = limit;
+        }
+
+        scannedRecords = records;
+        return boundary;
+    }
+
+    private boolean isEscapable(byte c) {
+        return c == QUOTE || c == ESCAPE || c == delimiter;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mongoimport.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disjuntor compartilhado pelos workers de escrita de uma importação.
+ *
+ * Após {@code failureThreshold} falhas transitórias consecutivas o disjuntor abre: a leitura
+ * do arquivo é pausada ({@link #awaitClosed()}) e as escritas aguardam um intervalo de espera.
+ * Terminado o intervalo, uma única escrita de teste é liberada; se ela for bem-sucedida o
+ * disjuntor fecha e a importação continua, senão ele abre novamente.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_COOL_DOWN_MILLIS = 5_000;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long coolDownMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    // Leitura sem sincronização no caminho comum (disjuntor fechado)
+    private volatile boolean closed = true;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_COOL_DOWN_MILLIS);
+    }
+
+    /**
+     * @param failureThreshold Falhas transitórias consecutivas que abrem o disjuntor
+     * @param coolDownMillis Espera, com o disjuntor aberto, antes da escrita de teste
+     */
+    public CircuitBreaker(int failureThreshold, long coolDownMillis) {
+        this.failureThreshold = failureThreshold;
+        this.coolDownMillis = coolDownMillis;
+    }
+
+    /**
+     * Aguarda permissão para uma escrita. Com o disjuntor aberto, bloqueia até o fim do
+     * intervalo de espera; apenas uma escrita de teste é liberada por vez.
+     */
+    public synchronized void acquirePermission() throws InterruptedException {
+        while (true) {
+            switch (state) {
+                case CLOSED:
+                    return;
+                case OPEN:
+                    long remaining = openedAt + coolDownMillis - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        // Esta escrita é o teste de recuperação
+                        state = State.HALF_OPEN;
+                        return;
+                    }
+                    wait(remaining);
+                    break;
+                case HALF_OPEN:
+                    wait();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Registra uma escrita que chegou ao servidor (mesmo que com erros permanentes).
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            closed = true;
+            logger.info("[INFO] MongoDB respondendo novamente. Retomando a leitura.");
+            notifyAll();
+        }
+    }
+
+    /**
+     * Registra uma falha transitória (rede, eleição de primário, sobrecarga).
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                logger.warn("[WARNING] {} falhas transitórias consecutivas. Pausando a leitura até o MongoDB se recuperar.",
+                          consecutiveFailures);
+            }
+            state = State.OPEN;
+            closed = false;
+            openedAt = System.currentTimeMillis();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Fecha o disjuntor sem registrar recuperação. Chamado quando uma escrita desiste após
+     * esgotar as tentativas: a importação será interrompida e os leitores pausados precisam
+     * ser liberados para percebê-lo.
+     */
+    public synchronized void release() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Bloqueia enquanto o disjuntor não estiver fechado. Chamado pelos leitores antes de
+     * produzir mais trabalho.
+     */
+    public void awaitClosed() throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            while (state != State.CLOSED) {
+                wait();
+            }
+        }
+    }
+}
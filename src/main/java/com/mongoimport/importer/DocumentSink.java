@@ -0,0 +1,33 @@
+package com.mongoimport.importer;
+
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * Destino dos batches de documentos convertidos (opção --sink).
+ *
+ * O {@link FileImporter} lê, converte e agrupa os documentos em batches; o destino decide o
+ * que fazer com cada batch. {@link MongoDocumentSink} escreve no MongoDB e
+ * {@link NullDocumentSink} descarta os documentos, o que permite medir a leitura e a
+ * conversão isoladamente.
+ */
+public interface DocumentSink {
+
+    /**
+     * Escreve um batch. Chamado pelos workers de escrita, possivelmente ao mesmo tempo.
+     *
+     * @param batch Documentos ({@code RawBsonDocument} com --rawBson, {@code Document} nos demais casos)
+     * @param replayed Se o batch pode ter sido gravado por uma execução anterior (--resume)
+     * @return Número de documentos escritos
+     */
+    long write(List<Bson> batch, boolean replayed);
+
+    /**
+     * Reporta o resultado da importação de um arquivo.
+     *
+     * @param stats Contadores do arquivo
+     * @param elapsedNanos Duração da importação do arquivo
+     */
+    void reportSummary(ImportStats stats, long elapsedNanos);
+}
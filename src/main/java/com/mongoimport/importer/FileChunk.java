@@ -0,0 +1,31 @@
+package com.mongoimport.importer;
+
+/**
+ * Bloco de bytes de um arquivo delimitado, sempre alinhado a fronteiras de registro.
+ */
+public class FileChunk {
+    private final byte[] data;
+    private final int length;
+    private final long offset;
+    private final long firstLineNumber;
+    private final long recordCount;
+
+    public FileChunk(byte[] data, int length, long offset, long firstLineNumber, long recordCount) {
+        this.data = data;
+        this.length = length;
+        this.offset = offset;
+        this.firstLineNumber = firstLineNumber;
+        this.recordCount = recordCount;
+    }
+
+    public byte[] getData() { return data; }
+    public int getLength() { return length; }
+    public long getOffset() { return offset; }
+
+    /**
+     * Número da linha do primeiro registro do bloco (mesma contagem usada nas mensagens de erro).
+     */
+    public long getFirstLineNumber() { return firstLineNumber; }
+    public long getRecordCount() { return recordCount; }
+    public boolean isEmpty() { return length == 0; }
+}
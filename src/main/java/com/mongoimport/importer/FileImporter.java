@@ -1,43 +1,109 @@
 package com.mongoimport.importer;
 
 import com.mongoimport.config.ImportConfig;
+import com.mongoimport.converter.BsonSizeEstimator;
+import com.mongoimport.converter.ColumnPlan;
 import com.mongoimport.converter.DataTypeConverter;
 import com.mongoimport.converter.DocumentBuilder;
+import com.mongoimport.converter.IdGenerator;
+import com.mongoimport.converter.StringCache;
+import com.mongoimport.io.InputOpener;
 import com.mongoimport.model.DataType;
-import com.mongodb.MongoException;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
+import com.mongoimport.model.ImportMode;
+import com.mongoimport.model.ParseGrace;
+import com.mongoimport.model.ParserType;
+import com.mongoimport.model.SinkType;
+import com.mongoimport.parser.DelimitedParser;
+import com.mongoimport.parser.DelimitedRecord;
+import com.mongoimport.parser.OpenCsvRecordReader;
+import com.mongoimport.parser.RecordReader;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Classe responsável pela importação de arquivos delimitados para MongoDB.
+ * Os batches convertidos são entregues a um {@link DocumentSink} (--sink).
  */
 public class FileImporter {
     
     private static final Logger logger = LoggerFactory.getLogger(FileImporter.class);
     
     private final ImportConfig config;
-    private MongoClient mongoClient;
-    private MongoCollection<Document> collection;
+    private final ImportStats stats = new ImportStats();
+    private final DocumentSink sink;
+    private final AdaptiveBatchSizer batchSizer;
+    private final RetryPolicy retryPolicy;
     
-    public FileImporter(ImportConfig config) {
+    // Definido antes da criação dos workers da importação em blocos (null sem --checkpoint)
+    private CheckpointTracker checkpoint;
+    
+    // Início da importação do arquivo, para o resumo
+    private long startTime;
+    
+    /**
+     * @param config Configuração da importação (o arquivo é {@link ImportConfig#getInputFile()})
+     * @param collection Coleção de destino, que pode ser compartilhada entre importações paralelas
+     */
+    public FileImporter(ImportConfig config, MongoCollection<Document> collection) {
+        this(config, collection, new RetryPolicy(config.getMaxWriteRetries(), new CircuitBreaker()));
+    }
+    
+    /**
+     * @param config Configuração da importação (o arquivo é {@link ImportConfig#getInputFile()})
+     * @param collection Coleção de destino, que pode ser compartilhada entre importações paralelas
+     *                   (não usada com --sink null)
+     * @param retryPolicy Política de novas tentativas, com o disjuntor compartilhado entre os arquivos
+     */
+    public FileImporter(ImportConfig config, MongoCollection<Document> collection, RetryPolicy retryPolicy) {
+        this(config, collection, retryPolicy, null);
+    }
+    
+    /**
+     * @param config Configuração da importação (o arquivo é {@link ImportConfig#getInputFile()})
+     * @param collection Coleção de destino, que pode ser compartilhada entre importações paralelas
+     *                   (não usada com --sink null ou bson)
+     * @param retryPolicy Política de novas tentativas, com o disjuntor compartilhado entre os arquivos
+     * @param sharedSink Destino compartilhado entre os arquivos da importação (obrigatório com
+     *                   --sink bson), ou null para usar um destino próprio do arquivo
+     */
+    public FileImporter(ImportConfig config, MongoCollection<Document> collection, RetryPolicy retryPolicy,
+                        DocumentSink sharedSink) {
         this.config = config;
+        this.retryPolicy = retryPolicy;
+        if (sharedSink != null) {
+            this.sink = sharedSink;
+        } else if (config.getSinkType() == SinkType.BSON) {
+            throw new IllegalArgumentException("O destino bson deve ser compartilhado entre os arquivos da importação");
+        } else {
+            this.sink = config.getSinkType() == SinkType.NULL ? new NullDocumentSink()
+                : new MongoDocumentSink(config, collection, stats, retryPolicy);
+        }
+        this.batchSizer = config.isAdaptiveBatch()
+            ? new AdaptiveBatchSizer(config.getBatchSize(), config.getMaxBatchBytes()) : null;
     }
     
     /**
@@ -46,275 +112,778 @@ public class FileImporter {
      * @return true se a importação foi bem-sucedida
      */
     public boolean importFile() {
+        startTime = System.nanoTime();
         try {
-            // Conectar ao MongoDB
-            if (!connectToMongoDB()) {
-                return false;
-            }
-            
-            // Dropar coleção se solicitado
-            if (config.shouldDropCollection()) {
-                logger.info("[INFO] Dropando coleção '{}.{}'...", config.getDatabase(), config.getCollection());
-                collection.drop();
-                logger.info("[INFO] Coleção dropada com sucesso.");
-            }
-            
-            // Processar arquivo
             return processFile();
-            
         } catch (Exception e) {
             logger.error("[FATAL] Erro durante a importação: {}", e.getMessage(), e);
             return false;
-        } finally {
-            // Fechar conexão
-            if (mongoClient != null) {
-                mongoClient.close();
-                logger.info("[INFO] Conexão com MongoDB fechada.");
-            }
         }
     }
     
     /**
-     * Conecta ao MongoDB e configura a coleção.
+     * @return Contadores de documentos inseridos e ignorados deste arquivo
      */
-    private boolean connectToMongoDB() {
-        try {
-            logger.info("[INFO] Conectando ao MongoDB em: {}", config.getUri());
-            mongoClient = MongoClients.create(config.getUri());
-            
-            // Testar conexão
-            mongoClient.getDatabase("admin").runCommand(new Document("ping", 1));
-            logger.info("[INFO] Conexão com MongoDB estabelecida com sucesso.");
-            
-            // Configurar database e collection
-            MongoDatabase database = mongoClient.getDatabase(config.getDatabase());
-            collection = database.getCollection(config.getCollection());
-            
-            return true;
-            
-        } catch (MongoException e) {
-            logger.error("[FATAL] Erro ao conectar ao MongoDB: {}", e.getMessage());
-            return false;
-        }
+    public ImportStats getStats() {
+        return stats;
     }
     
     /**
      * Processa o arquivo e importa os dados.
+     * 
+     * Leitura e conversão são feitas nesta thread; os batches são inseridos pelos workers
+     * de escrita, de modo que o parsing continua enquanto um batch está no servidor.
      */
     private boolean processFile() {
-        try (FileInputStream fis = new FileInputStream(config.getInputFile());
+        boolean wantsChunks = config.getNumParseWorkers() > 1 || config.getParserType() != ParserType.OPENCSV
+            || config.shouldCheckpoint();
+        if (wantsChunks && canReadInChunks()) {
+            return processFileInChunks();
+        }
+        if (config.shouldCheckpoint()) {
+            logger.warn("[WARNING] Checkpoint indisponível na leitura sequencial: a importação não poderá ser retomada.");
+        }
+        
+        try (InputStream fis = InputOpener.openStream(config.getInputFile(), config.getNumParseWorkers(),
+                                                         config.getReadAheadBytes());
              InputStreamReader isr = new InputStreamReader(fis, Charset.forName(config.getEncoding()));
-             CSVReader csvReader = new CSVReaderBuilder(isr)
-                 .withCSVParser(new com.opencsv.CSVParserBuilder()
-                     .withSeparator(config.getDelimiter())
-                     .withQuoteChar('"')
-                     .withEscapeChar('\\')
-                     .build())
-                 .build()) {
+             RecordReader recordReader = new OpenCsvRecordReader(isr, config.getDelimiter())) {
             
-            logger.info("[INFO] Iniciando processamento do arquivo: {}", config.getInputFile().getName());
+            logger.info("[INFO] Iniciando processamento do arquivo: {}", InputOpener.displayName(config.getInputFile()));
             
             String[] headers = null;
-            int expectedFieldCount = 0;
+            ColumnPlan plan = null;
             
             // Ler cabeçalho ou inferir campos
             if (config.hasHeaderline()) {
-                headers = csvReader.readNext();
-                if (headers == null) {
+                DelimitedRecord headerRecord = recordReader.next();
+                if (headerRecord == null) {
                     logger.error("[ERROR] Arquivo vazio ou sem cabeçalho válido.");
                     return false;
                 }
-                expectedFieldCount = headers.length;
-                logger.debug("[DEBUG] Cabeçalho encontrado: {}", Arrays.toString(headers));
-                logger.debug("[DEBUG] Número de campos esperado: {}", expectedFieldCount);
-                
-                // Validar e analisar estrutura de subdocumentos
-                if (!DocumentBuilder.validateHeaderStructure(headers)) {
-                    logger.error("[ERROR] Estrutura de headers inválida para subdocumentos.");
+                headers = headerRecord.toStringArray();
+                if (!analyzeHeaders(headers)) {
                     return false;
                 }
-                
-                // Analisar e reportar estrutura de subdocumentos
-                Map<String, Object> analysis = DocumentBuilder.analyzeHeaderStructure(headers);
-                if ((Boolean) analysis.get("hasSubdocuments")) {
-                    logger.info("[INFO] Detectados subdocumentos na estrutura:");
-                    logger.info("[INFO]   - Total de campos: {}", analysis.get("totalFields"));
-                    logger.info("[INFO]   - Campos simples: {}", analysis.get("simpleFields"));
-                    logger.info("[INFO]   - Campos aninhados: {}", analysis.get("nestedFields"));
-                    logger.info("[INFO]   - Profundidade máxima: {}", analysis.get("maxDepth"));
-                } else {
-                    logger.info("[INFO] Estrutura simples detectada (sem subdocumentos).");
-                }
+                plan = compilePlan(headers);
             }
             
-            List<Document> batch = new ArrayList<>();
-            long totalInserted = 0;
-            long skippedCount = 0;
-            long lineNumber = config.hasHeaderline() ? 1 : 0;
-            
-            String[] record;
-            while ((record = csvReader.readNext()) != null) {
-                lineNumber++;
+            boolean stopped = false;
+            BatchWriter writer = newBatchWriter();
+            try {
+                List<Bson> batch = newBatch();
+                long batchBytes = 0;
+                long lineNumber = config.hasHeaderline() ? 1 : 0;
                 
-                try {
+                DelimitedRecord record;
+                while ((record = recordReader.next()) != null) {
+                    lineNumber++;
+                    
                     // Se não temos cabeçalho, inferir da primeira linha
                     if (headers == null) {
-                        expectedFieldCount = record.length;
-                        headers = generateFieldNames(expectedFieldCount);
-                        logger.debug("[DEBUG] Cabeçalho inferido: {}", Arrays.toString(headers));
-                        logger.debug("[DEBUG] Número de campos inferido: {}", expectedFieldCount);
+                        headers = inferHeaders(record.size());
+                        plan = compilePlan(headers);
                     }
                     
-                    // Validar número de campos
-                    if (record.length != expectedFieldCount) {
-                        logger.warn("[WARNING] Linha {} com inconsistência de campos ({} vs {}). Ignorando: {}", 
-                                  lineNumber, record.length, expectedFieldCount, Arrays.toString(record));
-                        skippedCount++;
-                        continue;
+                    RecordOutcome outcome = processRecord(plan, record, lineNumber, batch, stats);
+                    if (outcome == RecordOutcome.STOP) {
+                        stopped = true;
+                        break;
                     }
-                    
-                    // Converter registro para documento
-                    Document document = convertRecordToDocument(headers, record, lineNumber);
-                    if (document != null) {
-                        batch.add(document);
-                    } else {
-                        skippedCount++;
-                        continue;
+                    if (outcome == RecordOutcome.ACCEPTED) {
+                        batchBytes += lastDocumentBytes(batch);
                     }
                     
-                    // Inserir batch quando atingir o tamanho configurado
-                    if (batch.size() >= config.getBatchSize()) {
-                        insertBatch(batch);
-                        totalInserted += batch.size();
-                        logger.info("[PROGRESS] Inseridos {} documentos até agora. (Batch de {})", 
-                                  totalInserted, batch.size());
-                        batch.clear();
+                    // Entregar o batch aos workers de escrita ao atingir o tamanho configurado
+                    if (isBatchFull(batch, batchBytes)) {
+                        // Com o MongoDB instável, a leitura pausa em vez de acumular batches
+                        retryPolicy.getCircuitBreaker().awaitClosed();
+                        writer.submit(batch);
+                        batch = newBatch();
+                        batchBytes = 0;
                     }
-                    
-                } catch (DataTypeConverter.ConversionException e) {
-                    if (config.getParseGrace().equalsIgnoreCase("skiprow")) {
-                        logger.warn("[WARNING] Pulando linha {} devido a erro de conversão: {}", 
-                                  lineNumber, e.getMessage());
-                        skippedCount++;
-                        continue;
-                    } else if (config.getParseGrace().equalsIgnoreCase("stop")) {
-                        logger.error("[ERROR] Parando importação na linha {} devido a erro: {}", 
-                                   lineNumber, e.getMessage());
-                        return false;
+                }
+                
+                // Batch final
+                if (!stopped && !batch.isEmpty()) {
+                    writer.submit(batch);
+                }
+            } finally {
+                // Aguarda a escrita dos batches já entregues
+                writer.finish();
+            }
+            
+            if (stopped) {
+                return false;
+            }
+            reportSummary(stats);
+            reportStringCaches(plan);
+            return true;
+            
+        } catch (IOException e) {
+            logger.error("[FATAL] Erro ao processar arquivo: {}", e.getMessage(), e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("[FATAL] Processamento interrompido.");
+            return false;
+        } catch (IllegalStateException e) {
+            logger.error("[FATAL] {}", e.getMessage(), e.getCause());
+            return false;
+        }
+    }
+    
+    /**
+     * Lê o checkpoint de uma importação interrompida e verifica se ela pode ser retomada.
+     * 
+     * @return Checkpoint a retomar, ou null se não há checkpoint (a importação começa do início)
+     * @throws IllegalStateException se o arquivo, o cabeçalho ou as opções mudaram
+     */
+    private ImportCheckpoint loadResumePoint(File checkpointFile, ImportCheckpoint current) throws IOException {
+        ImportCheckpoint resumed = ImportCheckpoint.load(checkpointFile);
+        if (resumed == null) {
+            logger.warn("[WARNING] Checkpoint {} não encontrado. Iniciando a importação do começo.", checkpointFile);
+            return null;
+        }
+        String problem = resumed.validate(current.getHeaders(), current.getFingerprint(),
+                                          current.getFileSize(), current.getFileModified());
+        if (problem != null) {
+            throw new IllegalStateException("Não é possível retomar a partir de " + checkpointFile + ": " + problem);
+        }
+        return resumed;
+    }
+    
+    /**
+     * Cria o estágio de escrita do arquivo. Com ordem de inserção preservada há um único worker.
+     */
+    private BatchWriter newBatchWriter() {
+        int numWorkers = config.shouldMaintainInsertionOrder() ? 1 : config.getNumInsertionWorkers();
+        return new BatchWriter(numWorkers, this::writeBatch);
+    }
+    
+    /**
+     * Verifica se o arquivo pode ser lido em blocos de bytes (parser de bytes ou workers paralelos).
+     */
+    private boolean canReadInChunks() {
+        if (!ChunkSplitter.supportsCharset(Charset.forName(config.getEncoding()))) {
+            logger.warn("[WARNING] Encoding {} não suporta leitura em blocos. Usando leitura sequencial com OpenCSV.", 
+                      config.getEncoding());
+            return false;
+        }
+        if (!ChunkSplitter.isSplittableDelimiter(config.getDelimiter())) {
+            logger.warn("[WARNING] Delimitador '{}' não suporta leitura em blocos. Usando leitura sequencial com OpenCSV.", 
+                      config.getDelimiter());
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Processa o arquivo em blocos: uma thread lê blocos alinhados a fronteiras de registro,
+     * {@code numParseWorkers} threads fazem parsing e conversão de cada bloco e os workers
+     * de escrita inserem os batches. Com mais de um worker de parsing a ordem de inserção
+     * entre blocos só é preservada com {@code maintainInsertionOrder}.
+     */
+    private boolean processFileInChunks() {
+        Charset charset = Charset.forName(config.getEncoding());
+        int numWorkers = config.getNumParseWorkers();
+        
+        try (ReadableByteChannel channel = InputOpener.openChannel(config.getInputFile(), numWorkers,
+                                                                         config.getReadAheadBytes())) {
+            logger.info("[INFO] Iniciando processamento do arquivo: {} (parser {}, {} workers)", 
+                      InputOpener.displayName(config.getInputFile()), config.getParserType(), numWorkers);
+            
+            ChunkSplitter splitter = new ChunkSplitter(channel, 0, 1, config.getDelimiter(), 
+                                                       ChunkSplitter.DEFAULT_CHUNK_SIZE);
+            
+            // O primeiro registro é lido isoladamente: é o cabeçalho ou define o número de campos
+            // (o parser de bytes altera o buffer, por isso a leitura é feita sobre uma cópia)
+            FileChunk firstChunk = splitter.nextChunk(1);
+            String[] firstRecord = null;
+            if (firstChunk != null) {
+                FileChunk copy = new FileChunk(Arrays.copyOf(firstChunk.getData(), firstChunk.getLength()),
+                    firstChunk.getLength(), firstChunk.getOffset(), firstChunk.getFirstLineNumber(), 1);
+                try (RecordReader reader = openChunk(copy, charset)) {
+                    DelimitedRecord record = reader.next();
+                    firstRecord = record != null ? record.toStringArray() : null;
+                }
+            }
+            String[] headers;
+            FileChunk pendingChunk = null;
+            if (config.hasHeaderline()) {
+                if (firstRecord == null) {
+                    logger.error("[ERROR] Arquivo vazio ou sem cabeçalho válido.");
+                    return false;
+                }
+                headers = firstRecord;
+                if (!analyzeHeaders(headers)) {
+                    return false;
+                }
+            } else {
+                if (firstRecord == null) {
+                    reportSummary(stats);
+                    return true;
+                }
+                headers = inferHeaders(firstRecord.length);
+                pendingChunk = firstChunk;
+            }
+            ColumnPlan plan = compilePlan(headers);
+            
+            // Checkpoint: com --resume, a leitura continua no primeiro registro não confirmado
+            if (config.shouldCheckpoint()) {
+                long startOffset = pendingChunk != null ? pendingChunk.getOffset() : splitter.getPosition();
+                long startLine = pendingChunk != null ? pendingChunk.getFirstLineNumber()
+                    : firstChunk.getFirstLineNumber() + firstChunk.getRecordCount();
+                File input = config.getInputFile();
+                if (!InputOpener.isRegularFile(input)) {
+                    logger.warn("[WARNING] Checkpoint indisponível para {}: a entrada não pode ser relida.",
+                              InputOpener.displayName(input));
+                } else {
+                    File checkpointFile = ImportCheckpoint.fileFor(input);
+                    ImportCheckpoint base = new ImportCheckpoint(headers, ImportCheckpoint.fingerprint(config),
+                        input.length(), input.lastModified(), startOffset, startLine, startOffset, false);
+                    ImportCheckpoint resumed = config.shouldResume() ? loadResumePoint(checkpointFile, base) : null;
+                    long replayEnd = 0;
+                    if (resumed != null) {
+                        if (resumed.isCompleted()) {
+                            logger.info("[SUCCESS] Arquivo já importado segundo o checkpoint {}.", checkpointFile);
+                            return true;
+                        }
+                        if (resumed.getOffset() > startOffset) {
+                            pendingChunk = null;
+                            splitter.skipTo(resumed.getOffset(), resumed.getLineNumber());
+                            startOffset = resumed.getOffset();
+                            startLine = resumed.getLineNumber();
+                        }
+                        replayEnd = resumed.getReadOffset();
+                        logger.info("[INFO] Retomando a importação na linha {} (byte {}).", startLine, startOffset);
+                        if (config.getImportMode() == ImportMode.INSERT && !hasField(headers, "_id") && plan.getIdGenerator() == null
+                            && replayEnd > startOffset) {
+                            logger.warn("[WARNING] Sem coluna _id, documentos gravados após o checkpoint (bytes {} a {}) "
+                                      + "antes da interrupção serão inseridos novamente.", startOffset, replayEnd);
+                        }
+                    }
+                    checkpoint = new CheckpointTracker(checkpointFile, base, startOffset, startLine, replayEnd);
+                    logger.info("[INFO] Checkpoint gravado em {}", checkpointFile);
+                }
+            }
+            
+            AtomicBoolean stopRequested = new AtomicBoolean(false);
+            BlockingQueue<FileChunk> queue = new ArrayBlockingQueue<>(numWorkers * 2);
+            FileChunk endOfInput = new FileChunk(new byte[0], 0, -1, -1, 0);
+            
+            BatchWriter writer = newBatchWriter();
+            ChunkSequencer sequencer = null;
+            if (config.shouldMaintainInsertionOrder()) {
+                long firstOffset = pendingChunk != null ? pendingChunk.getOffset() : splitter.getPosition();
+                sequencer = new ChunkSequencer(writer, firstOffset, numWorkers * 4);
+            }
+            ChunkSequencer chunkSequencer = sequencer;
+            
+            // Os workers herdam o contexto de log (nome do arquivo quando há vários arquivos)
+            Map<String, String> logContext = MDC.getCopyOfContextMap();
+            ExecutorService workers = Executors.newFixedThreadPool(numWorkers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numWorkers; i++) {
+                futures.add(workers.submit(() -> {
+                    if (logContext != null) {
+                        MDC.setContextMap(logContext);
+                    }
+                    try {
+                        runChunkWorker(queue, endOfInput, plan, charset, writer, chunkSequencer, stopRequested);
+                    } finally {
+                        MDC.clear();
                     }
-                } catch (Exception e) {
-                    logger.warn("[WARNING] Erro inesperado na linha {}: {}. Pulando linha.", 
-                              lineNumber, e.getMessage());
-                    skippedCount++;
+                }));
+            }
+            
+            try {
+                if (pendingChunk != null) {
+                    enqueueChunk(queue, pendingChunk, sequencer);
                 }
+                FileChunk chunk;
+                while (!stopRequested.get() && (chunk = splitter.nextChunk()) != null) {
+                    enqueueChunk(queue, chunk, sequencer);
+                }
+            } finally {
+                for (int i = 0; i < numWorkers; i++) {
+                    queue.put(endOfInput);
+                }
+                workers.shutdown();
+                
+                // Os workers de conversão terminam antes do estágio de escrita
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                writer.finish();
             }
             
-            // Inserir batch final
-            if (!batch.isEmpty()) {
-                insertBatch(batch);
-                totalInserted += batch.size();
-                logger.info("[INFO] Inseridos {} documentos no total. (Lote final de {})", 
-                          totalInserted, batch.size());
+            for (Future<?> future : futures) {
+                future.get();
             }
             
-            // Relatório final
-            logger.info("\n[SUCCESS] Importação concluída. Total de documentos inseridos: {}", totalInserted);
-            if (skippedCount > 0) {
-                logger.warn("[WARNING] Total de documentos ignorados: {}", skippedCount);
+            if (stopRequested.get()) {
+                return false;
             }
             
+            if (checkpoint != null) {
+                checkpoint.complete();
+            }
+            reportSummary(stats);
+            reportStringCaches(plan);
             return true;
             
-        } catch (IOException | CsvException e) {
+        } catch (IOException e) {
             logger.error("[FATAL] Erro ao processar arquivo: {}", e.getMessage(), e);
             return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("[FATAL] Processamento paralelo interrompido.");
+            return false;
+        } catch (ExecutionException e) {
+            logger.error("[FATAL] Erro em worker de processamento: {}", e.getCause().getMessage(), e.getCause());
+            return false;
+        } catch (IllegalStateException e) {
+            logger.error("[FATAL] {}", e.getMessage(), e.getCause());
+            return false;
         }
     }
     
-    /**
-     * Gera nomes de campos quando não há cabeçalho.
-     */
-    private String[] generateFieldNames(int fieldCount) {
-        String[] fieldNames = new String[fieldCount];
-        for (int i = 0; i < fieldCount; i++) {
-            fieldNames[i] = "field_" + (i + 1);
+    private void enqueueChunk(BlockingQueue<FileChunk> queue, FileChunk chunk, ChunkSequencer sequencer)
+            throws InterruptedException {
+        retryPolicy.getCircuitBreaker().awaitClosed();
+        if (sequencer != null) {
+            sequencer.acquire();
         }
-        return fieldNames;
+        if (checkpoint != null) {
+            checkpoint.register(chunk);
+        }
+        queue.put(chunk);
     }
     
     /**
-     * Converte um registro (array de strings) para um Document do MongoDB.
+     * Loop de um worker paralelo: consome blocos da fila até receber o marcador de fim.
+     * Sem ordem preservada, cada worker mantém seu próprio batch entre blocos e o entrega
+     * diretamente ao escritor; com ordem preservada, os batches de cada bloco são entregues
+     * juntos ao {@link ChunkSequencer}.
      */
-    private Document convertRecordToDocument(String[] headers, String[] record, long lineNumber) {
+    private void runChunkWorker(BlockingQueue<FileChunk> queue, FileChunk endOfInput, ColumnPlan plan,
+                                Charset charset, BatchWriter writer, ChunkSequencer sequencer,
+                                AtomicBoolean stopRequested) {
+        List<Bson> batch = newBatch();
+        long batchBytes = 0;
         try {
-            // Converter valores para os tipos apropriados
-            Object[] convertedValues = new Object[headers.length];
-            
-            for (int i = 0; i < headers.length; i++) {
-                String fieldName = headers[i];
-                String fieldValue = record[i];
+            FileChunk chunk;
+            while ((chunk = queue.take()) != endOfInput) {
+                if (stopRequested.get()) {
+                    if (sequencer != null) {
+                        completeChunk(sequencer, chunk, List.of(), false, stopRequested);
+                    }
+                    continue;
+                }
                 
-                // Obter tipo configurado para este campo (usar nome base para tipos)
-                String baseFieldName = getBaseFieldName(fieldName);
-                DataType dataType = config.getColumnType(baseFieldName);
+                List<List<Bson>> chunkBatches = sequencer != null ? new ArrayList<>() : null;
+                boolean stopped = false;
+                // Se o batch atual já recebeu documentos deste bloco (checkpoint)
+                boolean tracked = false;
+                try (RecordReader recordReader = openChunk(chunk, charset)) {
+                    long lineNumber = chunk.getFirstLineNumber() - 1;
+                    DelimitedRecord record;
+                    while ((record = recordReader.next()) != null) {
+                        lineNumber++;
+                        
+                        RecordOutcome outcome = processRecord(plan, record, lineNumber, batch, stats);
+                        if (outcome == RecordOutcome.STOP) {
+                            stopped = true;
+                            break;
+                        }
+                        if (outcome == RecordOutcome.ACCEPTED) {
+                            batchBytes += lastDocumentBytes(batch);
+                            if (checkpoint != null && !tracked) {
+                                checkpoint.track(batch, chunk);
+                                tracked = true;
+                            }
+                        }
+                        
+                        if (isBatchFull(batch, batchBytes)) {
+                            if (chunkBatches != null) {
+                                chunkBatches.add(batch);
+                            } else if (!submitBatch(writer, batch, stopRequested)) {
+                                stopped = true;
+                                break;
+                            }
+                            batch = newBatch();
+                            batchBytes = 0;
+                            tracked = false;
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.error("[FATAL] Erro ao processar bloco iniciado na linha {}: {}", 
+                               chunk.getFirstLineNumber(), e.getMessage(), e);
+                    stopped = true;
+                }
                 
-                // Converter valor
-                Object convertedValue = DataTypeConverter.convertValue(fieldValue, dataType, config.getParseGrace());
+                if (!stopped && checkpoint != null) {
+                    checkpoint.chunkParsed(chunk);
+                }
                 
-                // Adicionar ao array (pular campos null se skipField)
-                if (convertedValue != null || !config.getParseGrace().equalsIgnoreCase("skipfield")) {
-                    convertedValues[i] = convertedValue;
-                } else {
-                    convertedValues[i] = null;
+                if (stopped) {
+                    stopRequested.set(true);
+                }
+                if (sequencer != null) {
+                    // O batch parcial do bloco é escrito junto com o bloco
+                    if (!stopped && !batch.isEmpty()) {
+                        chunkBatches.add(batch);
+                    }
+                    batch = newBatch();
+                    batchBytes = 0;
+                    completeChunk(sequencer, chunk, chunkBatches, stopped, stopRequested);
+                } else if (checkpoint != null && !stopped && !batch.isEmpty()) {
+                    // Com checkpoint o batch parcial não passa ao próximo bloco, que pode demorar a
+                    // completá-lo: o bloco só entra no checkpoint depois que todos os seus batches são escritos
+                    submitBatch(writer, batch, stopRequested);
+                    batch = newBatch();
+                    batchBytes = 0;
                 }
             }
             
-            // Usar DocumentBuilder para criar documento com subdocumentos
-            return DocumentBuilder.buildDocument(headers, convertedValues);
+            if (!batch.isEmpty() && !stopRequested.get()) {
+                submitBatch(writer, batch, stopRequested);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopRequested.set(true);
+        }
+    }
+    
+    /**
+     * Entrega um batch ao escritor; uma falha de escrita interrompe a importação. O worker
+     * continua consumindo a fila (descartando os blocos), para que o leitor não fique bloqueado.
+     * 
+     * @return false se o escritor falhou
+     */
+    private boolean submitBatch(BatchWriter writer, List<Bson> batch, AtomicBoolean stopRequested)
+            throws InterruptedException {
+        try {
+            writer.submit(batch);
+            return true;
+        } catch (IllegalStateException e) {
+            if (!stopRequested.getAndSet(true)) {
+                logger.error("[FATAL] {}", e.getMessage(), e.getCause());
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Entrega os batches de um bloco ao sequenciador; uma falha de escrita interrompe a importação.
+     */
+    private void completeChunk(ChunkSequencer sequencer, FileChunk chunk, List<List<Bson>> batches,
+                               boolean stopped, AtomicBoolean stopRequested) throws InterruptedException {
+        try {
+            if (stopped) {
+                sequencer.completeAndStop(chunk, batches);
+            } else {
+                sequencer.complete(chunk, batches);
+            }
+        } catch (IllegalStateException e) {
+            if (!stopRequested.getAndSet(true)) {
+                logger.error("[FATAL] {}", e.getMessage(), e.getCause());
+            }
+        }
+    }
+    
+    /**
+     * Abre um leitor de registros sobre um bloco, de acordo com o parser configurado.
+     */
+    private RecordReader openChunk(FileChunk chunk, Charset charset) {
+        if (config.getParserType() == ParserType.OPENCSV) {
+            return new OpenCsvRecordReader(new InputStreamReader(
+                new ByteArrayInputStream(chunk.getData(), 0, chunk.getLength()), charset), config.getDelimiter());
+        }
+        DelimitedParser parser = new DelimitedParser(config.getDelimiter(), charset, config.getParserType());
+        parser.reset(chunk.getData(), 0, chunk.getLength());
+        return parser;
+    }
+    
+    /**
+     * Valida e reporta a estrutura de subdocumentos do cabeçalho.
+     */
+    private boolean analyzeHeaders(String[] headers) {
+        logger.debug("[DEBUG] Cabeçalho encontrado: {}", Arrays.toString(headers));
+        logger.debug("[DEBUG] Número de campos esperado: {}", headers.length);
+        
+        // Validar e analisar estrutura de subdocumentos
+        if (!DocumentBuilder.validateHeaderStructure(headers)) {
+            logger.error("[ERROR] Estrutura de headers inválida para subdocumentos.");
+            return false;
+        }
+        
+        // Colunas do _id derivado (--idFields)
+        if (!config.getIdFields().isEmpty()) {
+            try {
+                IdGenerator.compile(headers, config.getIdFields(), config.getIdMode());
+            } catch (IllegalArgumentException e) {
+                logger.error("[ERROR] {}", e.getMessage());
+                return false;
+            }
+            logger.info("[INFO] _id derivado dos campos {} (modo {}).", config.getIdFields(),
+                      config.getIdMode().name().toLowerCase());
+        }
+        
+        // Campos de chave dos modos upsert, merge e delete precisam existir no arquivo
+        if (config.getImportMode() != ImportMode.INSERT) {
+            for (String keyField : config.getUpsertFields()) {
+                boolean derivedId = keyField.equals("_id") && !config.getIdFields().isEmpty();
+                if (!derivedId && !hasField(headers, keyField)) {
+                    logger.error("[ERROR] Campo de chave '{}' não encontrado no cabeçalho.", keyField);
+                    return false;
+                }
+            }
+        }
+        
+        // Analisar e reportar estrutura de subdocumentos
+        Map<String, Object> analysis = DocumentBuilder.analyzeHeaderStructure(headers);
+        if ((Boolean) analysis.get("hasSubdocuments")) {
+            logger.info("[INFO] Detectados subdocumentos na estrutura:");
+            logger.info("[INFO]   - Total de campos: {}", analysis.get("totalFields"));
+            logger.info("[INFO]   - Campos simples: {}", analysis.get("simpleFields"));
+            logger.info("[INFO]   - Campos aninhados: {}", analysis.get("nestedFields"));
+            logger.info("[INFO]   - Profundidade máxima: {}", analysis.get("maxDepth"));
+        } else {
+            logger.info("[INFO] Estrutura simples detectada (sem subdocumentos).");
+        }
+        return true;
+    }
+    
+    /**
+     * Verifica se o campo é uma coluna do cabeçalho ou um subdocumento formado por colunas.
+     */
+    private static boolean hasField(String[] headers, String field) {
+        for (String header : headers) {
+            if (header.equals(field) || header.startsWith(field + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compila o plano de conversão do cabeçalho, usado por todas as linhas do arquivo.
+     * Com --inferTypes, os tipos inferidos por amostragem completam os tipos configurados.
+     */
+    private ColumnPlan compilePlan(String[] headers) {
+        Map<String, DataType> columnTypes = config.getColumnTypes();
+        if (config.getInferTypes() > 0) {
+            Map<String, DataType> inferred = new TypeInferrer(config).infer(headers);
+            inferred.putAll(columnTypes);
+            columnTypes = inferred;
+            logger.info("[INFO] Tipos das colunas: --columnsHaveTypes \"{}\"",
+                      TypeInferrer.formatColumnTypes(headers, columnTypes, config.getColumnDateFormats()));
+        }
+        return ColumnPlan.compile(headers, columnTypes, config.getColumnDateFormats(), config.getParseGrace(),
+                                  config.getIdFields(), config.getIdMode());
+    }
+    
+    private String[] inferHeaders(int fieldCount) {
+        String[] headers = generateFieldNames(fieldCount);
+        logger.debug("[DEBUG] Cabeçalho inferido: {}", Arrays.toString(headers));
+        logger.debug("[DEBUG] Número de campos inferido: {}", headers.length);
+        return headers;
+    }
+    
+    /**
+     * Resultado do processamento de um registro.
+     */
+    private enum RecordOutcome { ACCEPTED, SKIPPED, STOP }
+    
+    /**
+     * Valida e converte um registro, adicionando o documento ao batch.
+     * Seguro para uso concorrente desde que cada thread use seu próprio batch.
+     */
+    private RecordOutcome processRecord(ColumnPlan plan, DelimitedRecord record, long lineNumber,
+                                        List<Bson> batch, ImportStats stats) {
+        try {
+            // Validar número de campos
+            if (record.size() != plan.size()) {
+                logger.warn("[WARNING] Linha {} com inconsistência de campos ({} vs {}). Ignorando: {}", 
+                          lineNumber, record.size(), plan.size(), Arrays.toString(record.toStringArray()));
+                stats.incrementSkipped();
+                return RecordOutcome.SKIPPED;
+            }
+            
+            // Converter registro para documento
+            Bson document = convertRecordToDocument(plan, record, lineNumber);
+            if (document == null) {
+                stats.incrementSkipped();
+                return RecordOutcome.SKIPPED;
+            }
+            batch.add(document);
+            return RecordOutcome.ACCEPTED;
             
         } catch (DataTypeConverter.ConversionException e) {
-            // Re-lançar para tratamento no nível superior
-            throw e;
+            if (plan.getParseGrace() == ParseGrace.SKIP_ROW) {
+                logger.warn("[WARNING] Pulando linha {} devido a erro de conversão: {}", 
+                          lineNumber, e.getMessage());
+                stats.incrementSkipped();
+                return RecordOutcome.SKIPPED;
+            } else if (plan.getParseGrace() == ParseGrace.STOP) {
+                logger.error("[ERROR] Parando importação na linha {} devido a erro: {}", 
+                           lineNumber, e.getMessage());
+                return RecordOutcome.STOP;
+            }
+            return RecordOutcome.SKIPPED;
         } catch (Exception e) {
-            logger.warn("[WARNING] Erro ao converter linha {}: {}. Pulando linha.", lineNumber, e.getMessage());
-            return null;
+            logger.warn("[WARNING] Erro inesperado na linha {}: {}. Pulando linha.", 
+                      lineNumber, e.getMessage());
+            stats.incrementSkipped();
+            return RecordOutcome.SKIPPED;
         }
     }
     
+    private List<Bson> newBatch() {
+        return new ArrayList<>(batchSizer != null ? batchSizer.getTargetDocuments() : config.getBatchSize());
+    }
+    
     /**
-     * Extrai o nome base do campo para configuração de tipos.
-     * Ex: "address.street" -> "address.street" (mantém completo para configuração)
+     * Tamanho BSON do documento recém-adicionado (calculado apenas no modo adaptativo).
      */
-    private String getBaseFieldName(String fieldName) {
-        return fieldName; // Manter nome completo para permitir configuração específica
+    private long lastDocumentBytes(List<Bson> batch) {
+        return batchSizer != null ? BsonSizeEstimator.estimate(batch.get(batch.size() - 1)) : 0;
+    }
+    
+    private boolean isBatchFull(List<Bson> batch, long batchBytes) {
+        if (batchSizer != null) {
+            return batchSizer.isFull(batch.size(), batchBytes);
+        }
+        return batch.size() >= config.getBatchSize();
     }
     
     /**
-     * Insere um batch de documentos no MongoDB.
+     * Escreve o batch e atualiza os contadores. Chamado pelos workers de escrita.
      */
-    private void insertBatch(List<Document> batch) {
+    private void writeBatch(List<Bson> batch) {
+        long startTime = System.nanoTime();
+        boolean replayed = checkpoint != null && checkpoint.isReplay(batch);
+        long written = sink.write(batch, replayed);
+        long elapsedNanos = System.nanoTime() - startTime;
+        long totalWritten = stats.addInserted(written);
+        if (checkpoint != null) {
+            checkpoint.acknowledge(batch);
+        }
+        
+        String verb = config.getSinkType() == SinkType.NULL ? "Descartados"
+            : config.getSinkType() == SinkType.BSON ? "Gravados"
+            : config.getImportMode() == ImportMode.INSERT ? "Inseridos" : "Processados";
+        if (batchSizer == null) {
+            logger.info("[PROGRESS] {} {} documentos até agora. (Batch de {})", verb, totalWritten, batch.size());
+            return;
+        }
+        
+        batchSizer.recordWrite(batch.size(), elapsedNanos);
+        long batchBytes = 0;
+        for (Bson document : batch) {
+            batchBytes += BsonSizeEstimator.estimate(document);
+        }
+        logger.info("[PROGRESS] {} {} documentos até agora. (Batch de {} docs / {} KB em {} ms; próximo batch: {} docs)", 
+                  verb, totalWritten, batch.size(), batchBytes / 1024, elapsedNanos / 1_000_000,
+                  batchSizer.getTargetDocuments());
+    }
+    
+    private void reportSummary(ImportStats stats) {
+        sink.reportSummary(stats, System.nanoTime() - startTime);
+        if (stats.getExisting() > 0) {
+            logger.info("[INFO] Documentos já existentes na coleção (mesmo _id): {}", stats.getExisting());
+        }
+        if (stats.getSkipped() > 0) {
+            logger.warn("[WARNING] Total de documentos ignorados: {}", stats.getSkipped());
+        }
+    }
+    
+    /**
+     * Reporta a taxa de acertos dos caches de deduplicação de strings: o total sempre e,
+     * no modo verboso, cada coluna.
+     */
+    private void reportStringCaches(ColumnPlan plan) {
+        if (plan == null) {
+            return;
+        }
+        long lookups = 0;
+        long hits = 0;
+        int active = 0;
+        int disabled = 0;
+        for (int i = 0; i < plan.size(); i++) {
+            StringCache cache = plan.converter(i).getStringCache();
+            if (cache == null || cache.getLookups() == 0) {
+                continue;
+            }
+            lookups += cache.getLookups();
+            hits += Math.round(cache.getHitRate() * cache.getLookups());
+            if (cache.isEnabled()) {
+                active++;
+            } else {
+                disabled++;
+            }
+        }
+        if (lookups == 0) {
+            return;
+        }
+        logger.info("[INFO] Cache de strings: {} colunas com deduplicação, {} desativadas, {} de acertos.",
+                  active, disabled, formatRate((double) hits / lookups));
+        
+        if (config.isVerbose()) {
+            for (int i = 0; i < plan.size(); i++) {
+                StringCache cache = plan.converter(i).getStringCache();
+                if (cache != null && cache.getLookups() > 0) {
+                    logger.info("[INFO]   - {}: {} de acertos em {} valores{}", plan.getHeaders()[i],
+                              formatRate(cache.getHitRate()), cache.getLookups(),
+                              cache.isEnabled() ? " (" + cache.size() + " distintos)" : " (desativado: alta cardinalidade)");
+                }
+            }
+        }
+    }
+    
+    private static String formatRate(double rate) {
+        return String.format("%.1f%%", rate * 100);
+    }
+    
+    /**
+     * Gera nomes de campos quando não há cabeçalho.
+     */
+    private String[] generateFieldNames(int fieldCount) {
+        String[] fieldNames = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames[i] = "field_" + (i + 1);
+        }
+        return fieldNames;
+    }
+    
+    /**
+     * Converte um registro para um Document do MongoDB (ou diretamente para BSON, com --rawBson).
+     */
+    private Bson convertRecordToDocument(ColumnPlan plan, DelimitedRecord record, long lineNumber) {
         try {
-            collection.insertMany(batch);
-        } catch (MongoException e) {
-            logger.error("[ERROR] Erro ao inserir batch: {}", e.getMessage());
+            // Converter valores com o conversor de cada coluna
+            int columns = plan.size();
+            Object[] convertedValues = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                convertedValues[i] = record.convertField(i, plan.converter(i));
+            }
             
-            // Tentar inserir documentos individualmente para identificar problemas
-            logger.info("[INFO] Tentando inserção individual dos documentos do batch...");
-            int successCount = 0;
-            for (Document doc : batch) {
-                try {
-                    collection.insertOne(doc);
-                    successCount++;
-                } catch (MongoException individualError) {
-                    logger.warn("[WARNING] Falha ao inserir documento individual: {}", 
-                              individualError.getMessage());
-                    if (config.isVerbose()) {
-                        logger.debug("[DEBUG] Documento problemático: {}", doc.toJson());
-                    }
-                }
+            // _id derivado das colunas da chave (--idFields)
+            IdGenerator idGenerator = plan.getIdGenerator();
+            Object id = idGenerator != null ? idGenerator.generate(convertedValues) : null;
+            
+            // Montar o documento (com subdocumentos) pelos caminhos compilados do cabeçalho
+            if (config.isRawBson()) {
+                return plan.getDocumentBuilder().buildRaw(convertedValues, id);
             }
-            logger.info("[INFO] Inseridos {} de {} documentos do batch individualmente.", 
-                      successCount, batch.size());
+            return plan.getDocumentBuilder().build(convertedValues, id);
+            
+        } catch (DataTypeConverter.ConversionException e) {
+            // Re-lançar para tratamento no nível superior
+            throw e;
+        } catch (Exception e) {
+            logger.warn("[WARNING] Erro ao converter linha {}: {}. Pulando linha.", lineNumber, e.getMessage());
+            return null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Ponto de retomada de uma importação (--checkpoint / --resume), gravado em JSON ao lado do
+ * arquivo de entrada ({@code <arquivo>.checkpoint}).
+ *
+ * Todos os registros antes de {@code offset} foram processados e confirmados pelo MongoDB;
+ * registros entre {@code offset} e {@code readOffset} já haviam sido lidos e podem ter sido
+ * gravados antes da interrupção. O cabeçalho, a identificação do arquivo (tamanho e data de
+ * modificação) e uma impressão digital das opções que afetam os documentos garantem que a
+ * retomada produz os mesmos documentos da importação original.
+ */
+public final class ImportCheckpoint {
+
+    private static final String SUFFIX = ".checkpoint";
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder()
+        .outputMode(JsonMode.RELAXED).indent(true).build();
+
+    private final String[] headers;
+    private final String fingerprint;
+    private final long fileSize;
+    private final long fileModified;
+    private final long offset;
+    private final long lineNumber;
+    private final long readOffset;
+    private final boolean completed;
+
+    public ImportCheckpoint(String[] headers, String fingerprint, long fileSize, long fileModified,
+                            long offset, long lineNumber, long readOffset, boolean completed) {
+        this.headers = headers;
+        this.fingerprint = fingerprint;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        this.readOffset = readOffset;
+        this.completed = completed;
+    }
+
+    /**
+     * Arquivo de checkpoint de um arquivo de entrada.
+     */
+    public static File fileFor(File inputFile) {
+        return new File(inputFile.getPath() + SUFFIX);
+    }
+
+    /**
+     * Impressão digital das opções que determinam o conteúdo dos documentos. Opções de
+     * desempenho (workers, tamanho de batch, parser) podem mudar entre a execução e a retomada.
+     */
+    public static String fingerprint(ImportConfig config) {
+        String settings = String.join("\u0000",
+            config.getDatabase(), config.getCollection(), String.valueOf(config.getDelimiter()),
+            config.getEncoding(), String.valueOf(config.hasHeaderline()),
+            new TreeMap<>(config.getColumnTypes()).toString(), new TreeMap<>(config.getColumnDateFormats()).toString(),
+            String.valueOf(config.getInferTypes()), config.getParseGrace().name(), config.getImportMode().name(),
+            String.valueOf(config.getUpsertFields()), String.valueOf(config.isRawBson()),
+            String.valueOf(config.getIdFields()), config.getIdMode().name());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(settings.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Lê um checkpoint.
+     *
+     * @return Checkpoint gravado, ou null se o arquivo não existe
+     */
+    public static ImportCheckpoint load(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        Document document = Document.parse(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+        return new ImportCheckpoint(
+            document.getList("headers", String.class).toArray(new String[0]),
+            document.getString("fingerprint"),
+            longValue(document, "fileSize"),
+            document.getDate("fileModified").getTime(),
+            longValue(document, "offset"),
+            longValue(document, "lineNumber"),
+            longValue(document, "readOffset"),
+            document.getBoolean("completed", false));
+    }
+
+    private static long longValue(Document document, String key) {
+        return ((Number) document.get(key)).longValue();
+    }
+
+    /**
+     * Grava o checkpoint substituindo o anterior de forma atômica: uma interrupção durante a
+     * gravação mantém o checkpoint anterior intacto.
+     */
+    public void save(File file) throws IOException {
+        Document document = new Document("headers", List.of(headers))
+            .append("fingerprint", fingerprint)
+            .append("fileSize", fileSize)
+            .append("fileModified", new Date(fileModified))
+            .append("offset", offset)
+            .append("lineNumber", lineNumber)
+            .append("readOffset", readOffset)
+            .append("completed", completed)
+            .append("updated", new Date());
+        Path target = file.toPath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temporary, document.toJson(JSON), StandardCharsets.UTF_8);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Verifica se a importação pode ser retomada deste checkpoint.
+     *
+     * @return Motivo pelo qual não pode, ou null se pode
+     */
+    public String validate(String[] currentHeaders, String currentFingerprint, long currentSize, long currentModified) {
+        if (!Arrays.equals(headers, currentHeaders)) {
+            return "o cabeçalho do arquivo mudou";
+        }
+        if (!fingerprint.equals(currentFingerprint)) {
+            return "as opções de importação (banco, coleção, delimitador, tipos, modo...) mudaram";
+        }
+        if (fileSize != currentSize || fileModified != currentModified) {
+            return "o arquivo foi alterado desde o checkpoint";
+        }
+        return null;
+    }
+
+    public String[] getHeaders() { return headers; }
+    public String getFingerprint() { return fingerprint; }
+    public long getFileSize() { return fileSize; }
+    public long getFileModified() { return fileModified; }
+
+    /**
+     * Posição do primeiro registro ainda não confirmado.
+     */
+    public long getOffset() { return offset; }
+
+    /**
+     * Número de linha do registro em {@link #getOffset()}.
+     */
+    public long getLineNumber() { return lineNumber; }
+
+    /**
+     * Fim dos dados já lidos: registros antes desta posição podem ter sido gravados.
+     */
+    public long getReadOffset() { return readOffset; }
+    public boolean isCompleted() { return completed; }
+}
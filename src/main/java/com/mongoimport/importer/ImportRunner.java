@@ -0,0 +1,266 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.io.InputOpener;
+import com.mongoimport.model.SinkType;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executa a importação de um ou mais arquivos para a mesma coleção.
+ *
+ * Todos os arquivos compartilham um único {@link MongoClient} (e seu pool de conexões); com
+ * --sink null ou bson não há conexão; com --sink bson o dump é compartilhado por todos os arquivos.
+ * Com {@code parallelFiles} maior que 1, vários arquivos são importados ao mesmo tempo;
+ * cada arquivo tem seu próprio cabeçalho, numeração de linhas e contadores, e ao final
+ * é apresentado um resumo agregado.
+ */
+public class ImportRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportRunner.class);
+
+    /**
+     * Chave do MDC com o prefixo de log do arquivo em processamento.
+     */
+    public static final String LOG_FILE_KEY = "file";
+
+    private final ImportConfig config;
+    private final List<File> inputFiles;
+    private MongoClient mongoClient;
+    private MongoCollection<Document> collection;
+    private BsonFileSink bsonSink;
+
+    // Compartilhada entre os arquivos: uma falha do cluster pausa todas as leituras
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * @param config Configuração comum a todos os arquivos
+     * @param inputFiles Arquivos a importar (já expandidos de diretórios e padrões glob)
+     */
+    public ImportRunner(ImportConfig config, List<File> inputFiles) {
+        this.config = config;
+        this.inputFiles = List.copyOf(inputFiles);
+        this.retryPolicy = new RetryPolicy(config.getMaxWriteRetries(), new CircuitBreaker());
+    }
+
+    /**
+     * Executa a importação de todos os arquivos.
+     *
+     * @return true se todos os arquivos foram importados com sucesso
+     */
+    public boolean run() {
+        try {
+            // Conectar ao MongoDB
+            if (config.getSinkType() == SinkType.NULL) {
+                logger.info("[INFO] Destino nulo (--sink null): os documentos são convertidos e descartados, sem MongoDB.");
+            } else if (config.getSinkType() == SinkType.BSON) {
+                bsonSink = new BsonFileSink(config);
+            } else if (!connectToMongoDB()) {
+                return false;
+            }
+
+            // Dropar coleção se solicitado (uma única vez, antes de qualquer arquivo)
+            if (config.shouldDropCollection()) {
+                logger.info("[INFO] Dropando coleção '{}.{}'...", config.getDatabase(), config.getCollection());
+                collection.drop();
+                logger.info("[INFO] Coleção dropada com sucesso.");
+            }
+
+            IndexDeferrer indexDeferrer = config.shouldDeferIndexes() ? new IndexDeferrer(mongoClient, config) : null;
+            boolean success = false;
+            try {
+                if (indexDeferrer != null) {
+                    indexDeferrer.suspend();
+                }
+                if (inputFiles.size() == 1) {
+                    success = new FileImporter(configFor(inputFiles.get(0)), collection, retryPolicy, bsonSink).importFile();
+                } else {
+                    success = importFiles();
+                }
+            } finally {
+                // Índices adiados são recriados mesmo se a importação falhar
+                if (indexDeferrer != null && !indexDeferrer.restore()) {
+                    success = false;
+                }
+                // O dump BSON é finalizado mesmo se a importação falhar (parcial, sem metadados)
+                if (bsonSink != null && !closeBsonSink(success)) {
+                    success = false;
+                }
+            }
+            return success;
+
+        } catch (Exception e) {
+            logger.error("[FATAL] Erro durante a importação: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            // Fechar conexão
+            if (mongoClient != null) {
+                mongoClient.close();
+                logger.info("[INFO] Conexão com MongoDB fechada.");
+            }
+        }
+    }
+
+    /**
+     * Grava o restante do dump BSON e, se a importação foi concluída, os metadados.
+     */
+    private boolean closeBsonSink(boolean complete) {
+        try {
+            bsonSink.close(complete);
+            return true;
+        } catch (IOException e) {
+            logger.error("[FATAL] Erro ao finalizar o dump BSON: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Conecta ao MongoDB e configura a coleção.
+     */
+    private boolean connectToMongoDB() {
+        try {
+            logger.info("[INFO] Conectando ao MongoDB em: {}", config.getUri());
+            mongoClient = MongoClients.create(config.getUri());
+
+            // Testar conexão
+            mongoClient.getDatabase("admin").runCommand(new Document("ping", 1));
+            logger.info("[INFO] Conexão com MongoDB estabelecida com sucesso.");
+
+            // Configurar database e collection
+            MongoDatabase database = mongoClient.getDatabase(config.getDatabase());
+            collection = database.getCollection(config.getCollection());
+
+            return true;
+
+        } catch (MongoException e) {
+            logger.error("[FATAL] Erro ao conectar ao MongoDB: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Importa vários arquivos com até {@code parallelFiles} arquivos simultâneos.
+     * Após a primeira falha nenhum arquivo novo é iniciado.
+     */
+    private boolean importFiles() throws InterruptedException {
+        int parallelFiles = Math.min(config.getParallelFiles(), inputFiles.size());
+        logger.info("[INFO] Importando {} arquivos ({} em paralelo).", inputFiles.size(), parallelFiles);
+
+        long startTime = System.nanoTime();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<FileImporter> importers = new ArrayList<>();
+        List<Future<FileStatus>> futures = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelFiles);
+        try {
+            for (File file : inputFiles) {
+                FileImporter importer = new FileImporter(configFor(file), collection, retryPolicy, bsonSink);
+                importers.add(importer);
+                futures.add(executor.submit(() -> importTagged(importer, file, failed)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<FileStatus> statuses = new ArrayList<>();
+        for (Future<FileStatus> future : futures) {
+            try {
+                statuses.add(future.get());
+            } catch (ExecutionException e) {
+                logger.error("[FATAL] Erro na importação de arquivo: {}", e.getCause().getMessage(), e.getCause());
+                statuses.add(FileStatus.FAILED);
+            }
+        }
+
+        reportSummary(importers, statuses, System.nanoTime() - startTime);
+        return !statuses.contains(FileStatus.FAILED) && !statuses.contains(FileStatus.NOT_STARTED);
+    }
+
+    /**
+     * Importa um arquivo com o nome do arquivo como prefixo de todas as mensagens de log.
+     */
+    private FileStatus importTagged(FileImporter importer, File file, AtomicBoolean failed) {
+        if (failed.get()) {
+            return FileStatus.NOT_STARTED;
+        }
+        MDC.put(LOG_FILE_KEY, "[" + InputOpener.displayName(file) + "] ");
+        try {
+            if (importer.importFile()) {
+                return FileStatus.COMPLETED;
+            }
+            failed.set(true);
+            return FileStatus.FAILED;
+        } finally {
+            MDC.remove(LOG_FILE_KEY);
+        }
+    }
+
+    private ImportConfig configFor(File file) {
+        return config.toBuilder().inputFile(file).build();
+    }
+
+    /**
+     * Resultado da importação de cada arquivo.
+     */
+    private enum FileStatus {
+        COMPLETED("concluído"),
+        FAILED("falha"),
+        NOT_STARTED("não iniciado");
+
+        private final String description;
+
+        FileStatus(String description) {
+            this.description = description;
+        }
+    }
+
+    private void reportSummary(List<FileImporter> importers, List<FileStatus> statuses, long elapsedNanos) {
+        long totalInserted = 0;
+        long totalSkipped = 0;
+        int completed = 0;
+
+        logger.info("\n[INFO] Resumo da importação de {} arquivos:", importers.size());
+        for (int i = 0; i < importers.size(); i++) {
+            ImportStats stats = importers.get(i).getStats();
+            FileStatus status = statuses.get(i);
+            logger.info("[INFO]   - {}: {} inseridos, {} ignorados ({})",
+                      InputOpener.displayName(inputFiles.get(i)), stats.getInserted(), stats.getSkipped(),
+                      status.description);
+            totalInserted += stats.getInserted();
+            totalSkipped += stats.getSkipped();
+            if (status == FileStatus.COMPLETED) {
+                completed++;
+            }
+        }
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long docsPerSecond = seconds > 0 ? Math.round(totalInserted / seconds) : totalInserted;
+        if (completed == importers.size()) {
+            logger.info("[SUCCESS] Total: {} documentos inseridos de {} arquivos em {} s ({} docs/s).",
+                      totalInserted, completed, String.format("%.1f", seconds), docsPerSecond);
+        } else {
+            logger.error("[ERROR] Total: {} documentos inseridos; {} de {} arquivos concluídos em {} s.",
+                       totalInserted, completed, importers.size(), String.format("%.1f", seconds));
+        }
+        if (totalSkipped > 0) {
+            logger.warn("[WARNING] Total de documentos ignorados: {}", totalSkipped);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mongoimport.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores da importação, seguros para uso por várias threads.
+ */
+public class ImportStats {
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong existing = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong modified = new AtomicLong();
+    private final AtomicLong upserted = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+
+    /**
+     * Soma documentos escritos (inseridos ou aplicados via bulkWrite) e retorna o novo total.
+     */
+    public long addInserted(long count) {
+        return inserted.addAndGet(count);
+    }
+
+    public void incrementSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * Soma documentos que já estavam na coleção (mesmo {@code _id} derivado de --idFields).
+     */
+    public void addExisting(long count) {
+        existing.addAndGet(count);
+    }
+
+    /**
+     * Soma os resultados de um bulkWrite (modos upsert, merge e delete).
+     */
+    public void addBulkResult(long matchedCount, long modifiedCount, long upsertedCount, long deletedCount) {
+        matched.addAndGet(matchedCount);
+        modified.addAndGet(modifiedCount);
+        upserted.addAndGet(upsertedCount);
+        deleted.addAndGet(deletedCount);
+    }
+
+    public long getInserted() { return inserted.get(); }
+    public long getSkipped() { return skipped.get(); }
+    public long getExisting() { return existing.get(); }
+    public long getMatched() { return matched.get(); }
+    public long getModified() { return modified.get(); }
+    public long getUpserted() { return upserted.get(); }
+    public long getDeleted() { return deleted.get(); }
+}
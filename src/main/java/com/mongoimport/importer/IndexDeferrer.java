@@ -0,0 +1,177 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.model.ImportMode;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adiamento dos índices secundários (--deferIndexes): as especificações dos índices são
+ * guardadas e os índices removidos antes da carga; ao final, todos são recriados em um único
+ * comando {@code createIndexes}, o que substitui a manutenção documento a documento por uma
+ * construção em lote.
+ *
+ * Índices únicos são mantidos durante a carga (removê-los deixaria entrar as duplicatas que
+ * eles rejeitam), assim como, nos modos upsert, merge e delete, os índices que começam por um
+ * dos campos de chave, usados para localizar cada documento.
+ */
+public class IndexDeferrer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexDeferrer.class);
+
+    private static final String ID_INDEX = "_id_";
+
+    // Intervalo entre as mensagens de progresso da reconstrução
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final MongoClient mongoClient;
+    private final MongoDatabase database;
+    private final MongoCollection<Document> collection;
+    private final ImportConfig config;
+    private final List<Document> deferred = new ArrayList<>();
+
+    /**
+     * @param mongoClient Cliente conectado (usado também para acompanhar a reconstrução)
+     * @param config Configuração com o banco, a coleção, o modo e os campos de chave
+     */
+    public IndexDeferrer(MongoClient mongoClient, ImportConfig config) {
+        this.mongoClient = mongoClient;
+        this.config = config;
+        this.database = mongoClient.getDatabase(config.getDatabase());
+        this.collection = database.getCollection(config.getCollection());
+    }
+
+    /**
+     * Guarda as especificações e remove os índices secundários que podem ser adiados.
+     * Um índice só passa a ser recriado por {@link #restore} depois de removido com sucesso.
+     */
+    public void suspend() {
+        List<Document> candidates = new ArrayList<>();
+        for (Document index : collection.listIndexes()) {
+            String name = index.getString("name");
+            if (ID_INDEX.equals(name)) {
+                continue;
+            }
+            String reason = keepReason(index);
+            if (reason != null) {
+                logger.info("[INFO] Índice '{}' mantido durante a carga ({}).", name, reason);
+                continue;
+            }
+            Document spec = new Document(index);
+            spec.remove("ns");
+            candidates.add(spec);
+        }
+
+        if (candidates.isEmpty()) {
+            logger.info("[INFO] Nenhum índice secundário a adiar.");
+            return;
+        }
+
+        logger.info("[INFO] Removendo {} índices até o fim da carga. Para recriá-los manualmente: {}",
+                  candidates.size(), createIndexesCommand(candidates).toJson());
+        for (Document spec : candidates) {
+            collection.dropIndex(spec.getString("name"));
+            deferred.add(spec);
+        }
+    }
+
+    /**
+     * Motivo para manter o índice durante a carga, ou null se ele pode ser adiado.
+     */
+    private String keepReason(Document index) {
+        if (index.getBoolean("unique", false)) {
+            return "índice único";
+        }
+        if (index.getBoolean("clustered", false)) {
+            return "índice clusterizado";
+        }
+        if (config.getImportMode() != ImportMode.INSERT) {
+            Document key = index.get("key", Document.class);
+            String firstField = key != null && !key.isEmpty() ? key.keySet().iterator().next() : null;
+            if (firstField != null && config.getUpsertFields().contains(firstField)) {
+                return "usado pelos campos de chave do modo " + config.getImportMode().name().toLowerCase();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recria os índices removidos em um único {@code createIndexes}, registrando o progresso
+     * enquanto a construção estiver em andamento. Deve ser chamado também quando a carga falha.
+     *
+     * @return true se não havia índices a recriar ou se todos foram recriados
+     */
+    public boolean restore() {
+        if (deferred.isEmpty()) {
+            return true;
+        }
+
+        Document command = createIndexesCommand(deferred);
+        logger.info("[INFO] Recriando {} índices em '{}.{}'...", deferred.size(),
+                  config.getDatabase(), config.getCollection());
+        long startTime = System.nanoTime();
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "index-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleAtFixedRate(() -> reportProgress(startTime),
+            PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        try {
+            database.runCommand(command);
+            logger.info("[SUCCESS] {} índices recriados em {} s.", deferred.size(),
+                      String.format("%.1f", (System.nanoTime() - startTime) / 1_000_000_000.0));
+            deferred.clear();
+            return true;
+        } catch (MongoException e) {
+            logger.error("[ERROR] Erro ao recriar os índices: {}. Para recriá-los manualmente: {}",
+                       e.getMessage(), command.toJson());
+            return false;
+        } finally {
+            monitor.shutdownNow();
+        }
+    }
+
+    private Document createIndexesCommand(List<Document> specs) {
+        return new Document("createIndexes", config.getCollection()).append("indexes", specs);
+    }
+
+    /**
+     * Registra o progresso da construção informado pelo {@code currentOp}. Sem permissão
+     * para o {@code currentOp}, apenas o tempo decorrido é registrado.
+     */
+    private void reportProgress(long startTime) {
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime);
+        try {
+            Document result = mongoClient.getDatabase("admin").runCommand(
+                new Document("currentOp", true).append("command.createIndexes", config.getCollection()));
+            for (Document operation : result.getList("inprog", Document.class, List.of())) {
+                Document command = operation.get("command", Document.class);
+                Document progress = operation.get("progress", Document.class);
+                if (command == null || !config.getDatabase().equals(command.getString("$db")) || progress == null) {
+                    continue;
+                }
+                long done = ((Number) progress.get("done", 0)).longValue();
+                long total = ((Number) progress.get("total", 0)).longValue();
+                logger.info("[PROGRESS] Construção de índices: {} de {} ({}%) após {} s. {}", done, total,
+                          total > 0 ? done * 100 / total : 0, elapsedSeconds, Objects.toString(operation.getString("msg"), ""));
+                return;
+            }
+        } catch (MongoException e) {
+            logger.debug("[DEBUG] currentOp indisponível: {}", e.getMessage());
+        }
+        logger.info("[PROGRESS] Construção de índices em andamento há {} s.", elapsedSeconds);
+    }
+}
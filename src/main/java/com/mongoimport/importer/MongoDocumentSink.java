@@ -0,0 +1,185 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.model.ImportMode;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BSONException;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escreve os batches em uma coleção do MongoDB: {@code insertMany} no modo insert (via
+ * {@link BatchInserter}) e {@code bulkWrite} por chave nos modos upsert, merge e delete.
+ */
+public class MongoDocumentSink implements DocumentSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoDocumentSink.class);
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final ImportConfig config;
+    private final MongoCollection<Document> collection;
+    private final ImportStats stats;
+    private final RetryPolicy retryPolicy;
+    private final WriteModelBuilder writeModelBuilder;
+    private final BatchInserter<Document> batchInserter;
+    private final BatchInserter<RawBsonDocument> rawBatchInserter;
+
+    /**
+     * @param config Configuração da importação (modo de escrita, --rawBson, --idFields)
+     * @param collection Coleção de destino, que pode ser compartilhada entre importações paralelas
+     * @param stats Contadores do arquivo
+     * @param retryPolicy Política de novas tentativas para erros transitórios
+     */
+    public MongoDocumentSink(ImportConfig config, MongoCollection<Document> collection, ImportStats stats,
+                             RetryPolicy retryPolicy) {
+        this.config = config;
+        this.collection = collection;
+        this.stats = stats;
+        this.retryPolicy = retryPolicy;
+        this.writeModelBuilder = config.getImportMode() == ImportMode.INSERT ? null
+            : new WriteModelBuilder(config.getImportMode(), config.getUpsertFields());
+        boolean derivedIds = !config.getIdFields().isEmpty();
+        this.batchInserter = config.isRawBson() ? null
+            : new BatchInserter<>(collection, stats, retryPolicy, config.isVerbose(), derivedIds);
+        this.rawBatchInserter = config.isRawBson()
+            ? new BatchInserter<>(collection.withDocumentClass(RawBsonDocument.class), stats, retryPolicy,
+                                  config.isVerbose(), derivedIds)
+            : null;
+    }
+
+    @Override
+    public long write(List<Bson> batch, boolean replayed) {
+        if (rawBatchInserter != null) {
+            return rawBatchInserter.insert(documentsOf(batch), replayed);
+        }
+        if (writeModelBuilder == null) {
+            return batchInserter.insert(documentsOf(batch), replayed);
+        }
+        return bulkWriteBatch(batch);
+    }
+
+    /**
+     * O batch contém documentos de uma única classe: {@link RawBsonDocument} com --rawBson,
+     * {@link Document} nos demais casos.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Bson> List<T> documentsOf(List<Bson> batch) {
+        return (List<T>) (List<?>) batch;
+    }
+
+    /**
+     * Aplica o batch com um bulkWrite não ordenado (modos upsert, merge e delete).
+     *
+     * @return Número de documentos aplicados com sucesso
+     */
+    private long bulkWriteBatch(List<Bson> batch) {
+        List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+        List<Document> modelDocuments = new ArrayList<>(batch.size());
+        for (Bson bson : batch) {
+            Document doc = (Document) bson;
+            WriteModel<Document> model = writeModelBuilder.build(doc);
+            if (model == null) {
+                logger.warn("[WARNING] Documento sem os campos de chave {}. Ignorando.", config.getUpsertFields());
+                if (config.isVerbose()) {
+                    logger.debug("[DEBUG] Documento problemático: {}", doc.toJson());
+                }
+                stats.incrementSkipped();
+                continue;
+            }
+            models.add(model);
+            modelDocuments.add(doc);
+        }
+        if (models.isEmpty()) {
+            return 0;
+        }
+        return bulkWrite(models, modelDocuments, true);
+    }
+
+    /**
+     * Aplica as operações com um bulkWrite não ordenado. Erros que não identificam documentos
+     * (ex.: autorização, comando rejeitado) dividem o batch ao meio até isolar as operações
+     * problemáticas, que são contadas como ignoradas.
+     *
+     * @param documents Documento de origem de cada operação, para os logs
+     * @param wholeBatch Se as operações são o batch inteiro (e não uma metade da divisão)
+     * @return Número de documentos aplicados com sucesso
+     */
+    private long bulkWrite(List<WriteModel<Document>> models, List<Document> documents, boolean wholeBatch) {
+        try {
+            // Operações por chave são idempotentes: o batch pode ser reenviado inteiro
+            addBulkResult(retryPolicy.execute("aplicar batch de " + models.size() + " documentos",
+                                              attempt -> collection.bulkWrite(models, UNORDERED)));
+            return models.size();
+        } catch (MongoBulkWriteException e) {
+            // Não ordenado: as demais operações do batch foram aplicadas
+            addBulkResult(e.getWriteResult());
+            for (BulkWriteError error : e.getWriteErrors()) {
+                reject(documents.get(error.getIndex()), error.getMessage());
+            }
+            return models.size() - e.getWriteErrors().size();
+        } catch (MongoException | BSONException e) {
+            if (RetryPolicy.isRetryable(e)) {
+                // Tentativas esgotadas: interrompe a importação em vez de descartar o batch
+                throw e;
+            }
+            if (wholeBatch) {
+                logger.warn("[WARNING] Erro ao executar bulkWrite do batch de {} documentos: {}. Dividindo o batch para isolar o problema.",
+                          models.size(), e.getMessage());
+            }
+            return bisect(models, documents, e);
+        }
+    }
+
+    /**
+     * Divide o batch ao meio e aplica cada metade, até isolar a operação que causa o erro.
+     */
+    private long bisect(List<WriteModel<Document>> models, List<Document> documents, RuntimeException e) {
+        if (models.size() == 1) {
+            reject(documents.get(0), e.getMessage());
+            return 0;
+        }
+        int middle = models.size() / 2;
+        return bulkWrite(models.subList(0, middle), documents.subList(0, middle), false)
+             + bulkWrite(models.subList(middle, models.size()), documents.subList(middle, documents.size()), false);
+    }
+
+    private void reject(Document document, String reason) {
+        logger.warn("[WARNING] Falha ao aplicar documento do batch: {}", reason);
+        if (config.isVerbose()) {
+            logger.debug("[DEBUG] Documento problemático: {}", document.toJson());
+        }
+        stats.incrementSkipped();
+    }
+
+    private void addBulkResult(BulkWriteResult result) {
+        if (result.wasAcknowledged()) {
+            stats.addBulkResult(result.getMatchedCount(), result.getModifiedCount(),
+                                result.getUpserts().size(), result.getDeletedCount());
+        }
+    }
+
+    @Override
+    public void reportSummary(ImportStats stats, long elapsedNanos) {
+        if (writeModelBuilder == null) {
+            logger.info("\n[SUCCESS] Importação concluída. Total de documentos inseridos: {}", stats.getInserted());
+        } else {
+            logger.info("\n[SUCCESS] Importação concluída no modo {}. Total de documentos processados: {}",
+                      config.getImportMode(), stats.getInserted());
+            logger.info("[INFO]   - Correspondentes: {}, modificados: {}, inseridos (upsert): {}, removidos: {}",
+                      stats.getMatched(), stats.getModified(), stats.getUpserted(), stats.getDeleted());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.converter.BsonSizeEstimator;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Descarta os documentos convertidos, contando apenas documentos e bytes (--sink null).
+ *
+ * Sem MongoDB, a duração da importação é o custo de leitura, parsing, conversão e montagem
+ * dos documentos: o resumo mostra a vazão que a máquina sustenta com o arquivo e as opções
+ * dadas. Os bytes são o tamanho BSON dos documentos (exato com --rawBson, calculado a partir
+ * dos valores nos demais casos).
+ */
+public class NullDocumentSink implements DocumentSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(NullDocumentSink.class);
+
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    @Override
+    public long write(List<Bson> batch, boolean replayed) {
+        long batchBytes = 0;
+        for (Bson document : batch) {
+            batchBytes += BsonSizeEstimator.estimate(document);
+        }
+        documents.addAndGet(batch.size());
+        bytes.addAndGet(batchBytes);
+        return batch.size();
+    }
+
+    @Override
+    public void reportSummary(ImportStats stats, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double megabytes = bytes.get() / (1024.0 * 1024.0);
+        logger.info("\n[SUCCESS] Importação concluída sem escrita (--sink null). Total de documentos descartados: {} ({} MB)",
+                  documents.get(), String.format("%.1f", megabytes));
+        if (seconds > 0) {
+            logger.info("[INFO]   - Vazão de leitura e conversão: {} docs/s, {} MB/s em {} s",
+                      Math.round(documents.get() / seconds), String.format("%.1f", megabytes / seconds),
+                      String.format("%.1f", seconds));
+        }
+    }
+
+    public long getDocuments() { return documents.get(); }
+    public long getBytes() { return bytes.get(); }
+}
@@ -0,0 +1,160 @@
+package com.mongoimport.importer;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.MongoWriteConcernException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de novas tentativas do caminho de escrita.
+ *
+ * Erros são classificados em transitórios (rede, timeout de seleção de servidor, troca de
+ * primário, conflito de escrita) e permanentes. Operações com erro transitório são repetidas
+ * com backoff exponencial com jitter ("full jitter") até {@code maxRetries} vezes, passando
+ * pelo {@link CircuitBreaker} compartilhado. As operações repetidas precisam ser idempotentes.
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    private static final long BASE_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 30_000;
+
+    // Códigos de erro transitórios (troca de primário, interrupção, conflito de escrita, rede)
+    private static final Set<Integer> RETRYABLE_CODES = Set.of(
+        6, 7, 89, 91, 112, 189, 262, 9001, 10107, 11600, 11602, 13435, 13436);
+
+    private static final String RETRYABLE_WRITE_ERROR = "RetryableWriteError";
+    private static final String TRANSIENT_TRANSACTION_ERROR = "TransientTransactionError";
+
+    private final int maxRetries;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Operação de escrita repetível.
+     */
+    @FunctionalInterface
+    public interface RetryableOperation<T> {
+        /**
+         * @param attempt Número da tentativa (1 na primeira execução)
+         */
+        T run(int attempt);
+    }
+
+    /**
+     * @param maxRetries Número máximo de novas tentativas por operação
+     * @param circuitBreaker Disjuntor compartilhado pelos workers de escrita
+     */
+    public RetryPolicy(int maxRetries, CircuitBreaker circuitBreaker) {
+        this.maxRetries = maxRetries;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Executa a operação, repetindo-a enquanto falhar com erros transitórios.
+     *
+     * @param description Descrição da operação para as mensagens de log
+     * @throws RuntimeException o erro permanente, ou o último erro transitório após esgotar as tentativas
+     */
+    public <T> T execute(String description, RetryableOperation<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MongoInterruptedException("Escrita interrompida aguardando o MongoDB", e);
+            }
+
+            try {
+                T result = operation.run(attempt);
+                circuitBreaker.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    // O servidor respondeu: o erro é do conteúdo, não da disponibilidade
+                    circuitBreaker.recordSuccess();
+                    throw e;
+                }
+                if (attempt > maxRetries) {
+                    circuitBreaker.release();
+                    logger.error("[ERROR] Erro transitório ao {} persistiu após {} tentativas: {}",
+                               description, attempt, e.getMessage());
+                    throw e;
+                }
+                circuitBreaker.recordFailure();
+                long delay = nextDelay(attempt);
+                logger.warn("[WARNING] Erro transitório ao {}: {}. Nova tentativa ({} de {}) em {} ms.",
+                          description, e.getMessage(), attempt, maxRetries, delay);
+                pause(delay);
+            }
+        }
+    }
+
+    /**
+     * Backoff exponencial com jitter: valor aleatório entre zero e {@code 100 ms * 2^(tentativa - 1)},
+     * limitado a 30 s. O jitter evita que workers que falharam juntos tentem de novo juntos.
+     *
+     * @return Tempo de espera em milissegundos antes da nova tentativa
+     */
+    public long nextDelay(int attempt) {
+        long ceiling = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Aguarda o tempo de backoff.
+     */
+    public void pause(long delayMillis) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MongoInterruptedException("Escrita interrompida durante o backoff", e);
+        }
+    }
+
+    public int getMaxRetries() { return maxRetries; }
+    public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+
+    /**
+     * Classifica um erro de escrita como transitório.
+     * {@link MongoBulkWriteException} não é transitório como um todo: seus erros são
+     * tratados por documento com {@link #isRetryableCode(int)}.
+     */
+    public static boolean isRetryable(Throwable error) {
+        if (error instanceof MongoBulkWriteException || error instanceof MongoInterruptedException) {
+            return false;
+        }
+        if (error instanceof MongoSocketException
+                || error instanceof MongoTimeoutException
+                || error instanceof MongoNotPrimaryException
+                || error instanceof MongoNodeIsRecoveringException
+                || error instanceof MongoWriteConcernException) {
+            return true;
+        }
+        if (error instanceof MongoException mongoError) {
+            return mongoError.hasErrorLabel(RETRYABLE_WRITE_ERROR)
+                || mongoError.hasErrorLabel(TRANSIENT_TRANSACTION_ERROR)
+                || isRetryableCode(mongoError.getCode());
+        }
+        return false;
+    }
+
+    /**
+     * @return true se o código de erro do servidor indica uma falha transitória
+     */
+    public static boolean isRetryableCode(int code) {
+        return RETRYABLE_CODES.contains(code);
+    }
+}
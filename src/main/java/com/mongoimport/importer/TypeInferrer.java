@@ -0,0 +1,290 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.converter.AutoTypeDetector;
+import com.mongoimport.converter.DateParser;
+import com.mongoimport.io.CompressionType;
+import com.mongoimport.io.InputOpener;
+import com.mongoimport.model.DataType;
+import com.mongoimport.parser.DelimitedParser;
+import com.mongoimport.parser.DelimitedRecord;
+import com.mongoimport.parser.OpenCsvRecordReader;
+import com.mongoimport.parser.RecordReader;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Inferência de tipos por amostragem (--inferTypes): antes da importação, uma amostra de
+ * linhas define um único {@link DataType} por coluna, de modo que a conversão usa os
+ * conversores de tipo fixo em vez da detecção AUTO célula a célula.
+ *
+ * Metade da amostra vem do início do arquivo; a outra metade é lida de forma posicional em
+ * posições aleatórias distribuídas pelo arquivo (uma por faixa), o que captura valores que
+ * só aparecem adiante (ex.: ids que ultrapassam o int32). A semente é fixa, de modo que o
+ * mesmo arquivo sempre produz os mesmos tipos. Arquivos comprimidos usam apenas o início e
+ * stdin/named pipes não são amostrados (a entrada não pode ser lida duas vezes).
+ */
+public class TypeInferrer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeInferrer.class);
+
+    // Janela lida em cada posição amostrada: registros maiores são descartados
+    private static final int SAMPLE_WINDOW = 64 * 1024;
+
+    private static final long SEED = 0x5EEDL;
+
+    private final ImportConfig config;
+
+    public TypeInferrer(ImportConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Amostra o arquivo e decide o tipo de cada coluna.
+     *
+     * @param headers Nomes dos campos, na ordem das colunas
+     * @return Tipos inferidos por nome de campo; colunas sem valores na amostra ficam de fora (AUTO)
+     */
+    public Map<String, DataType> infer(String[] headers) {
+        File file = config.getInputFile();
+        if (!InputOpener.isRegularFile(file)) {
+            logger.warn("[WARNING] Inferência de tipos indisponível para {}: a entrada não pode ser lida duas vezes. "
+                      + "Usando detecção automática.", InputOpener.displayName(file));
+            return new LinkedHashMap<>();
+        }
+
+        long start = System.currentTimeMillis();
+        int sampleSize = config.getInferTypes();
+        ColumnVote[] votes = new ColumnVote[headers.length];
+        for (int i = 0; i < votes.length; i++) {
+            votes[i] = new ColumnVote();
+        }
+
+        int sampled = 0;
+        try {
+            boolean positional = supportsPositionalReads(file);
+            int headRows = positional ? (sampleSize + 1) / 2 : sampleSize;
+            sampled += sampleHead(file, headers.length, headRows, votes);
+            if (positional && sampleSize > headRows) {
+                sampled += sampleSpread(file, headers.length, sampleSize - headRows, votes);
+            }
+        } catch (IOException e) {
+            logger.warn("[WARNING] Erro ao amostrar o arquivo para inferência de tipos: {}. Usando detecção automática.",
+                      e.getMessage());
+            return new LinkedHashMap<>();
+        }
+
+        Map<String, DataType> types = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i++) {
+            DataType type = votes[i].decide();
+            if (type != DataType.AUTO) {
+                types.put(headers[i], type);
+            }
+        }
+        logger.info("[INFO] Inferência de tipos: {} linhas amostradas em {} ms.", sampled,
+                  System.currentTimeMillis() - start);
+        return types;
+    }
+
+    /**
+     * Formata os tipos no formato de --columnsHaveTypes, na ordem das colunas.
+     *
+     * @param headers Nomes dos campos, na ordem das colunas
+     * @param columnTypes Tipos por nome de campo; campos ausentes são omitidos
+     * @param dateFormats Formatos de data explícitos por nome de campo
+     */
+    public static String formatColumnTypes(String[] headers, Map<String, DataType> columnTypes,
+                                           Map<String, String> dateFormats) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (String header : headers) {
+            DataType type = columnTypes.get(header);
+            if (type == null) {
+                continue;
+            }
+            String format = type == DataType.DATE ? dateFormats.get(header) : null;
+            joiner.add(header + ":" + (format != null ? "date(" + format + ")" : type.name().toLowerCase()));
+        }
+        return joiner.toString();
+    }
+
+    private boolean supportsPositionalReads(File file) throws IOException {
+        return CompressionType.detect(file) == CompressionType.NONE
+            && ChunkSplitter.supportsCharset(Charset.forName(config.getEncoding()))
+            && ChunkSplitter.isSplittableDelimiter(config.getDelimiter());
+    }
+
+    /**
+     * Amostra as primeiras linhas de dados (descomprimindo o arquivo se necessário).
+     */
+    private int sampleHead(File file, int columns, int rows, ColumnVote[] votes) throws IOException {
+        try (InputStream in = InputOpener.openStream(file, 1, config.getReadAheadBytes());
+             RecordReader reader = new OpenCsvRecordReader(
+                 new InputStreamReader(in, Charset.forName(config.getEncoding())), config.getDelimiter())) {
+            if (config.hasHeaderline() && reader.next() == null) {
+                return 0;
+            }
+            int sampled = 0;
+            DelimitedRecord record;
+            while (sampled < rows && (record = reader.next()) != null) {
+                if (vote(record, columns, votes)) {
+                    sampled++;
+                }
+            }
+            return sampled;
+        }
+    }
+
+    /**
+     * Amostra um registro em uma posição aleatória de cada faixa do arquivo. A leitura começa
+     * na linha seguinte à posição sorteada; registros cujo número de campos difere do cabeçalho
+     * (ex.: posição dentro de um campo entre aspas com quebra de linha) são descartados.
+     */
+    private int sampleSpread(File file, int columns, int rows, ColumnVote[] votes) throws IOException {
+        Charset charset = Charset.forName(config.getEncoding());
+        DelimitedParser parser = new DelimitedParser(config.getDelimiter(), charset, config.getParserType());
+        Random random = new Random(SEED);
+        ByteBuffer window = ByteBuffer.allocate(SAMPLE_WINDOW);
+        int sampled = 0;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (int i = 0; i < rows; i++) {
+                long stratumStart = size * i / rows;
+                long stratumLength = size * (i + 1) / rows - stratumStart;
+                long position = stratumStart + (stratumLength > 0 ? (long) (random.nextDouble() * stratumLength) : 0);
+
+                window.clear();
+                int read = 0;
+                while (window.hasRemaining()) {
+                    int n = channel.read(window, position + read);
+                    if (n < 0) {
+                        break;
+                    }
+                    read += n;
+                }
+
+                byte[] data = window.array();
+                int recordStart = indexOf(data, 0, read, (byte) '\n') + 1;
+                int recordEnd = recordStart > 0 ? indexOf(data, recordStart, read, (byte) '\n') : -1;
+                if (recordEnd < 0) {
+                    continue;
+                }
+                parser.reset(data, recordStart, recordEnd + 1);
+                if (vote(parser.next(), columns, votes)) {
+                    sampled++;
+                }
+            }
+        }
+        return sampled;
+    }
+
+    private static int indexOf(byte[] data, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean vote(DelimitedRecord record, int columns, ColumnVote[] votes) {
+        if (record == null || record.size() != columns) {
+            return false;
+        }
+        String[] values = record.toStringArray();
+        for (int i = 0; i < columns; i++) {
+            String value = values[i] != null ? values[i].trim() : "";
+            if (!value.isEmpty()) {
+                votes[i].add(value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tipos observados em uma coluna, classificados pela mesma detecção do tipo AUTO.
+     */
+    static final class ColumnVote {
+
+        private final DateParser dateParser = DateParser.learning();
+
+        private boolean booleans;
+        private boolean nonDigitBooleans;
+        private boolean int32;
+        private boolean int64;
+        private boolean doubles;
+        private boolean objectIds;
+        private boolean dates;
+        private boolean strings;
+
+        void add(String value) {
+            if (strings) {
+                return;
+            }
+            Object detected = AutoTypeDetector.detect(value, dateParser);
+            if (detected instanceof Boolean) {
+                booleans = true;
+                nonDigitBooleans |= !(value.equals("0") || value.equals("1"));
+            } else if (detected instanceof Integer) {
+                int32 = true;
+            } else if (detected instanceof Long) {
+                int64 = true;
+            } else if (detected instanceof Double) {
+                doubles = true;
+            } else if (detected instanceof ObjectId) {
+                objectIds = true;
+            } else if (detected instanceof Date) {
+                dates = true;
+            } else {
+                strings = true;
+            }
+        }
+
+        /**
+         * Um único tipo que representa todos os valores da amostra; combinações sem tipo
+         * comum (ex.: números e datas) ficam como STRING.
+         */
+        DataType decide() {
+            boolean numbers = int32 || int64 || doubles;
+            if (strings) {
+                return DataType.STRING;
+            }
+            if (numbers) {
+                // 0 e 1 também são números; os demais booleanos não
+                if (nonDigitBooleans || objectIds || dates) {
+                    return DataType.STRING;
+                }
+                return doubles ? DataType.DOUBLE : int64 ? DataType.INT64 : DataType.INT32;
+            }
+            int kinds = (booleans ? 1 : 0) + (objectIds ? 1 : 0) + (dates ? 1 : 0);
+            if (kinds > 1) {
+                return DataType.STRING;
+            }
+            if (booleans) {
+                return DataType.BOOLEAN;
+            }
+            if (objectIds) {
+                return DataType.OBJECTID;
+            }
+            if (dates) {
+                return DataType.DATE;
+            }
+            return DataType.AUTO;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.converter.DocumentBuilder;
+import com.mongoimport.model.ImportMode;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Converte documentos em operações de {@code bulkWrite} para os modos upsert, merge e delete.
+ * O filtro de cada operação é formado pelos campos de chave ({@code upsertFields}),
+ * que podem usar notação de ponto para campos de subdocumentos.
+ */
+public class WriteModelBuilder {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final ReplaceOptions UPSERT_REPLACE = new ReplaceOptions().upsert(true);
+    private static final UpdateOptions UPSERT_UPDATE = new UpdateOptions().upsert(true);
+
+    private final ImportMode mode;
+    private final List<String> keyFields;
+    private final boolean idIsKey;
+
+    /**
+     * @param mode Modo de importação (diferente de {@link ImportMode#INSERT})
+     * @param keyFields Campos que identificam o documento na coleção
+     */
+    public WriteModelBuilder(ImportMode mode, List<String> keyFields) {
+        if (mode == ImportMode.INSERT) {
+            throw new IllegalArgumentException("O modo insert não usa operações de bulkWrite");
+        }
+        this.mode = mode;
+        this.keyFields = List.copyOf(keyFields);
+        this.idIsKey = keyFields.contains(ID_FIELD);
+    }
+
+    /**
+     * Cria a operação para um documento.
+     *
+     * @return Operação de escrita ou null se o documento não tiver todos os campos de chave
+     */
+    public WriteModel<Document> build(Document document) {
+        Document filter = buildFilter(document);
+        if (filter == null) {
+            return null;
+        }
+
+        return switch (mode) {
+            case UPSERT -> new ReplaceOneModel<>(filter, document, UPSERT_REPLACE);
+            case MERGE -> new UpdateOneModel<>(filter, buildMergeUpdate(document, filter), UPSERT_UPDATE);
+            case DELETE -> new DeleteOneModel<>(filter);
+            case INSERT -> throw new IllegalStateException("Modo insert não usa operações de bulkWrite");
+        };
+    }
+
+    private Document buildFilter(Document document) {
+        Document filter = new Document();
+        for (String field : keyFields) {
+            Object value = DocumentBuilder.getNestedValue(document, field);
+            if (value == null) {
+                return null;
+            }
+            filter.append(field, value);
+        }
+        return filter;
+    }
+
+    /**
+     * Monta o {@code $set} com os caminhos folha do documento. O {@code _id} é imutável:
+     * quando não faz parte da chave, só é definido na inserção ({@code $setOnInsert}).
+     */
+    private Document buildMergeUpdate(Document document, Document filter) {
+        Document paths = DocumentBuilder.toDottedPaths(document);
+        Object id = paths.remove(ID_FIELD);
+
+        // Documento só com o _id: nada a atualizar, apenas garante a existência
+        if (paths.isEmpty()) {
+            return new Document("$setOnInsert", filter);
+        }
+
+        Document update = new Document("$set", paths);
+        if (id != null && !idIsKey) {
+            update.append("$setOnInsert", new Document(ID_FIELD, id));
+        }
+        return update;
+    }
+}
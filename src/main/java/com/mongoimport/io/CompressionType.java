@@ -0,0 +1,55 @@
+package com.mongoimport.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Formatos de compressão reconhecidos no arquivo de entrada.
+ */
+public enum CompressionType {
+    /**
+     * Arquivo sem compressão
+     */
+    NONE,
+
+    /**
+     * gzip (incluindo arquivos com vários membros concatenados)
+     */
+    GZIP,
+
+    /**
+     * bzip2 (incluindo fluxos concatenados)
+     */
+    BZIP2;
+
+    /**
+     * Detecta a compressão pelos bytes iniciais do arquivo (não depende da extensão).
+     *
+     * @param file Arquivo de entrada
+     * @return Tipo de compressão detectado
+     */
+    public static CompressionType detect(File file) throws IOException {
+        byte[] magic = new byte[4];
+        int read;
+        try (InputStream in = new FileInputStream(file)) {
+            read = in.readNBytes(magic, 0, magic.length);
+        }
+        return detect(magic, read);
+    }
+
+    /**
+     * Detecta a compressão a partir dos primeiros bytes já lidos.
+     */
+    public static CompressionType detect(byte[] magic, int length) {
+        if (length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return GZIP;
+        }
+        if (length >= 4 && magic[0] == 'B' && magic[1] == 'Z' && magic[2] == 'h'
+                && magic[3] >= '1' && magic[3] <= '9') {
+            return BZIP2;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mongoimport.io;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Abre a entrada da importação: arquivo regular, named pipe ou stdin ({@code --file -}),
+ * descomprimindo gzip e bzip2 em fluxo quando necessário.
+ */
+public class InputOpener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InputOpener.class);
+
+    /**
+     * Caminho que representa a entrada padrão.
+     */
+    public static final String STDIN = "-";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private InputOpener() {
+    }
+
+    /**
+     * @return true se o arquivo representa a entrada padrão
+     */
+    public static boolean isStdin(File file) {
+        return STDIN.equals(file.getPath());
+    }
+
+    /**
+     * Verifica se a entrada é um arquivo regular (que pode ser lido de forma posicional).
+     */
+    public static boolean isRegularFile(File file) {
+        return !isStdin(file) && file.isFile();
+    }
+
+    /**
+     * Verifica se a entrada é um named pipe (ou outro arquivo especial legível em fluxo).
+     */
+    public static boolean isPipe(File file) {
+        if (isStdin(file)) {
+            return false;
+        }
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class).isOther();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Nome da entrada para mensagens de log.
+     */
+    public static String displayName(File file) {
+        return isStdin(file) ? "stdin" : file.getName();
+    }
+
+    /**
+     * Abre a entrada como canal de bytes descomprimidos. Arquivos regulares sem compressão
+     * são lidos diretamente pelo {@link FileChannel}.
+     *
+     * @param file Arquivo de entrada, named pipe ou {@link #STDIN}
+     * @param threads Threads disponíveis para descompressão gzip (1 = sequencial)
+     * @param readAheadBytes Limite de leitura antecipada para stdin e named pipes
+     */
+    public static ReadableByteChannel openChannel(File file, int threads, long readAheadBytes) throws IOException {
+        if (isRegularFile(file) && CompressionType.detect(file) == CompressionType.NONE) {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        return Channels.newChannel(openStream(file, threads, readAheadBytes));
+    }
+
+    /**
+     * Abre a entrada como fluxo de bytes descomprimidos.
+     *
+     * @param file Arquivo de entrada, named pipe ou {@link #STDIN}
+     * @param threads Threads disponíveis para descompressão gzip (1 = sequencial)
+     * @param readAheadBytes Limite de leitura antecipada para stdin e named pipes
+     */
+    public static InputStream openStream(File file, int threads, long readAheadBytes) throws IOException {
+        if (isRegularFile(file)) {
+            CompressionType compression = CompressionType.detect(file);
+            if (compression == CompressionType.NONE) {
+                return new FileInputStream(file);
+            }
+            logCompression(compression);
+            return switch (compression) {
+                case GZIP -> threads > 1
+                    ? new ParallelGzipInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ), threads)
+                    : new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE);
+                case BZIP2 -> new BZip2CompressorInputStream(
+                    new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), true);
+                case NONE -> new FileInputStream(file);
+            };
+        }
+
+        // stdin ou named pipe: leitura em fluxo, com buffer antecipado limitado
+        logger.info("[INFO] Lendo entrada em fluxo de {} (buffer antecipado de {} MB).",
+                  isStdin(file) ? "stdin" : file.getPath(), readAheadBytes / (1024 * 1024));
+        InputStream source = isStdin(file) ? System.in : new FileInputStream(file);
+        BufferedInputStream in = new BufferedInputStream(new ReadAheadInputStream(source, readAheadBytes), BUFFER_SIZE);
+
+        // A compressão é detectada sem consumir os bytes iniciais
+        byte[] magic = new byte[4];
+        in.mark(magic.length);
+        int read = in.readNBytes(magic, 0, magic.length);
+        in.reset();
+
+        CompressionType compression = CompressionType.detect(magic, read);
+        if (compression != CompressionType.NONE) {
+            logCompression(compression);
+        }
+        // GZIPInputStream só passa ao próximo membro se available() indicar mais dados, o que
+        // uma entrada em fluxo não garante; GzipCompressorInputStream lê os membros até o fim
+        return switch (compression) {
+            case GZIP -> new GzipCompressorInputStream(in, true);
+            case BZIP2 -> new BZip2CompressorInputStream(in, true);
+            case NONE -> in;
+        };
+    }
+
+    private static void logCompression(CompressionType compression) {
+        logger.info("[INFO] Arquivo comprimido detectado ({}). Descomprimindo em fluxo.", compression);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mongoimport.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Expande o valor de {@code --file} na lista de arquivos a importar: um arquivo, um
+ * diretório (arquivos regulares não ocultos do diretório, sem recursão) ou um padrão glob
+ * ({@code dados/*.csv}, {@code dados/**}{@code /*.gz}).
+ */
+public class InputResolver {
+
+    private static final String GLOB_CHARS = "*?[{";
+
+    private InputResolver() {
+    }
+
+    /**
+     * @param spec Caminho informado em {@code --file}
+     * @return Arquivos em ordem de caminho; vazio se o diretório ou o padrão não tiver arquivos
+     */
+    public static List<File> resolve(File spec) throws IOException {
+        if (InputOpener.isStdin(spec)) {
+            return List.of(spec);
+        }
+        if (spec.isDirectory()) {
+            return listDirectory(spec.toPath());
+        }
+        String path = spec.getPath();
+        int firstGlob = indexOfGlob(path);
+        if (firstGlob < 0) {
+            return List.of(spec);
+        }
+        return expandGlob(path, firstGlob);
+    }
+
+    /**
+     * @return true se o caminho contém metacaracteres de glob
+     */
+    public static boolean isGlob(File spec) {
+        return indexOfGlob(spec.getPath()) >= 0;
+    }
+
+    private static List<File> listDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(p -> !p.getFileName().toString().startsWith("."))
+                .sorted()
+                .map(Path::toFile)
+                .toList();
+        }
+    }
+
+    private static List<File> expandGlob(String path, int firstGlob) throws IOException {
+        // Diretório base: tudo antes do último separador que precede o primeiro metacaractere
+        int separator = path.lastIndexOf(File.separatorChar, firstGlob);
+        Path base = separator < 0 ? Paths.get(".")
+                  : Paths.get(separator == 0 ? File.separator : path.substring(0, separator));
+        String pattern = path.substring(separator + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+
+        // Sem "**" o padrão tem profundidade fixa: não é preciso descer além dela
+        int maxDepth = pattern.contains("**") ? Integer.MAX_VALUE
+                     : pattern.split(Pattern.quote(File.separator)).length;
+
+        try (Stream<Path> paths = Files.walk(base, maxDepth)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(p -> matcher.matches(base.relativize(p)))
+                .sorted()
+                .map(Path::toFile)
+                .toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    private static int indexOfGlob(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            if (GLOB_CHARS.indexOf(path.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
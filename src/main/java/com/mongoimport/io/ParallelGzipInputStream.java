@@ -0,0 +1,434 @@
+package com.mongoimport.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Descompressão paralela de arquivos gzip com vários membros (gerados por
+ * {@code cat a.gz b.gz}, bgzip, pigz --independent, etc.).
+ *
+ * O formato gzip não registra o tamanho comprimido de cada membro, então o arquivo é
+ * varrido em busca de cabeçalhos candidatos ({@code 1f 8b 08}) e cada candidato é
+ * descomprimido especulativamente em uma thread do pool, com leituras posicionais do
+ * {@link FileChannel}. A saída é entregue na ordem do arquivo seguindo a cadeia de membros
+ * verdadeiros: o fim de um membro (validado por CRC32 e ISIZE) determina o início do
+ * próximo, e resultados de candidatos falsos são descartados.
+ *
+ * Membros maiores que {@link #MAX_SPECULATIVE_OUTPUT} continuam sendo descomprimidos em
+ * fluxo na thread leitora, o que mantém a memória limitada também para arquivos com um
+ * único membro.
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelGzipInputStream.class);
+
+    private static final int READ_SIZE = 64 * 1024;
+    private static final int SCAN_SIZE = 1024 * 1024;
+    private static final int MIN_SCAN_BLOCKS = 4;
+    private static final int MAX_SPECULATIVE_OUTPUT = 16 * 1024 * 1024;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final long scanWindow;
+
+    // Candidato -> descompressão especulativa
+    private final TreeMap<Long, Future<Member>> pending = new TreeMap<>();
+    private long scanPosition = 0;
+    private volatile long nextMemberStart = 0;
+
+    private byte[] current = new byte[0];
+    private int currentPosition = 0;
+    private int currentLength = 0;
+    private Member streaming;
+    private boolean finished = false;
+
+    /**
+     * @param channel Canal do arquivo comprimido (usado apenas com leituras posicionais)
+     * @param threads Número de threads de descompressão
+     */
+    public ParallelGzipInputStream(FileChannel channel, int threads) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.maxPending = threads * 2;
+        this.scanWindow = (long) SCAN_SIZE * Math.max(MIN_SCAN_BLOCKS, threads);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "gzip-inflater");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (currentPosition >= currentLength) {
+            if (!advance()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, currentLength - currentPosition);
+        System.arraycopy(current, currentPosition, b, off, n);
+        currentPosition += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        executor.shutdown();
+        for (Future<Member> future : pending.values()) {
+            future.cancel(false);
+        }
+        pending.clear();
+        if (streaming != null) {
+            streaming.inflater.end();
+            streaming = null;
+        }
+        channel.close();
+    }
+
+    /**
+     * Prepara a próxima porção de dados descomprimidos.
+     *
+     * @return false ao final do arquivo
+     */
+    private boolean advance() throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        if (streaming != null) {
+            continueStreaming();
+            return true;
+        }
+
+        if (nextMemberStart >= fileSize) {
+            finished = true;
+            return false;
+        }
+
+        discardStaleCandidates();
+        submitCandidates();
+
+        Future<Member> future = pending.remove(nextMemberStart);
+        Member member = future != null ? await(future) : inflateMember(nextMemberStart);
+
+        if (!member.headerValid) {
+            if (nextMemberStart == 0) {
+                throw new ZipException("Arquivo não está no formato gzip");
+            }
+            // Como o GZIPInputStream, dados após o último membro são ignorados
+            logger.debug("[DEBUG] Ignorando {} bytes após o último membro gzip.", fileSize - nextMemberStart);
+            finished = true;
+            return false;
+        }
+        if (member.error != null) {
+            throw new ZipException("Membro gzip corrompido na posição " + member.start + ": " + member.error);
+        }
+
+        current = member.output;
+        currentPosition = 0;
+        currentLength = member.outputLength;
+
+        if (member.complete) {
+            nextMemberStart = member.end;
+        } else {
+            streaming = member;
+        }
+        submitCandidates();
+        return true;
+    }
+
+    /**
+     * Continua a descompressão em fluxo de um membro maior que o limite especulativo.
+     */
+    private void continueStreaming() throws IOException {
+        Member member = streaming;
+        byte[] out = current.length >= READ_SIZE * 4 ? current : new byte[READ_SIZE * 4];
+        int produced;
+        try {
+            produced = member.inflateMore(out, out.length);
+        } catch (DataFormatException e) {
+            throw new ZipException("Membro gzip corrompido na posição " + member.start + ": " + e.getMessage());
+        }
+        if (member.error != null) {
+            throw new ZipException("Membro gzip corrompido na posição " + member.start + ": " + member.error);
+        }
+
+        current = out;
+        currentPosition = 0;
+        currentLength = produced;
+
+        if (member.complete) {
+            streaming = null;
+            nextMemberStart = member.end;
+        }
+    }
+
+    private void discardStaleCandidates() {
+        Iterator<Map.Entry<Long, Future<Member>>> it = pending.headMap(nextMemberStart).entrySet().iterator();
+        while (it.hasNext()) {
+            Future<Member> stale = it.next().getValue();
+            // Sem interrupção: interromper uma leitura fecharia o FileChannel compartilhado
+            stale.cancel(false);
+            it.remove();
+        }
+    }
+
+    /**
+     * Procura novos cabeçalhos candidatos e agenda sua descompressão especulativa.
+     *
+     * A varredura vai no máximo {@link #scanWindow} bytes além do início do próximo membro:
+     * em um arquivo com um único membro quase não há candidatos, e sem esse limite a primeira
+     * leitura percorreria o arquivo comprimido inteiro. Enquanto um membro grande é
+     * descomprimido em fluxo não há varredura, pois os candidatos estariam dentro dele.
+     */
+    private void submitCandidates() throws IOException {
+        if (streaming != null) {
+            return;
+        }
+        if (scanPosition < nextMemberStart) {
+            scanPosition = nextMemberStart;
+        }
+        long scanLimit = Math.min(fileSize, nextMemberStart + scanWindow);
+
+        ByteBuffer scanBuffer = null;
+        while (pending.size() < maxPending && scanPosition < scanLimit) {
+            if (scanBuffer == null) {
+                scanBuffer = ByteBuffer.allocate(SCAN_SIZE + 3);
+            }
+            scanBuffer.clear();
+            long blockStart = scanPosition;
+            while (scanBuffer.hasRemaining()) {
+                int read = channel.read(scanBuffer, blockStart + scanBuffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            byte[] block = scanBuffer.array();
+            int length = scanBuffer.position();
+            int lastCandidate = length - 3;
+
+            int i = 0;
+            for (; i < lastCandidate && pending.size() < maxPending; i++) {
+                if ((block[i] & 0xFF) == 0x1F && (block[i + 1] & 0xFF) == 0x8B
+                        && block[i + 2] == 8 && (block[i + 3] & 0xE0) == 0) {
+                    long candidate = blockStart + i;
+                    if (!pending.containsKey(candidate)) {
+                        pending.put(candidate, executor.submit(() -> inflateMember(candidate)));
+                    }
+                }
+            }
+            scanPosition = length < 4 ? fileSize : blockStart + i;
+        }
+    }
+
+    private Member await(Future<Member> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Descompressão interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro na descompressão: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Descomprime o membro que começa em {@code start}, até o fim do membro ou até
+     * {@link #MAX_SPECULATIVE_OUTPUT} bytes de saída.
+     */
+    private Member inflateMember(long start) throws IOException {
+        Member member = new Member(start);
+        byte[] input = new byte[READ_SIZE];
+        int read = readAt(input, start);
+        int headerLength = parseHeader(input, read);
+        if (headerLength < 0) {
+            member.inflater.end();
+            return member;
+        }
+        member.headerValid = true;
+        member.input = input;
+        member.inputPosition = start + read;
+        member.inflater.setInput(input, headerLength, read - headerLength);
+
+        member.output = new byte[Math.min(MAX_SPECULATIVE_OUTPUT, READ_SIZE * 16)];
+        try {
+            while (!member.complete && member.error == null && start >= nextMemberStart) {
+                if (member.outputLength == member.output.length) {
+                    if (member.output.length >= MAX_SPECULATIVE_OUTPUT) {
+                        // Membro grande: o restante será descomprimido em fluxo se o candidato for válido
+                        return member;
+                    }
+                    member.output = Arrays.copyOf(member.output, member.output.length * 2);
+                }
+                member.outputLength += member.inflateMore(member.output, member.output.length - member.outputLength,
+                                                          member.outputLength);
+            }
+        } catch (DataFormatException e) {
+            member.error = e.getMessage();
+        }
+        if (!member.complete) {
+            member.inflater.end();
+        }
+        return member;
+    }
+
+    private int readAt(byte[] target, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(target);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Valida o cabeçalho gzip (RFC 1952) e retorna seu tamanho, ou -1 se inválido.
+     */
+    private static int parseHeader(byte[] data, int length) {
+        if (length < 10 || (data[0] & 0xFF) != 0x1F || (data[1] & 0xFF) != 0x8B || data[2] != 8) {
+            return -1;
+        }
+        int flags = data[3] & 0xFF;
+        if ((flags & 0xE0) != 0) {
+            return -1;
+        }
+        int pos = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (pos + 2 > length) return -1;
+            int extraLength = (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8);
+            pos += 2 + extraLength;
+        }
+        if ((flags & FNAME) != 0) {
+            while (pos < length && data[pos] != 0) pos++;
+            pos++;
+        }
+        if ((flags & FCOMMENT) != 0) {
+            while (pos < length && data[pos] != 0) pos++;
+            pos++;
+        }
+        if ((flags & FHCRC) != 0) {
+            pos += 2;
+        }
+        return pos <= length ? pos : -1;
+    }
+
+    /**
+     * Estado da descompressão de um membro gzip.
+     */
+    private final class Member {
+        final long start;
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        boolean headerValid;
+        boolean complete;
+        String error;
+        long end;
+        long totalOutput;
+        byte[] input;
+        long inputPosition;
+        byte[] output;
+        int outputLength;
+
+        Member(long start) {
+            this.start = start;
+        }
+
+        int inflateMore(byte[] out, int max) throws IOException, DataFormatException {
+            return inflateMore(out, max, 0);
+        }
+
+        /**
+         * Descomprime até {@code max} bytes em {@code out[offset..]}, lendo mais entrada quando
+         * necessário. Ao final do fluxo deflate valida o trailer (CRC32 e ISIZE).
+         */
+        int inflateMore(byte[] out, int max, int offset) throws IOException, DataFormatException {
+            int produced = 0;
+            while (produced == 0 && !complete && error == null) {
+                int n = inflater.inflate(out, offset, max);
+                if (n > 0) {
+                    crc.update(out, offset, n);
+                    totalOutput += n;
+                    produced = n;
+                }
+                if (inflater.finished()) {
+                    finish();
+                } else if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        error = "dicionário deflate não suportado";
+                    } else if (inflater.needsInput()) {
+                        int read = readAt(input, inputPosition);
+                        if (read <= 0) {
+                            error = "fim inesperado do arquivo";
+                        } else {
+                            inputPosition += read;
+                            inflater.setInput(input, 0, read);
+                        }
+                    }
+                }
+            }
+            return produced;
+        }
+
+        private void finish() throws IOException {
+            long deflateEnd = inputPosition - inflater.getRemaining();
+            inflater.end();
+            byte[] trailer = new byte[8];
+            if (readAt(trailer, deflateEnd) < 8) {
+                error = "trailer gzip incompleto";
+                return;
+            }
+            long expectedCrc = readUInt32(trailer, 0);
+            long expectedSize = readUInt32(trailer, 4);
+            if (expectedCrc != crc.getValue() || expectedSize != (totalOutput & 0xFFFFFFFFL)) {
+                error = "CRC ou tamanho inválido";
+                return;
+            }
+            end = deflateEnd + 8;
+            complete = true;
+        }
+    }
+
+    private static long readUInt32(byte[] data, int offset) {
+        return (data[offset] & 0xFFL)
+            | ((data[offset + 1] & 0xFFL) << 8)
+            | ((data[offset + 2] & 0xFFL) << 16)
+            | ((data[offset + 3] & 0xFFL) << 24);
+    }
+}
@@ -0,0 +1,125 @@
+package com.mongoimport.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Lê uma entrada não posicionável (stdin ou named pipe) em uma thread dedicada, mantendo
+ * no máximo {@code maxBytes} bytes lidos antecipadamente.
+ *
+ * Quando o buffer está cheio a thread leitora para de ler, o buffer do pipe enche e o
+ * processo produtor ({@code pg_dump}, {@code bcp}, ...) é bloqueado pelo sistema operacional,
+ * em vez de a importação acumular a entrada inteira em memória.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final byte[] END_OF_INPUT = new byte[0];
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> blocks;
+    private final Thread readerThread;
+    private volatile IOException readError;
+    private volatile boolean closed = false;
+
+    private byte[] current = new byte[0];
+    private int position = 0;
+    private boolean finished = false;
+
+    /**
+     * @param source Entrada a ser lida
+     * @param maxBytes Limite aproximado de bytes lidos antecipadamente
+     */
+    public ReadAheadInputStream(InputStream source, long maxBytes) {
+        this.source = source;
+        this.blocks = new ArrayBlockingQueue<>((int) Math.max(2, maxBytes / BLOCK_SIZE));
+        this.readerThread = new Thread(this::readLoop, "read-ahead");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    private void readLoop() {
+        try {
+            while (!closed) {
+                byte[] block = new byte[BLOCK_SIZE];
+                int length = source.readNBytes(block, 0, BLOCK_SIZE);
+                if (length == 0) {
+                    break;
+                }
+                blocks.put(length == BLOCK_SIZE ? block : Arrays.copyOf(block, length));
+            }
+        } catch (IOException e) {
+            readError = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                blocks.put(END_OF_INPUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position >= current.length) {
+            if (finished) {
+                return -1;
+            }
+            try {
+                current = blocks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Leitura da entrada interrompida");
+            }
+            position = 0;
+            if (current == END_OF_INPUT) {
+                finished = true;
+                if (readError != null) {
+                    throw readError;
+                }
+            }
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Bytes que podem ser lidos sem bloquear: o restante do bloco atual mais o próximo bloco
+     * já lido pela thread leitora, se houver.
+     */
+    @Override
+    public int available() {
+        int available = current.length - position;
+        byte[] next = blocks.peek();
+        if (next != null) {
+            available += next.length;
+        }
+        return available;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        readerThread.interrupt();
+        blocks.clear();
+        source.close();
+    }
+}
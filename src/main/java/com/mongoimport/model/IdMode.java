@@ -0,0 +1,36 @@
+package com.mongoimport.model;
+
+/**
+ * Enum que define como o {@code _id} é derivado das colunas de --idFields (opção --idMode).
+ */
+public enum IdMode {
+    /**
+     * O valor da coluna (uma coluna) ou um subdocumento com as colunas (várias colunas)
+     */
+    DOCUMENT,
+
+    /**
+     * Hash de 128 bits dos valores, gravado como BinData de 16 bytes
+     */
+    HASH;
+
+    /**
+     * Converte uma string (document, hash) para o modo correspondente.
+     *
+     * @param value String a ser convertida
+     * @return IdMode correspondente ou DOCUMENT se o valor for vazio
+     * @throws IllegalArgumentException se o valor não for um modo conhecido (um erro de
+     *         digitação em --idMode geraria _ids diferentes dos de uma carga anterior)
+     */
+    public static IdMode fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DOCUMENT;
+        }
+
+        try {
+            return IdMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de _id desconhecido '" + value.trim() + "' (use document ou hash)");
+        }
+    }
+}
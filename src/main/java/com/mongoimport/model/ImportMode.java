@@ -0,0 +1,48 @@
+package com.mongoimport.model;
+
+/**
+ * Enum que define como cada documento do arquivo é aplicado à coleção.
+ */
+public enum ImportMode {
+    /**
+     * Insere todos os documentos (insertMany)
+     */
+    INSERT,
+    
+    /**
+     * Substitui o documento com as mesmas chaves, inserindo-o se não existir
+     */
+    UPSERT,
+    
+    /**
+     * Atualiza apenas os campos presentes no arquivo ($set com caminhos em notação de ponto),
+     * inserindo o documento se não existir
+     */
+    MERGE,
+    
+    /**
+     * Remove o documento com as mesmas chaves
+     */
+    DELETE;
+    
+    /**
+     * Converte uma string para o modo correspondente.
+     * 
+     * @param value String a ser convertida
+     * @return ImportMode correspondente ou INSERT se o valor for vazio
+     * @throws IllegalArgumentException se o valor não for um modo conhecido (um erro de digitação
+     *         em --mode não pode virar inserção)
+     */
+    public static ImportMode fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return INSERT;
+        }
+        
+        try {
+            return ImportMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de escrita desconhecido '" + value.trim()
+                + "' (use insert, upsert, merge ou delete)");
+        }
+    }
+}
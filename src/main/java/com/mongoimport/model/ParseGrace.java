@@ -0,0 +1,63 @@
+package com.mongoimport.model;
+
+/**
+ * Enum que define como erros de conversão de tipo são tratados (opção --parseGrace).
+ */
+public enum ParseGrace {
+    /**
+     * Valor que não converte para o tipo da coluna é detectado automaticamente
+     */
+    AUTO_CAST,
+    
+    /**
+     * Campo que não converte é omitido do documento
+     */
+    SKIP_FIELD,
+    
+    /**
+     * Linha com campo que não converte é ignorada
+     */
+    SKIP_ROW,
+    
+    /**
+     * Importação é interrompida no primeiro erro de conversão
+     */
+    STOP;
+    
+    /**
+     * Converte uma string (autoCast, skipField, skipRow, stop) para o modo correspondente.
+     * 
+     * @param value String a ser convertida
+     * @return ParseGrace correspondente ou AUTO_CAST se não conseguir determinar
+     */
+    public static ParseGrace fromString(String value) {
+        if (value == null) {
+            return AUTO_CAST;
+        }
+        
+        return switch (value.trim().toLowerCase()) {
+            case "skipfield" -> SKIP_FIELD;
+            case "skiprow" -> SKIP_ROW;
+            case "stop" -> STOP;
+            default -> AUTO_CAST;
+        };
+    }
+    
+    /**
+     * Verifica se a string é um dos modos aceitos (autoCast, skipField, skipRow, stop).
+     * 
+     * @param value String a ser verificada
+     * @return true se o valor for vazio ou um modo conhecido; false se {@link #fromString}
+     *         recorrer ao padrão AUTO_CAST
+     */
+    public static boolean isKnown(String value) {
+        if (value == null) {
+            return true;
+        }
+        
+        return switch (value.trim().toLowerCase()) {
+            case "autocast", "skipfield", "skiprow", "stop" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.mongoimport.model;
+
+/**
+ * Enum que define o parser usado para ler os registros do arquivo de entrada.
+ */
+public enum ParserType {
+    /**
+     * Parser OpenCSV (CSVReader) - caminho original, baseado em caracteres
+     */
+    OPENCSV,
+    
+    /**
+     * Parser de bytes com resultados idênticos ao OpenCSV
+     */
+    COMPAT,
+    
+    /**
+     * Parser de bytes sem as peculiaridades do OpenCSV: escapes antes de caracteres
+     * comuns são mantidos, aspas no meio de um campo não são copiadas e quebras de
+     * linha dentro de aspas são preservadas como estão no arquivo
+     */
+    FAST;
+    
+    /**
+     * Converte uma string para o parser correspondente.
+     * 
+     * @param value String a ser convertida
+     * @return ParserType correspondente ou COMPAT se o valor for vazio
+     * @throws IllegalArgumentException se o valor não for um parser conhecido
+     */
+    public static ParserType fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return COMPAT;
+        }
+        
+        try {
+            return ParserType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Parser desconhecido '" + value.trim() + "' (use opencsv, compat ou fast)");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.mongoimport.model;
+
+/**
+ * Enum que define o destino dos documentos convertidos (opção --sink).
+ */
+public enum SinkType {
+    /**
+     * Escreve os documentos no MongoDB
+     */
+    MONGO,
+
+    /**
+     * Descarta os documentos, apenas contando documentos e bytes (mede leitura e conversão)
+     */
+    NULL,
+
+    /**
+     * Grava os documentos em arquivos .bson para restauração com mongorestore
+     */
+    BSON;
+
+    /**
+     * Converte uma string (mongo, null, bson) para o destino correspondente.
+     * 
+     * @param value String a ser convertida
+     * @return SinkType correspondente ou MONGO se o valor for vazio
+     * @throws IllegalArgumentException se o valor não for um destino conhecido (um erro de
+     *         digitação em --sink não pode virar escrita no MongoDB)
+     */
+    public static SinkType fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return MONGO;
+        }
+        
+        try {
+            return SinkType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Destino desconhecido '" + value.trim() + "' (use mongo, null ou bson)");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.mongoimport.parser;
+
+import com.mongoimport.model.ParserType;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser de arquivos delimitados que trabalha diretamente sobre janelas de bytes.
+ *
+ * Segue as mesmas regras de delimitador, aspas ({@code "}) e escape ({@code \}) do
+ * CSVParser configurado no OpenCSV, inclusive o estado de "campo iniciado" que decide
+ * quando {@code ""} é uma aspa literal. O conteúdo sem escape de cada campo é compactado
+ * no próprio buffer (a saída nunca é maior que a entrada), de modo que os campos são
+ * expostos como fatias contíguas sem cópias ou alocações.
+ *
+ * O buffer precisa ser de uso exclusivo do parser, pois é modificado durante o parsing.
+ * O encoding deve ser compatível com ASCII (UTF-8, ISO-8859-*, windows-125*).
+ */
+public class DelimitedParser implements RecordReader {
+
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+
+    // Posição (em caracteres) a partir da qual o OpenCSV copia aspas no meio de um campo
+    private static final int BEGINNING_OF_LINE = 3;
+
+    private final byte delimiter;
+    private final boolean compatibilityMode;
+    private final boolean utf8;
+    private final boolean[] special = new boolean[256];
+    private final ParsedRecord record;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * @param delimiter Delimitador de campos (caractere ASCII)
+     * @param charset Encoding do arquivo
+     * @param parserType {@link ParserType#COMPAT} para reproduzir o OpenCSV byte a byte
+     */
+    public DelimitedParser(char delimiter, Charset charset, ParserType parserType) {
+        this.delimiter = (byte) delimiter;
+        this.compatibilityMode = parserType != ParserType.FAST;
+        this.utf8 = charset.equals(StandardCharsets.UTF_8);
+        this.record = new ParsedRecord(charset);
+        special[QUOTE] = true;
+        special[ESCAPE] = true;
+        special[delimiter] = true;
+        special['\n'] = true;
+        special['\r'] = true;
+    }
+
+    /**
+     * Define a janela de bytes a ser lida. A janela deve começar em uma fronteira de registro.
+     */
+    public void reset(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    @Override
+    public ParsedRecord next() throws IOException {
+        if (position >= limit) {
+            return null;
+        }
+
+        final byte[] buf = buffer;
+        record.reset(buf);
+
+        boolean inQuotes = false;
+        boolean inField = false;
+        int lineChars = 0;
+        int r = position;
+        int w = r;
+        int fieldStart = r;
+
+        while (true) {
+            if (r >= limit) {
+                if (inQuotes) {
+                    throw new IOException("Campo entre aspas não terminado no fim do arquivo: "
+                        + new String(buf, fieldStart, w - fieldStart, record.getCharset()));
+                }
+                record.addField(fieldStart, w);
+                position = limit;
+                return record;
+            }
+
+            byte c = buf[r];
+            if (!special[c & 0xFF]) {
+                // Trecho sem caracteres especiais
+                int runEnd = r + 1;
+                while (runEnd < limit && !special[buf[runEnd] & 0xFF]) {
+                    runEnd++;
+                }
+                if (compatibilityMode && lineChars < BEGINNING_OF_LINE) {
+                    lineChars += countChars(buf, r, runEnd);
+                }
+                if (w != r) {
+                    System.arraycopy(buf, r, buf, w, runEnd - r);
+                }
+                w += runEnd - r;
+                r = runEnd;
+                inField = true;
+            } else if (c == ESCAPE) {
+                inField = true;
+                if (r + 1 < limit && isEscapable(buf[r + 1])) {
+                    buf[w++] = buf[r + 1];
+                    r += 2;
+                    lineChars += 2;
+                } else {
+                    // O OpenCSV descarta o escape antes de caracteres não escapáveis
+                    if (!compatibilityMode) {
+                        buf[w++] = c;
+                    }
+                    r++;
+                    lineChars++;
+                }
+            } else if (c == QUOTE) {
+                if ((inQuotes || inField) && r + 1 < limit && buf[r + 1] == QUOTE) {
+                    buf[w++] = QUOTE;
+                    r += 2;
+                    lineChars += 2;
+                } else {
+                    inQuotes = !inQuotes;
+                    if (compatibilityMode && isEmbeddedQuote(lineChars, r)) {
+                        if (w > fieldStart && isAllWhitespace(buf, fieldStart, w)) {
+                            w = fieldStart;
+                        } else {
+                            buf[w++] = QUOTE;
+                        }
+                    }
+                    r++;
+                    lineChars++;
+                }
+                inField = !inField;
+            } else if (c == delimiter && !inQuotes) {
+                record.addField(fieldStart, w);
+                r++;
+                lineChars++;
+                fieldStart = r;
+                w = r;
+                inField = false;
+            } else if (c == '\n' || c == '\r') {
+                int next = r + 1;
+                if (c == '\r' && next < limit && buf[next] == '\n') {
+                    next++;
+                }
+                if (!inQuotes) {
+                    record.addField(fieldStart, w);
+                    position = next;
+                    return record;
+                }
+                // Quebra de linha dentro de aspas: o OpenCSV junta as linhas com '\n'
+                if (compatibilityMode) {
+                    buf[w++] = '\n';
+                } else {
+                    while (r < next) {
+                        buf[w++] = buf[r++];
+                    }
+                }
+                r = next;
+                lineChars = 0;
+            } else {
+                // Delimitador dentro de aspas
+                buf[w++] = c;
+                r++;
+                lineChars++;
+                inField = true;
+            }
+        }
+    }
+
+    private boolean isEscapable(byte c) {
+        return c == QUOTE || c == ESCAPE || c == delimiter;
+    }
+
+    /**
+     * Reproduz a regra do OpenCSV para aspas no meio de um campo ({@code a|bc"d"ef|g}):
+     * a aspa é copiada quando não está no início da linha e não é vizinha de um delimitador.
+     */
+    private boolean isEmbeddedQuote(int lineChars, int quoteIndex) {
+        // O byte anterior ainda é o original: a compactação só escreve em posições já lidas
+        if (lineChars < BEGINNING_OF_LINE || buffer[quoteIndex - 1] == delimiter) {
+            return false;
+        }
+        int next = quoteIndex + 1;
+        return next < limit && buffer[next] != delimiter && buffer[next] != '\n' && buffer[next] != '\r';
+    }
+
+    /**
+     * Conta caracteres em um trecho (em UTF-8, bytes de continuação não contam).
+     */
+    private int countChars(byte[] buf, int start, int end) {
+        if (!utf8) {
+            return end - start;
+        }
+        int chars = 0;
+        for (int i = start; i < end; i++) {
+            if ((buf[i] & 0xC0) != 0x80) {
+                chars++;
+            }
+        }
+        return chars;
+    }
+
+    private static boolean isAllWhitespace(byte[] buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(buf[i] & 0xFF) || buf[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mongoimport.parser;
+
+import com.mongoimport.converter.ColumnConverter;
+
+/**
+ * Registro lido de um arquivo delimitado.
+ */
+public interface DelimitedRecord {
+    
+    /**
+     * @return Número de campos do registro
+     */
+    int size();
+    
+    /**
+     * Converte o campo na posição informada com o conversor da coluna.
+     * 
+     * @param index Posição do campo
+     * @param converter Conversor da coluna (tipo de destino e modo de tolerância a erros)
+     * @return Valor convertido
+     */
+    Object convertField(int index, ColumnConverter converter);
+    
+    /**
+     * @return Cópia dos campos como strings (usado em cabeçalhos e mensagens)
+     */
+    String[] toStringArray();
+}
@@ -0,0 +1,41 @@
+package com.mongoimport.parser;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Leitor de registros baseado no CSVReader do OpenCSV.
+ */
+public class OpenCsvRecordReader implements RecordReader {
+    private final CSVReader csvReader;
+    
+    public OpenCsvRecordReader(Reader reader, char delimiter) {
+        this.csvReader = new CSVReaderBuilder(reader)
+            .withCSVParser(new CSVParserBuilder()
+                .withSeparator(delimiter)
+                .withQuoteChar('"')
+                .withEscapeChar('\\')
+                .build())
+            .build();
+    }
+    
+    @Override
+    public DelimitedRecord next() throws IOException {
+        try {
+            String[] fields = csvReader.readNext();
+            return fields != null ? new StringArrayRecord(fields) : null;
+        } catch (CsvValidationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        csvReader.close();
+    }
+}
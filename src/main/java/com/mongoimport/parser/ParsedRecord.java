@@ -0,0 +1,67 @@
+package com.mongoimport.parser;
+
+import com.mongoimport.converter.ColumnConverter;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Registro produzido pelo {@link DelimitedParser}: cada campo é uma fatia (início/fim)
+ * de um buffer de bytes compartilhado. Nenhuma String é criada até que um campo seja
+ * convertido para um tipo que precise dela.
+ */
+public class ParsedRecord implements DelimitedRecord {
+    private final Charset charset;
+    private byte[] buffer;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+
+    public ParsedRecord(Charset charset) {
+        this.charset = charset;
+    }
+
+    void reset(byte[] buffer) {
+        this.buffer = buffer;
+        this.count = 0;
+    }
+
+    void addField(int start, int end) {
+        if (count == starts.length) {
+            int newLength = starts.length * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    public byte[] getBuffer() { return buffer; }
+    public int getStart(int index) { return starts[index]; }
+    public int getLength(int index) { return ends[index] - starts[index]; }
+    public Charset getCharset() { return charset; }
+
+    public String getString(int index) {
+        return new String(buffer, starts[index], ends[index] - starts[index], charset);
+    }
+
+    @Override
+    public Object convertField(int index, ColumnConverter converter) {
+        return converter.convert(buffer, starts[index], ends[index] - starts[index], charset);
+    }
+
+    @Override
+    public String[] toStringArray() {
+        String[] fields = new String[count];
+        for (int i = 0; i < count; i++) {
+            fields[i] = getString(i);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mongoimport.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Fonte sequencial de registros.
+ */
+public interface RecordReader extends Closeable {
+    
+    /**
+     * Lê o próximo registro. A instância retornada pode ser reutilizada pela
+     * próxima chamada, portanto não deve ser retida.
+     * 
+     * @return Próximo registro ou null ao final da entrada
+     */
+    DelimitedRecord next() throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.mongoimport.parser;
+
+import com.mongoimport.converter.ColumnConverter;
+
+/**
+ * Registro representado por um array de strings (saída do OpenCSV).
+ */
+public class StringArrayRecord implements DelimitedRecord {
+    private final String[] fields;
+    
+    public StringArrayRecord(String[] fields) {
+        this.fields = fields;
+    }
+    
+    @Override
+    public int size() {
+        return fields.length;
+    }
+    
+    @Override
+    public Object convertField(int index, ColumnConverter converter) {
+        return converter.convert(fields[index]);
+    }
+    
+    @Override
+    public String[] toStringArray() {
+        return fields;
+    }
+}
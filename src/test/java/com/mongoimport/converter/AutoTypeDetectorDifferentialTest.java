@@ -0,0 +1,285 @@
+package com.mongoimport.converter;
+
+import com.mongoimport.model.DataType;
+import com.mongoimport.model.ParseGrace;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara a detecção AUTO ({@link AutoTypeDetector}, {@link NumberParser} e {@link DateParser})
+ * com a implementação original baseada em regex e exceções, que define a semântica esperada:
+ * mesmo tipo e mesmo valor para toda entrada.
+ */
+class AutoTypeDetectorDifferentialTest {
+
+    private static final long SEED = 42;
+
+    // Diferenças reportadas por teste (as demais são apenas contadas)
+    private static final int MAX_REPORTED = 20;
+
+    @Test
+    void edgeCases() {
+        String[] values = {
+            "0", "1", "-0", "+0", "+1", "-1", "00", "01", "true", "TRUE", "tRuE", "yes", "YES", "no", "No",
+            "false", "FALSE", "t", "y", "n", "truee",
+            "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807",
+            "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+            "00000000000000000000000000001", "-0000000000000000000009223372036854775808", "99999999999999999999",
+            "1.5", "-1.5", ".5", "-.5", "1.", "1e5", "1.0e5", "1.0E-5", "1.0e+5", "1.0e", "1.0e+", "-", "--1", "1-",
+            "1.2.3", ".", "-.", "0.1", "0.30000000000000004", "123456789012345.678", "1234567890123456789.5",
+            "1.7976931348623157e308", "4.9e-324", "2.2250738585072014E-308", "1.0e400", "1.0e-400",
+            "0.000000000000000000000000000001", "123.456e-10", "9007199254740993.0", "9007199254740992.0",
+            "1.00000000000000000000000001",
+            "507f1f77bcf86cd799439011", "507F1F77BCF86CD799439011", "507f1f77bcf86cd79943901g", "507f1f77bcf86cd79943901",
+            "2023-01-15T10:30:00", "2023-01-15 10:30:00", "2023-01-15", "15/01/2023", "01/15/2023", "15-01-2023",
+            "2023/01/15", "2023-01-15T10:30:00Z", "2023-01-15T10:30:00+02:00", "2023-01-15T10:30:00.123",
+            "2023-01-15T10:30", "2023-01-15T10:30:00[Europe/Paris]", "+12023-01-15T10:30:00", "2023-13-15T10:30:00",
+            "2023-02-30T10:30:00", "2023-02-30 10:30:00", "10:30:00", "2023-01-15 10:30",
+            "1700000000", "1700000000000", "3999999999", "4000000000", "+1700000000", "+1700000000000",
+            "١٢٣", "+١٢٣", "-١٢٣", "１２３", "١.٥", "NaN", "Infinity", "-Infinity", "0x1F", "1_000", "１",
+            "abc", "hello world", "ÿes", "TRUEİ", "İ", "1e", "e5", ".e5", "0.5e5x", "texto123"
+        };
+        assertNoDifferences(check -> {
+            for (String value : values) {
+                check.accept(value);
+            }
+        });
+    }
+
+    @Test
+    void randomStringsOverNumberDateAndBooleanAlphabet() {
+        Random random = new Random(SEED);
+        String alphabet = "0123456789000-+.eE:/ TtrueFalsYyNoabcdfABCDEF Z";
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 50_000; i++) {
+                int length = 1 + random.nextInt(random.nextBoolean() ? 6 : 26);
+                StringBuilder value = new StringBuilder();
+                for (int j = 0; j < length; j++) {
+                    value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                check.accept(value.toString());
+            }
+        });
+    }
+
+    @Test
+    void wellFormedNumbers() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 200_000; i++) {
+                StringBuilder value = new StringBuilder();
+                if (random.nextBoolean()) {
+                    value.append('-');
+                }
+                appendDigits(value, random, random.nextInt(20));
+                if (random.nextInt(3) > 0) {
+                    value.append('.');
+                    appendDigits(value, random, 1 + random.nextInt(20));
+                    if (random.nextInt(3) == 0) {
+                        value.append(random.nextBoolean() ? 'e' : 'E');
+                        int sign = random.nextInt(3);
+                        if (sign == 1) {
+                            value.append('+');
+                        } else if (sign == 2) {
+                            value.append('-');
+                        }
+                        value.append(random.nextInt(random.nextBoolean() ? 30 : 400));
+                    }
+                }
+                check.accept(value.toString());
+            }
+        });
+    }
+
+    @Test
+    void printedDoubles() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 100_000; i++) {
+                double value = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+                check.accept(Double.toString(value));
+                check.accept(String.format(Locale.ROOT, "%." + random.nextInt(17) + "f", value));
+            }
+        });
+    }
+
+    @Test
+    void datesAndTimestamps() {
+        Random random = new Random(SEED);
+        DateTimeFormatter spaced = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 10_000; i++) {
+                long seconds = random.nextLong() % 5_000_000_000L;
+                LocalDateTime time = LocalDateTime.ofEpochSecond(Math.abs(seconds), random.nextInt(1_000_000_000),
+                                                                 ZoneOffset.UTC);
+                check.accept(time.toString());
+                check.accept(time.format(spaced));
+                check.accept(time.atOffset(ZoneOffset.ofHours(random.nextInt(24) - 12)).toString());
+                check.accept(Long.toString(seconds));
+                check.accept("+" + Math.abs(seconds));
+                check.accept(Long.toString(Math.abs(random.nextLong()) % 10_000_000_000_000L));
+            }
+        });
+    }
+
+    private static void appendDigits(StringBuilder value, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            value.append((char) ('0' + random.nextInt(10)));
+        }
+    }
+
+    /**
+     * Executa as verificações geradas por {@code cases} pelos três caminhos da detecção AUTO:
+     * {@link AutoTypeDetector#detect} sem parser de coluna, {@code convertValue} a partir de
+     * String e a partir de bytes, estes dois com o parser de datas que aprende o formato da
+     * coluna (como na importação).
+     */
+    private static void assertNoDifferences(Consumer<Consumer<String>> cases) {
+        List<String> differences = new ArrayList<>();
+        long[] total = new long[1];
+        DateParser columnDates = DateParser.learning();
+        DateParser byteColumnDates = DateParser.learning();
+
+        cases.accept(raw -> {
+            String value = raw.trim();
+            if (value.isEmpty()) {
+                return;
+            }
+            Object expected = LegacyAutoDetector.detect(value);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            compare(differences, total, "detect", value, expected, AutoTypeDetector.detect(value, null));
+            compare(differences, total, "convertValue(String)", value, expected,
+                    DataTypeConverter.convertValue(value, DataType.AUTO, ParseGrace.AUTO_CAST, columnDates));
+            compare(differences, total, "convertValue(byte[])", value, expected,
+                    DataTypeConverter.convertValue(bytes, 0, bytes.length, StandardCharsets.UTF_8, DataType.AUTO,
+                                                   ParseGrace.AUTO_CAST, byteColumnDates));
+        });
+
+        assertEquals(List.of(), differences, total[0] + " diferenças em relação à implementação original");
+    }
+
+    private static void compare(List<String> differences, long[] total, String path, String value,
+                                Object expected, Object actual) {
+        if (sameValue(expected, actual)) {
+            return;
+        }
+        total[0]++;
+        if (differences.size() < MAX_REPORTED) {
+            differences.add(path + " '" + value + "': esperado " + describe(expected) + ", obtido " + describe(actual));
+        }
+    }
+
+    private static boolean sameValue(Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        return expected.getClass() == actual.getClass() && expected.equals(actual);
+    }
+
+    private static String describe(Object value) {
+        return value == null ? "null" : value + " (" + value.getClass().getSimpleName() + ")";
+    }
+
+    /**
+     * Detecção AUTO original (regex e exceções), mantida apenas como referência.
+     */
+    private static final class LegacyAutoDetector {
+
+        private static final Pattern INTEGER_PATTERN = Pattern.compile("^-?\\d+$");
+        private static final Pattern DOUBLE_PATTERN = Pattern.compile("^-?\\d*\\.\\d+([eE][+-]?\\d+)?$");
+        private static final Pattern BOOLEAN_PATTERN = Pattern.compile("^(true|false|yes|no|1|0)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern OBJECTID_PATTERN = Pattern.compile("^[0-9a-fA-F]{24}$");
+
+        private static final DateTimeFormatter[] DATE_FORMATTERS = {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ISO_ZONED_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("yyyy/MM/dd")
+        };
+
+        static Object detect(String value) {
+            if (OBJECTID_PATTERN.matcher(value).matches()) {
+                try {
+                    return new ObjectId(value);
+                } catch (Exception ignored) {}
+            }
+
+            if (BOOLEAN_PATTERN.matcher(value).matches()) {
+                return switch (value.toLowerCase()) {
+                    case "true", "yes", "1" -> true;
+                    case "false", "no", "0" -> false;
+                    default -> throw new IllegalArgumentException("Valor booleano inválido: " + value);
+                };
+            }
+
+            if (INTEGER_PATTERN.matcher(value).matches()) {
+                try {
+                    long longValue = Long.parseLong(value);
+                    if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                        return (int) longValue;
+                    }
+                    return longValue;
+                } catch (NumberFormatException ignored) {}
+            }
+
+            if (DOUBLE_PATTERN.matcher(value).matches()) {
+                try {
+                    return Double.parseDouble(value);
+                } catch (NumberFormatException ignored) {}
+            }
+
+            Date date = tryParseDate(value);
+            if (date != null) {
+                return date;
+            }
+            return value;
+        }
+
+        private static Date tryParseDate(String value) {
+            for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+                try {
+                    LocalDateTime localDateTime = LocalDateTime.parse(value, formatter);
+                    return Timestamp.valueOf(localDateTime);
+                } catch (DateTimeParseException ignored) {
+                    try {
+                        ZonedDateTime zonedDateTime = ZonedDateTime.parse(value, formatter);
+                        return Date.from(zonedDateTime.toInstant());
+                    } catch (DateTimeParseException ignored2) {}
+                }
+            }
+
+            try {
+                long timestamp = Long.parseLong(value);
+                if (timestamp > 0 && timestamp < 4000000000L) {
+                    return new Date(timestamp * 1000);
+                }
+                if (timestamp > 1000000000000L) {
+                    return new Date(timestamp);
+                }
+            } catch (NumberFormatException ignored) {}
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mongoimport.converter;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara o {@link DocumentBuilder} compilado com a construção original campo a campo
+ * ({@code setNestedValue}, copiada abaixo), que define a semântica esperada: o mesmo JSON,
+ * inclusive a ordem dos campos, para todo cabeçalho aceito por
+ * {@link DocumentBuilder#validateHeaderStructure}.
+ */
+class DocumentBuilderEquivalenceTest {
+
+    private static final long SEED = 42;
+
+    // Diferenças reportadas por teste (as demais são apenas contadas)
+    private static final int MAX_REPORTED = 20;
+
+    // Nomes de subdocumento e de campo são disjuntos, de modo que todo cabeçalho gerado é válido
+    private static final String[] NODE_NAMES = {"a", "b", "endereço", ""};
+    private static final String[] FIELD_NAMES = {"x", "y", "_id", "nome"};
+
+    @Test
+    void edgeCases() {
+        String[][] headers = {
+            {"a."},
+            {"a.", "a"},
+            {"a..", "b.c."},
+            {"", "x"},
+            {".x", "x"},
+            {"a..x", "a.x"},
+            {"a.x", "b", "a.y", "a.x"},
+            {"a.b.x", "a.y", "a.b.y", "c"},
+            {"_id", "a._id"}
+        };
+        assertNoDifferences(check -> {
+            for (String[] header : headers) {
+                Object[] values = new Object[header.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = "v" + i;
+                }
+                check.accept(header, values);
+                values[0] = null;
+                check.accept(header, values);
+            }
+        });
+    }
+
+    @Test
+    void randomHeaders() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 5_000; i++) {
+                String[] headers = randomHeaders(random);
+                assertTrue(DocumentBuilder.validateHeaderStructure(headers), String.join("|", headers));
+                for (int row = 0; row < 31; row++) {
+                    Object[] values = new Object[headers.length];
+                    for (int column = 0; column < values.length; column++) {
+                        int kind = random.nextInt(4);
+                        values[column] = kind == 0 ? null : kind == 1 ? random.nextInt(100) : "v" + random.nextInt(100);
+                    }
+                    check.accept(headers, values);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cabeçalho de 1 a 12 colunas: até 3 níveis de subdocumento, nomes repetidos e pontos
+     * sobrando no fim (ignorados pelo split), no início e no meio (subdocumento de nome vazio).
+     */
+    private static String[] randomHeaders(Random random) {
+        String[] headers = new String[1 + random.nextInt(12)];
+        for (int i = 0; i < headers.length; i++) {
+            StringBuilder header = new StringBuilder();
+            int depth = random.nextInt(4);
+            for (int level = 0; level < depth; level++) {
+                header.append(NODE_NAMES[random.nextInt(NODE_NAMES.length)]).append('.');
+            }
+            header.append(FIELD_NAMES[random.nextInt(FIELD_NAMES.length)]);
+            if (random.nextInt(5) == 0) {
+                header.append(".".repeat(1 + random.nextInt(2)));
+            }
+            headers[i] = header.toString();
+        }
+        return headers;
+    }
+
+    private interface Cases {
+        void generate(RowCheck check);
+    }
+
+    private interface RowCheck {
+        void accept(String[] headers, Object[] values);
+    }
+
+    private static void assertNoDifferences(Cases cases) {
+        List<String> differences = new ArrayList<>();
+        long[] total = new long[1];
+
+        cases.generate((headers, values) -> {
+            String expected = legacyBuildDocument(headers, values).toJson();
+            String actual = DocumentBuilder.compile(headers).build(values).toJson();
+            if (expected.equals(actual)) {
+                return;
+            }
+            total[0]++;
+            if (differences.size() < MAX_REPORTED) {
+                differences.add(String.join("|", headers) + ": esperado " + expected + ", obtido " + actual);
+            }
+        });
+
+        assertEquals(List.of(), differences, total[0] + " diferenças em relação à construção original");
+    }
+
+    /**
+     * Construção original do documento, valor a valor.
+     */
+    private static Document legacyBuildDocument(String[] headers, Object[] values) {
+        Document document = new Document();
+        for (int i = 0; i < headers.length; i++) {
+            if (values[i] != null) {
+                legacySetNestedValue(document, headers[i], values[i]);
+            }
+        }
+        return document;
+    }
+
+    private static void legacySetNestedValue(Document document, String fieldPath, Object value) {
+        String[] pathParts = fieldPath.split("\\.");
+        if (pathParts.length == 1) {
+            document.append(fieldPath, value);
+            return;
+        }
+
+        Document currentDoc = document;
+        for (int i = 0; i < pathParts.length - 1; i++) {
+            String part = pathParts[i];
+            if (!currentDoc.containsKey(part)) {
+                currentDoc.append(part, new Document());
+            }
+            Object existingValue = currentDoc.get(part);
+            if (!(existingValue instanceof Document)) {
+                currentDoc.append(part, new Document());
+            }
+            currentDoc = (Document) currentDoc.get(part);
+        }
+        currentDoc.append(pathParts[pathParts.length - 1], value);
+    }
+}
@@ -0,0 +1,207 @@
+package com.mongoimport.converter;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara {@link NumberParser#parseDouble} com {@link Double#parseDouble} e
+ * {@link NumberParser#parseDecimal128} com {@code new Decimal128(new BigDecimal(value))}, que
+ * definem a semântica esperada: mesmo valor (bit a bit, inclusive o sinal do zero) ou o mesmo
+ * tipo de erro para toda entrada.
+ */
+class NumberParserDifferentialTest {
+
+    private static final long SEED = 42;
+
+    // Diferenças reportadas por teste (as demais são apenas contadas)
+    private static final int MAX_REPORTED = 20;
+
+    @Test
+    void edgeCases() {
+        String[] values = {
+            "0", "-0", "+0", "0.0", "-0.0", "-0.00", "+0.000", "00", "000.000", ".0", "0.", ".", "-", "+", "",
+            "1", "-1", "+1", "1.5", "-1.5", ".5", "-.5", "5.", "1e5", "1E5", "1e+5", "1e-5", "1.e5", ".5e5",
+            "1e", "1e+", "1e-", "e5", ".e5", "1e5.5", "1.5.5", "1..5", "--1", "+-1", "1-", "1,5", " 1.5", "1.5 ",
+            "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "0x1p3", "0x1.8p1", "1.5d", "1.5f", "1.5D", "1.5F",
+            "١٢٣", "１２３", "1_000",
+            "0.1", "0.2", "0.3", "0.30000000000000004", "1e22", "1e23", "8.41e21", "1e-22", "1e-23", "5e-324",
+            "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "2.2250738585072011e-308",
+            "2.2250738585072012e-308", "2.2250738585072014e-308", "1.7976931348623157e308", "1.7976931348623158e308",
+            "1.7976931348623159e308", "1.8e308", "1e308", "1e309", "1e-324", "1e-400", "1e400",
+            "9007199254740991", "9007199254740992", "9007199254740993", "9007199254740994", "9007199254740995",
+            "18014398509481985", "18014398509481987", "123456789012345678", "1234567890123456789",
+            "999999999999999999", "9999999999999999999", "0.000000000000000000000000000001",
+            "1e100000", "1e-100000", "1e2147483647", "1e2147483648", "1e-2147483648", "1e99999999999999999999",
+            "1234567890123456789012345678901234", "12345678901234567890123456789012345",
+            "0.1234567890123456789012345678901234", "0.12345678901234567890123456789012345",
+            "-1234567890123456789012345678901234e-10", "9999999999999999999999999999999999",
+            "10000000000000000000000000000000000", "1000000000000000000000000000000000.0",
+            "1E6111", "1E6112", "1E6144", "1E6145", "1E-6176", "1E-6177", "0E6111", "0E6112", "0E-6176", "0E-6177",
+            "1000E6109", "1000E6110", "0.001E-6173", "-0E-6177", "5500.50", "-5500.50", "0.01", "100.00"
+        };
+        assertNoDifferences(check -> {
+            for (String value : values) {
+                check.accept(value);
+            }
+        });
+    }
+
+    @Test
+    void randomBitPatterns() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 200_000; i++) {
+                double value = Double.longBitsToDouble(random.nextLong());
+                check.accept(Double.toString(value));
+                if (Double.isFinite(value)) {
+                    BigDecimal exact = new BigDecimal(value);
+                    check.accept(exact.round(new MathContext(1 + random.nextInt(20))).toString());
+                }
+            }
+        });
+    }
+
+    @Test
+    void randomDigitStrings() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 300_000; i++) {
+                StringBuilder value = new StringBuilder();
+                int sign = random.nextInt(4);
+                if (sign == 1) {
+                    value.append('-');
+                } else if (sign == 2) {
+                    value.append('+');
+                }
+                if (random.nextInt(8) == 0) {
+                    value.append("0".repeat(1 + random.nextInt(4)));
+                }
+                appendDigits(value, random, random.nextInt(random.nextBoolean() ? 10 : 40));
+                if (random.nextInt(3) > 0) {
+                    value.append('.');
+                    appendDigits(value, random, random.nextInt(random.nextBoolean() ? 6 : 36));
+                }
+                if (random.nextInt(3) == 0) {
+                    value.append(random.nextBoolean() ? 'e' : 'E');
+                    int exponentSign = random.nextInt(3);
+                    if (exponentSign == 1) {
+                        value.append('+');
+                    } else if (exponentSign == 2) {
+                        value.append('-');
+                    }
+                    value.append(random.nextInt(random.nextBoolean() ? 30 : 7000));
+                }
+                check.accept(value.toString());
+            }
+        });
+    }
+
+    @Test
+    void ledgerValues() {
+        Random random = new Random(SEED);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 100_000; i++) {
+                check.accept(random.nextInt(1_000_000) + "." + String.format(Locale.ROOT, "%02d", random.nextInt(100)));
+                check.accept(String.format(Locale.ROOT, "%." + random.nextInt(9) + "f", random.nextDouble() * 1e6));
+            }
+        });
+    }
+
+    /**
+     * Valores exatamente no meio entre dois doubles consecutivos (e logo acima e abaixo): o
+     * arredondamento para o par é onde um parser rápido costuma errar.
+     */
+    @Test
+    void halfwayPoints() {
+        Random random = new Random(SEED);
+        BigInteger two53 = BigInteger.ONE.shiftLeft(53);
+        assertNoDifferences(check -> {
+            for (int i = 0; i < 50_000; i++) {
+                // Inteiros: acima de 2^53 os doubles consecutivos distam 2^(k+1)
+                BigInteger mantissa = two53.add(BigInteger.valueOf(random.nextLong() >>> 11));
+                int scale = random.nextInt(12);
+                BigInteger halfway = mantissa.shiftLeft(1).add(BigInteger.ONE).shiftLeft(scale);
+                for (int delta = -1; delta <= 1; delta++) {
+                    BigInteger candidate = halfway.add(BigInteger.valueOf(delta));
+                    check.accept(candidate.toString());
+                    check.accept(candidate + ".0");
+                    check.accept(new BigDecimal(candidate).stripTrailingZeros().toString());
+                }
+
+                // Decimais quaisquer: ponto médio exato entre um double e o seguinte
+                double value = Math.abs(Double.longBitsToDouble(random.nextLong()));
+                if (Double.isFinite(value) && value < Double.MAX_VALUE) {
+                    BigDecimal middle = new BigDecimal(value).add(new BigDecimal(Math.nextUp(value)))
+                        .divide(BigDecimal.valueOf(2));
+                    check.accept(middle.toString());
+                    check.accept(middle.round(new MathContext(17 + random.nextInt(4))).toString());
+                }
+            }
+        });
+    }
+
+    private static void appendDigits(StringBuilder value, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            value.append((char) ('0' + random.nextInt(10)));
+        }
+    }
+
+    /**
+     * Executa as verificações geradas por {@code cases}. O caminho de Decimal128 só é comparado
+     * quando {@link NumberParser#parseDecimal128} aceita o valor: nos demais casos a conversão
+     * usa o próprio BigDecimal.
+     */
+    private static void assertNoDifferences(Consumer<Consumer<String>> cases) {
+        List<String> differences = new ArrayList<>();
+        long[] total = new long[1];
+
+        cases.accept(value -> {
+            compare(differences, total, "parseDouble", value,
+                    outcome(() -> Double.parseDouble(value)), outcome(() -> NumberParser.parseDouble(value)));
+            Decimal128 decimal = NumberParser.parseDecimal128(value);
+            if (decimal != null) {
+                compare(differences, total, "parseDecimal128", value,
+                        outcome(() -> new Decimal128(new BigDecimal(value))), decimal);
+            }
+        });
+
+        assertEquals(List.of(), differences, total[0] + " diferenças em relação aos parsers do Java");
+    }
+
+    private static Object outcome(Supplier<Object> conversion) {
+        try {
+            return conversion.get();
+        } catch (RuntimeException e) {
+            return new Failure(e.getClass().getSimpleName());
+        }
+    }
+
+    private static void compare(List<String> differences, long[] total, String path, String value,
+                                Object expected, Object actual) {
+        if (expected.equals(actual)) {
+            return;
+        }
+        total[0]++;
+        if (differences.size() < MAX_REPORTED) {
+            differences.add(path + " '" + value + "': esperado " + expected + ", obtido " + actual);
+        }
+    }
+
+    /**
+     * Conversão rejeitada com uma exceção do tipo informado.
+     */
+    private record Failure(String type) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.model.SinkType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Finalização do dump BSON com a importação completa e com a importação que falhou.
+ */
+class BsonFileSinkTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void completeImportWritesMetadata() throws IOException {
+        BsonFileSink sink = new BsonFileSink(config());
+        sink.write(batch(10), false);
+        sink.close(true);
+
+        Path database = outputDir.resolve("db");
+        assertTrue(Files.size(database.resolve("c.bson")) > 0);
+        assertTrue(Files.exists(database.resolve("c.metadata.json")));
+    }
+
+    @Test
+    void failedImportKeepsThePartialDumpWithoutMetadata() throws IOException {
+        BsonFileSink complete = new BsonFileSink(config());
+        complete.write(batch(10), false);
+        complete.close(true);
+
+        BsonFileSink sink = new BsonFileSink(config());
+        sink.write(batch(3), false);
+        sink.close(false);
+
+        Path database = outputDir.resolve("db");
+        assertEquals(sink.getBytes(), Files.size(database.resolve("c.bson")));
+        assertFalse(Files.exists(database.resolve("c.metadata.json")));
+    }
+
+    private ImportConfig config() {
+        return ImportConfig.builder()
+            .database("db")
+            .collection("c")
+            .inputFile(new File("dados.csv"))
+            .sinkType(SinkType.BSON)
+            .outputDir(outputDir.toFile())
+            .build();
+    }
+
+    private static List<Bson> batch(int size) {
+        List<Bson> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new Document("id", i).append("nome", "Cliente " + i));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongodb.MongoSocketException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Falhas de escrita durante a importação em blocos com checkpoint.
+ */
+class FileImporterCheckpointTest {
+
+    // Blocos suficientes para encher a fila do leitor depois que a escrita falha
+    private static final long FILE_BYTES = 6L * ChunkSplitter.DEFAULT_CHUNK_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writerFailureWhileCheckpointingStopsImport() throws IOException {
+        File input = writeFile(tempDir.resolve("dados.csv"));
+        // Batch maior que um bloco: cada bloco termina com a entrega do batch parcial
+        ImportConfig config = ImportConfig.builder()
+            .database("db")
+            .collection("c")
+            .inputFile(input)
+            .delimiter(',')
+            .batchSize(100_000)
+            .numParseWorkers(1)
+            .maxWriteRetries(0)
+            .checkpoint(true)
+            .build();
+
+        for (int run = 0; run < 3; run++) {
+            FileImporter importer = new FileImporter(config, failingCollection(),
+                                                     new RetryPolicy(0, new CircuitBreaker()));
+            boolean success = assertTimeoutPreemptively(Duration.ofSeconds(60), importer::importFile);
+            assertFalse(success);
+        }
+    }
+
+    private static File writeFile(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("id,nome,valor\n");
+            long bytes = 0;
+            for (int i = 0; bytes < FILE_BYTES; i++) {
+                String line = i + ",Cliente " + i + " com um nome razoavelmente longo," + (i * 1.5) + "\n";
+                writer.write(line);
+                bytes += line.length();
+            }
+        }
+        return path.toFile();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> failingCollection() {
+        return (MongoCollection<Document>) Proxy.newProxyInstance(
+            FileImporterCheckpointTest.class.getClassLoader(), new Class<?>[] {MongoCollection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("withDocumentClass")) {
+                    return proxy;
+                }
+                // Erro transitório com as tentativas esgotadas: o worker de escrita falha
+                throw new MongoSocketException("falha de escrita simulada", new ServerAddress());
+            });
+    }
+}
@@ -0,0 +1,113 @@
+package com.mongoimport.importer;
+
+import com.mongoimport.config.ImportConfig;
+import com.mongoimport.model.ImportMode;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOneModel;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Erros do servidor no bulkWrite dos modos por chave.
+ */
+class MongoDocumentSinkTest {
+
+    private static final ImportConfig UPSERT = ImportConfig.builder()
+        .database("db")
+        .collection("c")
+        .inputFile(new File("dados.csv"))
+        .importMode(ImportMode.UPSERT)
+        .upsertFields(List.of("id"))
+        .maxWriteRetries(0)
+        .build();
+
+    @Test
+    void commandErrorSkipsOnlyTheRejectedDocuments() {
+        ImportStats stats = new ImportStats();
+        MongoDocumentSink sink = new MongoDocumentSink(UPSERT, collectionRejecting(Set.of(2, 5)), stats,
+                                                       new RetryPolicy(0, new CircuitBreaker()));
+
+        assertEquals(6, sink.write(batch(8), false));
+        assertEquals(2, stats.getSkipped());
+        assertEquals(6, stats.getMatched());
+    }
+
+    @Test
+    void commandErrorOnEveryDocumentCountsTheWholeBatchAsSkipped() {
+        ImportStats stats = new ImportStats();
+        MongoDocumentSink sink = new MongoDocumentSink(UPSERT, collectionRejecting(Set.of(0, 1, 2, 3, 4)), stats,
+                                                       new RetryPolicy(0, new CircuitBreaker()));
+
+        assertEquals(0, sink.write(batch(5), false));
+        assertEquals(5, stats.getSkipped());
+    }
+
+    @Test
+    void transientErrorStillFailsTheImport() {
+        MongoCollection<Document> collection = collection(models -> {
+            throw new MongoSocketException("falha de rede simulada", new ServerAddress());
+        });
+        MongoDocumentSink sink = new MongoDocumentSink(UPSERT, collection, new ImportStats(),
+                                                       new RetryPolicy(0, new CircuitBreaker()));
+
+        assertThrows(MongoSocketException.class, () -> sink.write(batch(4), false));
+    }
+
+    private static List<Bson> batch(int size) {
+        List<Bson> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new Document("id", i).append("nome", "Cliente " + i));
+        }
+        return batch;
+    }
+
+    /**
+     * Coleção que rejeita com erro de comando (sem identificar o documento) todo bulkWrite
+     * que contém um dos ids informados.
+     */
+    private static MongoCollection<Document> collectionRejecting(Set<Integer> rejectedIds) {
+        return collection(models -> {
+            for (Object model : models) {
+                Document replacement = (Document) ((ReplaceOneModel<?>) model).getReplacement();
+                if (rejectedIds.contains(replacement.getInteger("id"))) {
+                    throw new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                        .append("errmsg", new BsonString("not authorized on db to execute command"))
+                        .append("code", new BsonInt32(13)), new ServerAddress());
+                }
+            }
+            return BulkWriteResult.acknowledged(0, models.size(), 0, models.size(), List.of());
+        });
+    }
+
+    private interface BulkWriteHandler {
+        BulkWriteResult bulkWrite(List<?> models);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> collection(BulkWriteHandler handler) {
+        return (MongoCollection<Document>) Proxy.newProxyInstance(
+            MongoDocumentSinkTest.class.getClassLoader(), new Class<?>[] {MongoCollection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "withDocumentClass" -> proxy;
+                case "bulkWrite" -> handler.bulkWrite((List<?>) args[0]);
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,74 @@
+package com.mongoimport.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class InputOpenerTest {
+
+    private static final long READ_AHEAD = 4L * 1024 * 1024;
+
+    private static byte[] plain;
+    private static byte[] multiMemberGzip;
+
+    private final InputStream originalIn = System.in;
+
+    /**
+     * Muitos membros pequenos e de tamanhos variados: os limites dos membros caem em todas as
+     * posições dos buffers de leitura, inclusive nos últimos bytes de cada leitura.
+     */
+    @BeforeAll
+    static void createMultiMemberGzip() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        for (int member = 0; member < 200_000; member++) {
+            StringBuilder lines = new StringBuilder();
+            int rows = 1 + random.nextInt(4);
+            for (int row = 0; row < rows; row++) {
+                lines.append(member).append('|').append(Long.toHexString(random.nextLong())).append('\n');
+            }
+            byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+            text.write(bytes);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+        }
+        plain = text.toByteArray();
+        multiMemberGzip = compressed.toByteArray();
+    }
+
+    @AfterEach
+    void restoreStdin() {
+        System.setIn(originalIn);
+    }
+
+    @Test
+    void readsEveryMemberOfConcatenatedGzipFromStdin() throws IOException {
+        System.setIn(new ByteArrayInputStream(multiMemberGzip));
+        try (InputStream in = InputOpener.openStream(new File(InputOpener.STDIN), 1, READ_AHEAD)) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void readAheadReportsAvailableBytesToGzipInputStream() throws IOException {
+        // GZIPInputStream consulta available() para decidir se há outro membro
+        try (InputStream in = new GZIPInputStream(
+                new ReadAheadInputStream(new ByteArrayInputStream(multiMemberGzip), READ_AHEAD), 256 * 1024)) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+    }
+}
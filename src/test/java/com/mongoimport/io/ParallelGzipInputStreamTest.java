@@ -0,0 +1,66 @@
+package com.mongoimport.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ParallelGzipInputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsConcatenatedMembersInOrder() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        Path file = tempDir.resolve("membros.csv.gz");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int member = 0; member < 500; member++) {
+                byte[] bytes = lines(random, 1 + random.nextInt(1_000));
+                plain.write(bytes);
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                gzip.write(bytes);
+                gzip.finish();
+            }
+        }
+        assertArrayEquals(plain.toByteArray(), readParallel(file));
+    }
+
+    @Test
+    void streamsSingleMemberLargerThanSpeculativeOutput() throws IOException {
+        byte[] plain = lines(new Random(42), 400_000);
+        Path file = tempDir.resolve("unico.csv.gz");
+        try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(file))) {
+            gzip.write(plain);
+        }
+        assertArrayEquals(plain, readParallel(file));
+    }
+
+    private static byte[] readParallel(Path file) throws IOException {
+        try (InputStream in = new ParallelGzipInputStream(FileChannel.open(file, StandardOpenOption.READ), 4)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] lines(Random random, int rows) {
+        StringBuilder lines = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            lines.append(row).append('|').append(Long.toHexString(random.nextLong()))
+                 .append('|').append(random.nextDouble()).append('\n');
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
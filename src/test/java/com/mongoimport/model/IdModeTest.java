@@ -0,0 +1,30 @@
+package com.mongoimport.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdModeTest {
+
+    @Test
+    void parsesKnownModesIgnoringCase() {
+        assertEquals(IdMode.DOCUMENT, IdMode.fromString("document"));
+        assertEquals(IdMode.HASH, IdMode.fromString(" Hash "));
+    }
+
+    @Test
+    void emptyValueMeansDocument() {
+        assertEquals(IdMode.DOCUMENT, IdMode.fromString(null));
+        assertEquals(IdMode.DOCUMENT, IdMode.fromString(""));
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                                      () -> IdMode.fromString("hsh"));
+        assertTrue(error.getMessage().contains("hsh"));
+        assertThrows(IllegalArgumentException.class, () -> IdMode.fromString("doc"));
+    }
+}
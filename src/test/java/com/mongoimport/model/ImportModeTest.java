@@ -0,0 +1,32 @@
+package com.mongoimport.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportModeTest {
+
+    @Test
+    void parsesKnownModesIgnoringCase() {
+        assertEquals(ImportMode.INSERT, ImportMode.fromString("insert"));
+        assertEquals(ImportMode.UPSERT, ImportMode.fromString(" Upsert "));
+        assertEquals(ImportMode.MERGE, ImportMode.fromString("MERGE"));
+        assertEquals(ImportMode.DELETE, ImportMode.fromString("delete"));
+    }
+
+    @Test
+    void emptyValueMeansInsert() {
+        assertEquals(ImportMode.INSERT, ImportMode.fromString(null));
+        assertEquals(ImportMode.INSERT, ImportMode.fromString(" "));
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                                      () -> ImportMode.fromString("delet"));
+        assertTrue(error.getMessage().contains("delet"));
+        assertTrue(error.getMessage().contains("upsert, merge ou delete"));
+    }
+}
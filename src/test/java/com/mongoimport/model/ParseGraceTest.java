@@ -0,0 +1,26 @@
+package com.mongoimport.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseGraceTest {
+
+    @Test
+    void parsesKnownModesIgnoringCase() {
+        assertEquals(ParseGrace.AUTO_CAST, ParseGrace.fromString("autoCast"));
+        assertEquals(ParseGrace.SKIP_FIELD, ParseGrace.fromString("skipField"));
+        assertEquals(ParseGrace.SKIP_ROW, ParseGrace.fromString(" SKIPROW "));
+        assertEquals(ParseGrace.STOP, ParseGrace.fromString("stop"));
+        assertTrue(ParseGrace.isKnown("skipRow"));
+        assertTrue(ParseGrace.isKnown(null));
+    }
+
+    @Test
+    void unknownModeIsReportedAndFallsBackToAutoCast() {
+        assertFalse(ParseGrace.isKnown("skiprows"));
+        assertEquals(ParseGrace.AUTO_CAST, ParseGrace.fromString("skiprows"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.mongoimport.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserTypeTest {
+
+    @Test
+    void parsesKnownParsersIgnoringCase() {
+        assertEquals(ParserType.OPENCSV, ParserType.fromString("openCsv"));
+        assertEquals(ParserType.COMPAT, ParserType.fromString(" compat "));
+        assertEquals(ParserType.FAST, ParserType.fromString("FAST"));
+    }
+
+    @Test
+    void emptyValueMeansCompat() {
+        assertEquals(ParserType.COMPAT, ParserType.fromString(null));
+        assertEquals(ParserType.COMPAT, ParserType.fromString(""));
+    }
+
+    @Test
+    void rejectsUnknownParser() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                                      () -> ParserType.fromString("opencvs"));
+        assertTrue(error.getMessage().contains("opencvs"));
+    }
+}
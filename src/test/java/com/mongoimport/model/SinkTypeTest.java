@@ -0,0 +1,31 @@
+package com.mongoimport.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SinkTypeTest {
+
+    @Test
+    void parsesKnownSinksIgnoringCase() {
+        assertEquals(SinkType.MONGO, SinkType.fromString("mongo"));
+        assertEquals(SinkType.NULL, SinkType.fromString(" Null "));
+        assertEquals(SinkType.BSON, SinkType.fromString("BSON"));
+    }
+
+    @Test
+    void emptyValueMeansMongo() {
+        assertEquals(SinkType.MONGO, SinkType.fromString(null));
+        assertEquals(SinkType.MONGO, SinkType.fromString(""));
+    }
+
+    @Test
+    void rejectsUnknownSink() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                                                      () -> SinkType.fromString("nul"));
+        assertTrue(error.getMessage().contains("nul"));
+        assertThrows(IllegalArgumentException.class, () -> SinkType.fromString("bosn"));
+    }
+}
@@ -0,0 +1,278 @@
+package com.mongoimport.parser;
+
+import com.mongoimport.importer.ChunkSplitter;
+import com.mongoimport.importer.FileChunk;
+import com.mongoimport.model.ParserType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compara o {@link DelimitedParser} no modo {@link ParserType#COMPAT} com o CSVReader do
+ * OpenCSV ({@link OpenCsvRecordReader}), que define a semântica esperada: os mesmos registros,
+ * campo a campo, e o mesmo erro para toda entrada. O arquivo é lido inteiro e também dividido
+ * em blocos pelo {@link ChunkSplitter}, como na importação paralela: os limites dos blocos
+ * precisam coincidir com os limites de registro do OpenCSV.
+ */
+class DelimitedParserDifferentialTest {
+
+    private static final long SEED = 42;
+
+    // Diferenças reportadas por teste (as demais são apenas contadas)
+    private static final int MAX_REPORTED = 20;
+
+    @Test
+    void fixtures() throws IOException {
+        List<byte[]> files = new ArrayList<>();
+        try (DirectoryStream<Path> fixtures = Files.newDirectoryStream(Path.of("."), "teste-*.csv")) {
+            for (Path fixture : fixtures) {
+                files.add(Files.readAllBytes(fixture));
+            }
+        }
+        assertFalse(files.isEmpty(), "Nenhum arquivo teste-*.csv encontrado");
+        assertNoDifferences('|', check -> files.forEach(check::accept));
+    }
+
+    @Test
+    void quotesEscapesAndLineBreaks() {
+        String[] files = {
+            "",
+            "\n",
+            "\n\n",
+            "a|b|c",
+            "a|b|c\n",
+            "a|b|c\r\n1|2|3\r\n",
+            "a|b\r1|2\r",
+            "a||c\n|\n||\n",
+            "\"a\"|\"b\"|\"c\"\n",
+            "\"a|b\"|c\n",
+            "\"a\"\"b\"|c\n",
+            "\"\"|\"\"\"\"|\"\"\"\"\"\"\n",
+            "a\"b|c\n",
+            "ab\"c\"d|e\n",
+            "abc\"d\"ef|g\n",
+            "abcd\"|e\n",
+            "a|bcd\"e\"|f\n",
+            "  \"a\"|b\n",
+            " x \"a\"|b\n",
+            "\"a\"  |b\n",
+            "\"a\"b|c\n",
+            "\"linha 1\nlinha 2\"|b\n",
+            "\"linha 1\r\nlinha 2\"|b\r\n",
+            "\"linha 1\rlinha 2\"|b\r",
+            "\"\n\"|\"\r\n\"\n",
+            "a\\|b|c\n",
+            "a\\\"b|c\n",
+            "a\\\\b|c\n",
+            "a\\nb|c\n",
+            "a\\\n",
+            "\\",
+            "\"a\\\"b\"|c\n",
+            "\"a\\|b\"|c\n",
+            "\"a\\\\\"|b\n",
+            "\"sem fim|b\n",
+            "a|\"sem fim\n1|2\n",
+            "São|Paulo|\"Açaí\"\n",
+            "çé\"ã\"õ|ü\n",
+            "\"a\"|b\n\"c\n\"|\"d\"\"\n\"\n"
+        };
+        assertNoDifferences('|', check -> {
+            for (String file : files) {
+                check.accept(file.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    @Test
+    void randomFilesOverSpecialCharacters() {
+        Random random = new Random(SEED);
+        String alphabet = "ab|||,,\"\"\"\\\\\n\n\r \tçé";
+        assertNoDifferences('|', check -> {
+            for (int i = 0; i < 20_000; i++) {
+                check.accept(randomFile(random, alphabet, random.nextInt(random.nextBoolean() ? 16 : 200)));
+            }
+        });
+    }
+
+    @Test
+    void randomFilesWithCommaDelimiter() {
+        Random random = new Random(SEED);
+        String alphabet = "xy,,,|\"\"\\\n\r\n ã";
+        assertNoDifferences(',', check -> {
+            for (int i = 0; i < 20_000; i++) {
+                check.accept(randomFile(random, alphabet, random.nextInt(120)));
+            }
+        });
+    }
+
+    /**
+     * Registros bem formados (campos com e sem aspas), como em uma exportação real.
+     */
+    @Test
+    void randomWellFormedRecords() {
+        Random random = new Random(SEED);
+        String alphabet = "abc 123|\"\\\n\r,é";
+        assertNoDifferences('|', check -> {
+            for (int i = 0; i < 5_000; i++) {
+                StringBuilder file = new StringBuilder();
+                int rows = 1 + random.nextInt(20);
+                for (int row = 0; row < rows; row++) {
+                    int fields = 1 + random.nextInt(6);
+                    for (int field = 0; field < fields; field++) {
+                        if (field > 0) {
+                            file.append('|');
+                        }
+                        String text = randomText(random, alphabet, random.nextInt(12));
+                        if (random.nextBoolean()) {
+                            file.append('"').append(text.replace("\\", "\\\\").replace("\"", "\"\"")).append('"');
+                        } else {
+                            file.append(text.replace("\\", "\\\\").replace("\"", "\\\"").replace("|", "\\|")
+                                            .replace("\r", "").replace("\n", ""));
+                        }
+                    }
+                    file.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+                }
+                check.accept(file.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static byte[] randomFile(Random random, String alphabet, int length) {
+        return randomText(random, alphabet, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private interface Cases {
+        void generate(FileCheck check) throws IOException;
+    }
+
+    private interface FileCheck {
+        void accept(byte[] file);
+    }
+
+    /**
+     * Lê cada arquivo gerado por {@code cases} com o OpenCSV, com o parser COMPAT sobre o
+     * arquivo inteiro e com o parser COMPAT sobre os blocos do {@link ChunkSplitter} (blocos
+     * pequenos, de tamanho variado, para cortar o arquivo em todas as posições).
+     */
+    private static void assertNoDifferences(char delimiter, Cases cases) {
+        List<String> differences = new ArrayList<>();
+        long[] total = new long[1];
+        Random chunkSizes = new Random(SEED);
+
+        try {
+            cases.generate(file -> {
+                Outcome expected = readOpenCsv(file, delimiter);
+                compare(differences, total, "DelimitedParser", file, expected, readCompat(file, delimiter));
+                compare(differences, total, "ChunkSplitter", file, expected,
+                        readChunks(file, delimiter, 1 + chunkSizes.nextInt(64)));
+            });
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+
+        assertEquals(List.of(), differences, total[0] + " diferenças em relação ao OpenCSV");
+    }
+
+    private static Outcome readOpenCsv(byte[] file, char delimiter) {
+        Outcome outcome = new Outcome();
+        try (RecordReader reader = new OpenCsvRecordReader(
+                new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.UTF_8), delimiter)) {
+            read(reader, outcome);
+        } catch (IOException e) {
+            outcome.failed = true;
+        }
+        return outcome;
+    }
+
+    private static Outcome readCompat(byte[] file, char delimiter) {
+        Outcome outcome = new Outcome();
+        DelimitedParser parser = new DelimitedParser(delimiter, StandardCharsets.UTF_8, ParserType.COMPAT);
+        parser.reset(file.clone(), 0, file.length);
+        try {
+            read(parser, outcome);
+        } catch (IOException e) {
+            outcome.failed = true;
+        }
+        return outcome;
+    }
+
+    private static Outcome readChunks(byte[] file, char delimiter, int chunkSize) {
+        Outcome outcome = new Outcome();
+        DelimitedParser parser = new DelimitedParser(delimiter, StandardCharsets.UTF_8, ParserType.COMPAT);
+        try {
+            ChunkSplitter splitter = new ChunkSplitter(Channels.newChannel(new ByteArrayInputStream(file)),
+                                                       0, 1, delimiter, chunkSize);
+            FileChunk chunk;
+            while ((chunk = splitter.nextChunk()) != null) {
+                int before = outcome.records.size();
+                parser.reset(chunk.getData(), 0, chunk.getLength());
+                read(parser, outcome);
+                if (outcome.records.size() - before != chunk.getRecordCount()) {
+                    outcome.records.add(List.of("<bloco com " + chunk.getRecordCount() + " registros, lidos "
+                                                + (outcome.records.size() - before) + ">"));
+                }
+            }
+        } catch (IOException e) {
+            outcome.failed = true;
+        }
+        return outcome;
+    }
+
+    private static void read(RecordReader reader, Outcome outcome) throws IOException {
+        DelimitedRecord record;
+        while ((record = reader.next()) != null) {
+            outcome.records.add(Arrays.asList(record.toStringArray()));
+        }
+    }
+
+    private static void compare(List<String> differences, long[] total, String path, byte[] file,
+                                Outcome expected, Outcome actual) {
+        if (expected.records.equals(actual.records) && expected.failed == actual.failed) {
+            return;
+        }
+        total[0]++;
+        if (differences.size() < MAX_REPORTED) {
+            differences.add(path + " " + quote(new String(file, StandardCharsets.UTF_8)) + ": esperado "
+                            + expected + ", obtido " + actual);
+        }
+    }
+
+    private static String quote(String text) {
+        return "'" + text.replace("\r", "\\r").replace("\n", "\\n") + "'";
+    }
+
+    /**
+     * Registros lidos até o fim do arquivo ou até o primeiro erro.
+     */
+    private static final class Outcome {
+        final List<List<String>> records = new ArrayList<>();
+        boolean failed;
+
+        @Override
+        public String toString() {
+            return quote(records.toString()) + (failed ? " + erro" : "");
+        }
+    }
+}